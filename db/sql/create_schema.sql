@@ -48,6 +48,7 @@ CREATE TABLE hotel
     address varchar(50) NOT NULL,
     rating int NOT NULL,
     price    double precision NOT NULL,
+    rooms    int NOT NULL DEFAULT 10,
     CONSTRAINT pk_hotel PRIMARY KEY ( "id" )
 );
 
@@ -90,4 +91,7 @@ CREATE TABLE ticket
     CONSTRAINT fk_customer_t FOREIGN KEY ( customer_id ) REFERENCES customer ( dni )ON DELETE NO ACTION,
     CONSTRAINT fk_fly_t FOREIGN KEY ( fly_id ) REFERENCES fly ( "id" ) ON DELETE NO ACTION,
     CONSTRAINT fk_tour_t FOREIGN KEY ( tour_id ) REFERENCES tour ( "id" ) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_fly_price_id ON fly ( price, "id" );
+CREATE INDEX idx_hotel_price_id ON hotel ( price, "id" );
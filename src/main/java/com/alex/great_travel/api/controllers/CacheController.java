@@ -0,0 +1,35 @@
+package com.alex.great_travel.api.controllers;
+
+import com.alex.great_travel.api.models.response.CacheStatsResponse;
+import com.alex.great_travel.api.models.response.EntityCacheStatsResponse;
+import com.alex.great_travel.config.cache.CatalogCacheManager;
+import com.alex.great_travel.infrastructure.helpers.EntityCacheStatsHelper;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CatalogCacheManager catalogCacheManager;
+    private final EntityCacheStatsHelper entityCacheStatsHelper;
+
+    @Operation(summary = "Return the entries, memory, expired and removed entries and the limits of every catalog cache in redis")
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsResponse>> stats() {
+        return ResponseEntity.ok(this.catalogCacheManager.stats());
+    }
+
+    @Operation(summary = "Return the hits, misses and puts of every region of the entity cache on this node")
+    @GetMapping("/entities")
+    public ResponseEntity<List<EntityCacheStatsResponse>> entities() {
+        return ResponseEntity.ok(this.entityCacheStatsHelper.stats());
+    }
+}
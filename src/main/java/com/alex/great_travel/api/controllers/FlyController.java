@@ -1,17 +1,29 @@
 package com.alex.great_travel.api.controllers;
 
+import com.alex.great_travel.api.models.request.FlySearchRequest;
 import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.api.models.response.ItineraryResponse;
+import com.alex.great_travel.api.models.response.SliceResponse;
 import com.alex.great_travel.infrastructure.abstractService.FlyService;
+import com.alex.great_travel.infrastructure.helpers.CatalogResponseHelper;
+import com.alex.great_travel.infrastructure.helpers.CatalogWarmUpHelper;
+import com.alex.great_travel.infrastructure.helpers.NdjsonHelper;
+import com.alex.great_travel.util.AeroLine;
 import com.alex.great_travel.util.SortType;
+import com.alex.great_travel.util.exceptions.InvalidParamException;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 @RestController
 @RequestMapping("/fly")
@@ -19,6 +31,11 @@ import java.util.Set;
 public class FlyController {
 
     private final FlyService flyService;
+    private final CatalogWarmUpHelper catalogWarmUpHelper;
+    private final CatalogResponseHelper catalogResponseHelper;
+
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final double MAX_RADIUS_KM = 20_000;
 
     @Operation(summary = "Return a page with flights can be sorted or not")
     @GetMapping()
@@ -34,25 +51,130 @@ public class FlyController {
 
     }
 
+    @Operation(summary = "Return a slice of flights after the cursor, the order of the first slice is kept by the cursor")
+    @GetMapping("/slice")
+    public ResponseEntity<SliceResponse<FlyResponse>> findSlice(
+            @RequestParam Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(required = false) SortType sortType
+    ) {
+
+        if(Objects.isNull(sortType)) sortType = SortType.NONE;
+        if (size > MAX_SLICE_SIZE) size = MAX_SLICE_SIZE;
+        if (size < 1) size = 1;
+        SliceResponse<FlyResponse> response = flyService.readSlice(size, cursor, sortType);
+        return response.getContent().isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+
+    }
+
     @Operation(summary = "Return a list with flights with price less to price in parameter")
     @GetMapping("/less_price")
-    public ResponseEntity<Set<FlyResponse>> getLessPrice(@RequestParam BigDecimal price){
-        Set<FlyResponse> response = flyService.readLessPrice(price);
-        return response.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getLessPrice(
+            @RequestParam BigDecimal price,
+            WebRequest request
+    ){
+        return catalogResponseHelper.fly(CatalogResponseHelper.key("less_price", price), request,
+                () -> flyService.readLessPrice(price));
     }
 
     @Operation(summary = "Return a list with flights with between prices in parameters")
     @GetMapping("/between_price")
-    public ResponseEntity<Set<FlyResponse>> getBetweenPrice(@RequestParam BigDecimal min, @RequestParam BigDecimal max){
-        Set<FlyResponse> response = flyService.readBetweenPrices(min, max);
-        return response.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getBetweenPrice(
+            @RequestParam BigDecimal min,
+            @RequestParam BigDecimal max,
+            WebRequest request
+    ){
+        return catalogResponseHelper.fly(CatalogResponseHelper.key("between_price", min, max),
+                request, () -> flyService.readBetweenPrices(min, max));
+    }
+
+    @Operation(summary = "Stream as ndjson the flights with price less to price in parameter")
+    @GetMapping(value = "/less_price/stream", produces = NdjsonHelper.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamLessPrice(@RequestParam BigDecimal price){
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonHelper.APPLICATION_NDJSON))
+                .body(output -> flyService.streamLessPrice(price, output));
+    }
+
+    @Operation(summary = "Stream as ndjson the flights with between prices in parameters")
+    @GetMapping(value = "/between_price/stream", produces = NdjsonHelper.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamBetweenPrice(@RequestParam BigDecimal min, @RequestParam BigDecimal max){
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonHelper.APPLICATION_NDJSON))
+                .body(output -> flyService.streamBetweenPrices(min, max, output));
     }
 
     @Operation(summary = "Return a list with flights with between origin and destiny in parameters")
     @GetMapping("/origin_destiny")
-    public ResponseEntity<Set<FlyResponse>> getOriginDestiny(@RequestParam String origin, @RequestParam String destiny){
-        Set<FlyResponse> response = flyService.readByOriginDestiny(origin, destiny);
+    public ResponseEntity<byte[]> getOriginDestiny(
+            @RequestParam String origin,
+            @RequestParam String destiny,
+            WebRequest request
+    ){
+        return catalogResponseHelper.fly(CatalogResponseHelper.key("origin_destiny", origin, destiny), request,
+                () -> flyService.readByOriginDestiny(origin, destiny));
+    }
+
+    @Operation(summary = "Return the cheapest itineraries with up to three legs between origin and destiny")
+    @GetMapping("/routes")
+    public ResponseEntity<List<ItineraryResponse>> getRoutes(
+            @RequestParam String origin,
+            @RequestParam String destiny,
+            @RequestParam(defaultValue = "3") Integer maxLegs,
+            @RequestParam(defaultValue = "5") Integer limit
+    ) {
+        if (maxLegs > 3) maxLegs = 3;
+        if (maxLegs < 1) maxLegs = 1;
+        if (limit > 20) limit = 20;
+        if (limit < 1) limit = 1;
+        List<ItineraryResponse> response = flyService.readRoutes(origin, destiny, maxLegs, limit);
         return response.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Return the flights departing within the radius in kilometers, nearest first")
+    @GetMapping("/near")
+    public ResponseEntity<List<FlyResponse>> getNear(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(defaultValue = "100") Double radiusKm
+    ) {
+        // NaN fails every comparison, it would reach the index and match nothing
+        if (!Double.isFinite(lat)) throw new InvalidParamException("lat", lat);
+        if (!Double.isFinite(lng)) throw new InvalidParamException("lng", lng);
+        if (!Double.isFinite(radiusKm)) throw new InvalidParamException("radiusKm", radiusKm);
+        if (lat > 90) lat = 90.0;
+        if (lat < -90) lat = -90.0;
+        if (lng > 180 || lng < -180) lng = ((lng + 180) % 360 + 360) % 360 - 180;
+        if (radiusKm > MAX_RADIUS_KM) radiusKm = MAX_RADIUS_KM;
+        if (radiusKm < 0) radiusKm = 0.0;
+        List<FlyResponse> response = flyService.readNear(lat, lng, radiusKm);
+        return response.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Return the flights matching every optional filter with counts by aeroline and by price bucket")
+    @GetMapping("/search")
+    public ResponseEntity<FlySearchResponse> search(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destiny,
+            @RequestParam(required = false) AeroLine aeroLine,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(required = false) SortType sortType
+    ) {
+        FlySearchRequest request = FlySearchRequest.builder()
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .origin(origin)
+                .destiny(destiny)
+                .aeroLine(aeroLine)
+                .sortType(sortType)
+                .limit(limit)
+                .build()
+                .normalized();
+        catalogWarmUpHelper.record(request);
+        FlySearchResponse response = flyService.search(request);
+        return response.getTotal() == 0 ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+    }
+
 }
@@ -1,17 +1,25 @@
 package com.alex.great_travel.api.controllers;
 
 import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.api.models.response.SliceResponse;
 import com.alex.great_travel.infrastructure.abstractService.HotelService;
+import com.alex.great_travel.infrastructure.helpers.CatalogResponseHelper;
+import com.alex.great_travel.infrastructure.helpers.NdjsonHelper;
 import com.alex.great_travel.util.SortType;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 @RestController
 @RequestMapping("/hotel")
@@ -19,6 +27,10 @@ import java.util.Set;
 public class HotelController {
 
     private final HotelService hotelService;
+    private final CatalogResponseHelper catalogResponseHelper;
+
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int MAX_SEARCH_LIMIT = 50;
 
     @Operation(summary = "Return a page with hotels can be sorted or not")
     @GetMapping()
@@ -34,27 +46,103 @@ public class HotelController {
 
     }
 
+    @Operation(summary = "Return a slice of hotels after the cursor, the order of the first slice is kept by the cursor")
+    @GetMapping("/slice")
+    public ResponseEntity<SliceResponse<HotelResponse>> findSlice(
+            @RequestParam Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(required = false) SortType sortType
+    ) {
+
+        if(Objects.isNull(sortType)) sortType = SortType.NONE;
+        if (size > MAX_SLICE_SIZE) size = MAX_SLICE_SIZE;
+        if (size < 1) size = 1;
+        SliceResponse<HotelResponse> response = hotelService.readSlice(size, cursor, sortType);
+        return response.getContent().isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+
+    }
+
     @Operation(summary = "Return a list with hotels with price less to price in parameter")
     @GetMapping("/less_price")
-    public ResponseEntity<Set<HotelResponse>> getLessPrice(@RequestParam BigDecimal price){
-        Set<HotelResponse> response = hotelService.readLessPrice(price);
-        return response.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getLessPrice(
+            @RequestParam BigDecimal price,
+            WebRequest request
+    ){
+        return catalogResponseHelper.hotel(CatalogResponseHelper.key("less_price", price), request,
+                () -> hotelService.readLessPrice(price));
     }
 
     @Operation(summary = "Return a list with hotels with between prices in parameters")
     @GetMapping("/between_price")
-    public ResponseEntity<Set<HotelResponse>> getBetweenPrice(@RequestParam BigDecimal min, @RequestParam BigDecimal max){
-        Set<HotelResponse> response = hotelService.readBetweenPrices(min, max);
-        return response.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getBetweenPrice(
+            @RequestParam BigDecimal min,
+            @RequestParam BigDecimal max,
+            WebRequest request
+    ){
+        return catalogResponseHelper.hotel(CatalogResponseHelper.key("between_price", min, max),
+                request, () -> hotelService.readBetweenPrices(min, max));
+    }
+
+    @Operation(summary = "Stream as ndjson the hotels with price less to price in parameter")
+    @GetMapping(value = "/less_price/stream", produces = NdjsonHelper.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamLessPrice(@RequestParam BigDecimal price){
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonHelper.APPLICATION_NDJSON))
+                .body(output -> hotelService.streamLessPrice(price, output));
+    }
+
+    @Operation(summary = "Stream as ndjson the hotels with between prices in parameters")
+    @GetMapping(value = "/between_price/stream", produces = NdjsonHelper.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamBetweenPrice(@RequestParam BigDecimal min, @RequestParam BigDecimal max){
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonHelper.APPLICATION_NDJSON))
+                .body(output -> hotelService.streamBetweenPrices(min, max, output));
     }
 
     @Operation(summary = "Return a list with hotels with ratting greater a parameter")
     @GetMapping("/rating")
-    public ResponseEntity<Set<HotelResponse>> getByRating(@RequestParam Integer rating){
+    public ResponseEntity<byte[]> getByRating(
+            @RequestParam Integer rating,
+            WebRequest request
+    ){
         if (rating > 4) rating = 4;
         if (rating < 1) rating = 1;
-        Set<HotelResponse> response = hotelService.readByRatingGreaterThan(rating);
+        Integer clamped = rating;
+        return catalogResponseHelper.hotel(CatalogResponseHelper.key("rating", clamped), request,
+                () -> hotelService.readByRatingGreaterThan(clamped));
+    }
+
+    @Operation(summary = "Return the hotels with at least the rating and between prices in parameters, all of them optional")
+    @GetMapping("/filter")
+    public ResponseEntity<byte[]> getByFilter(
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(required = false) BigDecimal min,
+            @RequestParam(required = false) BigDecimal max,
+            WebRequest request
+    ) {
+        return catalogResponseHelper.hotel(CatalogResponseHelper.key("filter", minRating, min, max),
+                request, () -> hotelService.readByFilter(minRating, min, max));
+    }
+
+    @Operation(summary = "Return the hotels with a free room every night from check in to the day before check out")
+    @GetMapping("/available")
+    public ResponseEntity<List<HotelResponse>> getAvailable(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut
+    ) {
+        List<HotelResponse> response = hotelService.readAvailable(checkIn, checkOut);
         return response.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Return the hotels whose name or address match the text, best match first, typos allowed")
+    @GetMapping("/search")
+    public ResponseEntity<List<HotelResponse>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") Integer limit
+    ) {
+        if (limit > MAX_SEARCH_LIMIT) limit = MAX_SEARCH_LIMIT;
+        if (limit < 1) limit = 1;
+        List<HotelResponse> response = hotelService.search(q, limit);
+        return response.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,42 @@
+package com.alex.great_travel.api.controllers;
+
+import com.alex.great_travel.api.models.response.ImportResponse;
+import com.alex.great_travel.infrastructure.abstractService.CatalogImportService;
+import com.alex.great_travel.infrastructure.helpers.NdjsonHelper;
+import com.alex.great_travel.util.ImportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/import")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final CatalogImportService catalogImportService;
+
+    private static final String TEXT_CSV = "text/csv";
+
+    @Operation(summary = "Import flights from a csv or ndjson body, invalid rows are reported and skipped")
+    @PostMapping(value = "/fly", consumes = {TEXT_CSV, NdjsonHelper.APPLICATION_NDJSON})
+    public ResponseEntity<ImportResponse> importFlights(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType
+    ) {
+        return ResponseEntity.ok(this.catalogImportService.importFlights(body, ImportFormat.of(contentType)));
+    }
+
+    @Operation(summary = "Import hotels from a csv or ndjson body, invalid rows are reported and skipped")
+    @PostMapping(value = "/hotel", consumes = {TEXT_CSV, NdjsonHelper.APPLICATION_NDJSON})
+    public ResponseEntity<ImportResponse> importHotels(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType
+    ) {
+        return ResponseEntity.ok(this.catalogImportService.importHotels(body, ImportFormat.of(contentType)));
+    }
+
+}
@@ -10,10 +10,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
@@ -77,8 +79,9 @@ public class TourController {
     public ResponseEntity<Map<String, UUID>> postReservation(
             @PathVariable Long tourId,
             @PathVariable Long hotelId,
-            @RequestParam Integer totalDays) {
-        var response = Collections.singletonMap("ReservationId", this.tourService.addReservation(tourId, hotelId, totalDays));
+            @RequestParam Integer totalDays,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn) {
+        var response = Collections.singletonMap("ReservationId", this.tourService.addReservation(tourId, hotelId, totalDays, checkIn));
         return ResponseEntity.ok(response);
     }
 
@@ -7,6 +7,9 @@ import com.alex.great_travel.api.models.response.BaseErrorResponse;
 import com.alex.great_travel.api.models.response.ErrorResponse;
 import com.alex.great_travel.api.models.response.ErrorsResponse;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
+import com.alex.great_travel.util.exceptions.InvalidCursorException;
+import com.alex.great_travel.util.exceptions.InvalidParamException;
+import com.alex.great_travel.util.exceptions.NoRoomAvailableException;
 import com.alex.great_travel.util.exceptions.UsernameNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,7 +23,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class BadRequestController {
 
-    @ExceptionHandler({IdNotFoundException.class, UsernameNotFoundException.class})
+    @ExceptionHandler({IdNotFoundException.class, UsernameNotFoundException.class, InvalidCursorException.class,
+            NoRoomAvailableException.class, InvalidParamException.class})
     public BaseErrorResponse handleIdNotFound(RuntimeException exception){
         return ErrorResponse
                 .builder()
@@ -0,0 +1,48 @@
+package com.alex.great_travel.api.models.request;
+
+import com.alex.great_travel.util.AeroLine;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class FlyImportRequest {
+
+    @NotNull(message = "Origin latitude is mandatory")
+    private Double originLat;
+
+    @NotNull(message = "Origin longitude is mandatory")
+    private Double originLng;
+
+    @NotNull(message = "Destiny latitude is mandatory")
+    private Double destinyLat;
+
+    @NotNull(message = "Destiny longitude is mandatory")
+    private Double destinyLng;
+
+    @Size(max = 20, message = "The origin have to a length of 20 characters or less")
+    @NotBlank(message = "Origin name is mandatory")
+    private String originName;
+
+    @Size(max = 20, message = "The destiny have to a length of 20 characters or less")
+    @NotBlank(message = "Destiny name is mandatory")
+    private String destinyName;
+
+    @NotNull(message = "Aero line is mandatory")
+    private AeroLine aeroLine;
+
+    @Positive(message = "Price have to be positive")
+    @NotNull(message = "Price is mandatory")
+    private BigDecimal price;
+
+}
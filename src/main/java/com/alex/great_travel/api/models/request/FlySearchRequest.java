@@ -0,0 +1,61 @@
+package com.alex.great_travel.api.models.request;
+
+import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.SortType;
+import com.alex.great_travel.util.exceptions.InvalidParamException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder(toBuilder = true)
+public class FlySearchRequest {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String origin;
+    private String destiny;
+    private AeroLine aeroLine;
+    private SortType sortType;
+    private Integer limit;
+
+    // equivalent searches end with the same values, so they share the same cache entry
+    public FlySearchRequest normalized() {
+        BigDecimal min = Objects.isNull(this.minPrice) ? null : this.minPrice.stripTrailingZeros();
+        BigDecimal max = Objects.isNull(this.maxPrice) ? null : this.maxPrice.stripTrailingZeros();
+        if (Objects.nonNull(min) && Objects.nonNull(max) && min.compareTo(max) > 0) {
+            throw new InvalidParamException("minPrice", this.minPrice.toPlainString() + " over maxPrice " + this.maxPrice.toPlainString());
+        }
+        int size = Objects.isNull(this.limit) ? DEFAULT_LIMIT : Math.max(1, Math.min(this.limit, MAX_LIMIT));
+        return this.toBuilder()
+                .minPrice(min)
+                .maxPrice(max)
+                .origin(blankToNull(this.origin))
+                .destiny(blankToNull(this.destiny))
+                .sortType(Objects.isNull(this.sortType) ? SortType.NONE : this.sortType)
+                .limit(size)
+                .build();
+    }
+
+    public String cacheKey() {
+        return "search:" + plain(this.minPrice) + ":" + plain(this.maxPrice) + ":" + this.origin + ":" +
+                this.destiny + ":" + this.aeroLine + ":" + this.sortType + ":" + this.limit;
+    }
+
+    private static String blankToNull(String value) {
+        return Objects.isNull(value) || value.isBlank() ? null : value.trim();
+    }
+
+    private static String plain(BigDecimal value) {
+        return Objects.isNull(value) ? null : value.toPlainString();
+    }
+}
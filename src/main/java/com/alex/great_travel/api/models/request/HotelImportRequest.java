@@ -0,0 +1,43 @@
+package com.alex.great_travel.api.models.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class HotelImportRequest {
+
+    @Size(max = 50, message = "The name have to a length of 50 characters or less")
+    @NotBlank(message = "Name is mandatory")
+    private String name;
+
+    @Size(max = 50, message = "The address have to a length of 50 characters or less")
+    @NotBlank(message = "Address is mandatory")
+    private String address;
+
+    @Min(value = 1, message = "Min rating is 1")
+    @Max(value = 5, message = "Max rating is 5")
+    @NotNull(message = "Rating is mandatory")
+    private Integer rating;
+
+    @Positive(message = "Price have to be positive")
+    @NotNull(message = "Price is mandatory")
+    private BigDecimal price;
+
+    // a row without rooms gets the default capacity of the hotel table
+    @Positive(message = "Rooms have to be positive")
+    private Integer rooms;
+
+}
@@ -1,17 +1,24 @@
 package com.alex.great_travel.api.models.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+import java.util.Objects;
+
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
 public class ReservationRequest {
 
+    public static final int MAX_TOTAL_DAYS = 30;
+    public static final int BOOKING_HORIZON_DAYS = 365;
+
     @Size(min = 18, max = 20, message = "The size must be between 18 and 20 characters")
     @NotBlank(message = "client id is mandatory")
     private String clientId;
@@ -21,11 +28,20 @@ public class ReservationRequest {
     private Long hotelId;
 
     @Min(value = 1, message = "Min one day to make reservation")
-    @Max(value = 30, message = "Max 30 days to meake reservation")
+    @Max(value = MAX_TOTAL_DAYS, message = "Max 30 days to meake reservation")
     @NotNull(message = "total days is mandatory")
     private Integer totalDays;
 
+    @FutureOrPresent(message = "check in can not be in the past")
+    private LocalDate checkIn;
+
     @Email(message = "invalid email")
     private String email;
 
+    @JsonIgnore
+    @AssertTrue(message = "check in can not be more than 365 days ahead")
+    public boolean isCheckInWithinHorizon() {
+        return Objects.isNull(this.checkIn) || !this.checkIn.isAfter(LocalDate.now().plusDays(BOOKING_HORIZON_DAYS));
+    }
+
 }
@@ -1,14 +1,15 @@
 package com.alex.great_travel.api.models.request;
 
-import jakarta.validation.constraints.Max;
-import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+import java.util.Objects;
+
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -20,7 +21,16 @@ public class TourHotelRequest {
     private Long id;
 
     @Min(value = 1, message = "Min one day to make reservation")
-    @Max(value = 30, message = "Max 30 days to meake reservation")
+    @Max(value = ReservationRequest.MAX_TOTAL_DAYS, message = "Max 30 days to meake reservation")
     @NotNull(message = "total days is mandatory")
     private Integer totalDays;
+
+    @FutureOrPresent(message = "check in can not be in the past")
+    private LocalDate checkIn;
+
+    @JsonIgnore
+    @AssertTrue(message = "check in can not be more than 365 days ahead")
+    public boolean isCheckInWithinHorizon() {
+        return Objects.isNull(this.checkIn) || !this.checkIn.isAfter(LocalDate.now().plusDays(ReservationRequest.BOOKING_HORIZON_DAYS));
+    }
 }
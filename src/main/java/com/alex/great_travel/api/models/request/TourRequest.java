@@ -1,5 +1,6 @@
 package com.alex.great_travel.api.models.request;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -23,6 +24,7 @@ public class TourRequest {
     @Size(min = 1, message = "Min flight tour per tour")
     private Set<TourFlyRequest> flights;
 
+    @Valid
     @Size(min = 1, message = "Min hotel tour per tour")
     private Set<TourHotelRequest> hotels;
 
@@ -0,0 +1,22 @@
+package com.alex.great_travel.api.models.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CacheStatsResponse {
+    private String name;
+    private Long entries;
+    private Long memoryBytes;
+    private Long expired;
+    private Long removed;
+    private Long ttlSeconds;
+    private Long maxIdleSeconds;
+    private Integer maxEntries;
+    private String eviction;
+}
@@ -0,0 +1,18 @@
+package com.alex.great_travel.api.models.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class EntityCacheStatsResponse {
+    private String region;
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Double hitRatio;
+}
@@ -6,13 +6,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
-public class FlyResponse {
+public class FlyResponse implements Serializable {
     private Long id;
     private Double originLat;
     private Double originLng;
@@ -0,0 +1,23 @@
+package com.alex.great_travel.api.models.response;
+
+import com.alex.great_travel.util.AeroLine;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class FlySearchResponse implements Serializable {
+    private List<FlyResponse> flights;
+    private Long total;
+    private Map<AeroLine, Long> byAeroLine;
+    private Map<BigDecimal, Long> byPrice;
+}
@@ -5,16 +5,18 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
-public class HotelResponse {
+public class HotelResponse implements Serializable {
     private Long id;
     private String name;
     private String address;
     private Integer rating;
     private BigDecimal price;
+    private Integer rooms;
 }
@@ -0,0 +1,19 @@
+package com.alex.great_travel.api.models.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ImportResponse {
+    private Long read;
+    private Long imported;
+    private Long rejected;
+    private List<String> errors;
+}
@@ -0,0 +1,19 @@
+package com.alex.great_travel.api.models.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ItineraryResponse {
+    private Integer legs;
+    private BigDecimal totalPrice;
+    private List<FlyResponse> flights;
+}
@@ -0,0 +1,19 @@
+package com.alex.great_travel.api.models.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class SliceResponse<T> {
+    private List<T> content;
+    private Integer size;
+    private Boolean hasNext;
+    private String nextCursor;
+}
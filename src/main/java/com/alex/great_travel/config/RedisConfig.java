@@ -1,17 +1,26 @@
 package com.alex.great_travel.config;
 
+import com.alex.great_travel.config.cache.CatalogCacheConfig;
+import com.alex.great_travel.config.cache.CatalogCacheManager;
+import com.alex.great_travel.config.cache.CatalogCodec;
+import com.alex.great_travel.config.cache.CircuitBreaker;
+import com.alex.great_travel.config.cache.EntityCacheRegionFactory;
+import com.alex.great_travel.config.cache.TwoLevelCacheManager;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
-import org.redisson.spring.cache.CacheConfig;
-import org.redisson.spring.cache.RedissonSpringCacheManager;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -30,27 +39,84 @@ public class RedisConfig {
     @Value("${cache.redis.password}")
     private String serverPassword;
 
+    @Value("${cache.local.max-entries:500}")
+    private Integer localMaxEntries;
+
+    @Value("${cache.local.ttl-seconds:60}")
+    private Long localTtlSeconds;
+
+    @Value("${cache.redis.timeout-millis:500}")
+    private Integer redisTimeoutMillis;
+
+    @Value("${cache.redis.retry-attempts:1}")
+    private Integer redisRetryAttempts;
+
+    @Value("${cache.circuit.failures:5}")
+    private Integer circuitFailures;
+
+    @Value("${cache.circuit.slow-call-millis:250}")
+    private Long circuitSlowCallMillis;
+
+    @Value("${cache.circuit.open-seconds:10}")
+    private Long circuitOpenSeconds;
+
+    @Value("${cache.entities.ttl-seconds:3600}")
+    private Long entitiesTtlSeconds;
+
     @Bean
     public RedissonClient redissonClient() {
         var config = new Config();
+        config.setLockWatchdogTimeout(CacheConstants.LOCK_LEASE_MILLIS);
+        // no connection is opened at start up so the app starts without redis, and a slow
+        // redis fails in a bounded time instead of the default retries of several seconds
         config.useSingleServer()
                 .setAddress(serverAddress)
-                .setPassword(serverPassword);
+                .setPassword(serverPassword)
+                .setConnectionMinimumIdleSize(0)
+                .setSubscriptionConnectionMinimumIdleSize(0)
+                .setConnectTimeout(redisTimeoutMillis * 2)
+                .setTimeout(redisTimeoutMillis)
+                .setRetryAttempts(redisRetryAttempts)
+                .setRetryInterval(redisTimeoutMillis / 5);
         return Redisson.create(config);
     }
 
+    // one breaker for every call to redis, the catalog caches and the entity cache see the same health
     @Bean
-    public CacheManager cacheManager(RedissonClient redissonClient) {
+    public CircuitBreaker redisCircuitBreaker() {
+        return new CircuitBreaker(circuitFailures, circuitSlowCallMillis, circuitOpenSeconds * 1000);
+    }
+
+    @Bean
+    public CatalogCacheManager catalogCacheManager(RedissonClient redissonClient, Environment environment) {
         var configs = Map.of(
-                CacheConstants.FLY_CACHE_NAME, new CacheConfig(),
-                CacheConstants.HOTEL_CACHE_NAME, new CacheConfig());
-        return new RedissonSpringCacheManager(redissonClient, configs);
+                CacheConstants.FLY_CACHE_NAME, CatalogCacheConfig.of(environment, CacheConstants.FLY_CACHE_NAME));
+        return new CatalogCacheManager(redissonClient, configs, new CatalogCodec());
+    }
+
+    @Bean
+    @Primary
+    public CacheManager cacheManager(RedissonClient redissonClient, CatalogCacheManager shared, CircuitBreaker breaker) {
+        return new TwoLevelCacheManager(shared, redissonClient.getTopic(CacheConstants.INVALIDATION_TOPIC),
+                localMaxEntries, localTtlSeconds * 1000, breaker);
+
+    }
 
+    // second level cache of the read mostly entities and the cached queries, with region statistics
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(RedissonClient redissonClient, CircuitBreaker breaker) {
+        var regionFactory = new EntityCacheRegionFactory(redissonClient, breaker, entitiesTtlSeconds);
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
     }
 
     @CacheEvict(cacheNames = {
-            CacheConstants.FLY_CACHE_NAME,
-            CacheConstants.HOTEL_CACHE_NAME
+            CacheConstants.FLY_CACHE_NAME
     }, allEntries = true)
     @Scheduled(cron = CacheConstants.SCHEDULED_RESET_CACHE)
     @Async
@@ -60,8 +126,17 @@ public class RedisConfig {
 
     public class CacheConstants {
         public static final String FLY_CACHE_NAME = "flights"; // cache name for flights
-        public static final String HOTEL_CACHE_NAME = "hotels"; // cache name for hotels
+        public static final String INVALIDATION_TOPIC = "catalog-cache-invalidation"; // topic to drop local entries
+        public static final String CATALOG_CHANGE_TOPIC = "catalog-changes"; // topic to patch the indexes of every node
+        public static final long LOCK_LEASE_MILLIS = 10_000; // lease of the lock of a loading key, renewed while it loads
         public static final String SCHEDULED_RESET_CACHE = "0 0 0 * * ?"; // cron expresion every day at 12AM
+        public static final String SCHEDULED_WARM_UP = "0 1 0 * * ?"; // cron expresion every day at 12:01AM, after the reset
+        // order of the listeners of a catalog change: the indexes are patched, the bodies read from
+        // them dropped, then the version moves and the relay sends it to the other nodes
+        public static final int PATCH_ORDER = Ordered.HIGHEST_PRECEDENCE;
+        public static final int DROP_ORDER = PATCH_ORDER + 1;
+        public static final int VERSION_ORDER = DROP_ORDER + 1;
+        public static final int RELAY_ORDER = VERSION_ORDER + 1;
     }
 
 }
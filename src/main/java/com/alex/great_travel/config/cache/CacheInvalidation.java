@@ -0,0 +1,19 @@
+package com.alex.great_travel.config.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Message sent to the other nodes when an entry changes, a null key drops the whole cache.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CacheInvalidation implements Serializable {
+    private String origin;
+    private String cacheName;
+    private Object key;
+}
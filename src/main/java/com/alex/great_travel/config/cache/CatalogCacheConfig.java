@@ -0,0 +1,38 @@
+package com.alex.great_travel.config.cache;
+
+import lombok.Getter;
+import org.redisson.api.EvictionMode;
+import org.redisson.spring.cache.CacheConfig;
+import org.springframework.core.env.PropertyResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis level of a catalog cache, read from {@code cache.<name>.ttl-seconds},
+ * {@code cache.<name>.max-idle-seconds}, {@code cache.<name>.max-entries} and
+ * {@code cache.<name>.eviction} (LRU or LFU), a zero disables the limit.
+ */
+@Getter
+public class CatalogCacheConfig extends CacheConfig {
+
+    public static final long DEFAULT_TTL_SECONDS = 3600;
+    public static final long DEFAULT_MAX_IDLE_SECONDS = 900;
+    public static final int DEFAULT_MAX_ENTRIES = 5000;
+
+    private final EvictionMode evictionMode;
+
+    public CatalogCacheConfig(long ttlSeconds, long maxIdleSeconds, int maxEntries, EvictionMode evictionMode) {
+        super(TimeUnit.SECONDS.toMillis(ttlSeconds), TimeUnit.SECONDS.toMillis(maxIdleSeconds));
+        this.setMaxSize(maxEntries);
+        this.evictionMode = evictionMode;
+    }
+
+    public static CatalogCacheConfig of(PropertyResolver properties, String cacheName) {
+        String prefix = "cache." + cacheName + ".";
+        return new CatalogCacheConfig(
+                properties.getProperty(prefix + "ttl-seconds", Long.class, DEFAULT_TTL_SECONDS),
+                properties.getProperty(prefix + "max-idle-seconds", Long.class, DEFAULT_MAX_IDLE_SECONDS),
+                properties.getProperty(prefix + "max-entries", Integer.class, DEFAULT_MAX_ENTRIES),
+                properties.getProperty(prefix + "eviction", EvictionMode.class, EvictionMode.LRU));
+    }
+}
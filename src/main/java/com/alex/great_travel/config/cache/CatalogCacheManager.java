@@ -0,0 +1,103 @@
+package com.alex.great_travel.config.cache;
+
+import com.alex.great_travel.api.models.response.CacheStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.map.event.EntryExpiredListener;
+import org.redisson.api.map.event.EntryRemovedListener;
+import org.redisson.client.codec.Codec;
+import org.redisson.spring.cache.RedissonSpringCacheManager;
+import org.springframework.cache.Cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis level of the catalog caches. Redisson bounds a cache with LRU when it creates it, so the
+ * eviction mode of the config is set again right after. Expired and removed entries, the ones
+ * dropped by the size limit included, are published by redis and counted on every node.
+ */
+@Slf4j
+public class CatalogCacheManager extends RedissonSpringCacheManager {
+
+    private final RedissonClient redissonClient;
+    private final Map<String, CatalogCacheConfig> configs;
+    private final Codec codec;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public CatalogCacheManager(RedissonClient redissonClient, Map<String, CatalogCacheConfig> configs, Codec codec) {
+        super(redissonClient, configs, codec);
+        this.redissonClient = redissonClient;
+        this.configs = configs;
+        this.codec = codec;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache;
+        try {
+            cache = super.getCache(name);
+        } catch (RuntimeException exception) {
+            // redisson keeps the cache before it bounds it in redis, configure bounds it later
+            cache = super.getCache(name);
+        }
+        CatalogCacheConfig config = this.configs.get(name);
+        if (Objects.nonNull(config) && !this.counters.containsKey(name)) this.configure(name, config);
+        return cache;
+    }
+
+    // a cache first used while redis was down is configured here
+    public List<CacheStatsResponse> stats() {
+        this.configs.forEach((name, config) -> {
+            if (!this.counters.containsKey(name)) this.configure(name, config);
+        });
+        return this.configs.entrySet().stream()
+                .map(entry -> this.stats(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private synchronized void configure(String name, CatalogCacheConfig config) {
+        if (this.counters.containsKey(name)) return;
+        try {
+            RMapCache<Object, Object> map = this.map(name);
+            if (config.getMaxSize() > 0) map.setMaxSize(config.getMaxSize(), config.getEvictionMode());
+            Counters counted = new Counters();
+            map.addListener((EntryExpiredListener<Object, Object>) event -> counted.expired.increment());
+            map.addListener((EntryRemovedListener<Object, Object>) event -> counted.removed.increment());
+            this.counters.put(name, counted);
+        } catch (RuntimeException exception) {
+            // configured again on the next use of the cache
+            log.warn("Cache {} not configured: {}", name, exception.getMessage());
+        }
+    }
+
+    private CacheStatsResponse stats(String name, CatalogCacheConfig config) {
+        RMapCache<Object, Object> map = this.map(name);
+        Counters counted = this.counters.getOrDefault(name, new Counters());
+        return CacheStatsResponse.builder()
+                .name(name)
+                .entries((long) map.size())
+                .memoryBytes(map.sizeInMemory())
+                .expired(counted.expired.sum())
+                .removed(counted.removed.sum())
+                .ttlSeconds(TimeUnit.MILLISECONDS.toSeconds(config.getTTL()))
+                .maxIdleSeconds(TimeUnit.MILLISECONDS.toSeconds(config.getMaxIdleTime()))
+                .maxEntries(config.getMaxSize())
+                .eviction(config.getEvictionMode().name())
+                .build();
+    }
+
+    private RMapCache<Object, Object> map(String name) {
+        return this.redissonClient.getMapCache(name, this.codec);
+    }
+
+    private static final class Counters {
+        private final LongAdder expired = new LongAdder();
+        private final LongAdder removed = new LongAdder();
+    }
+}
@@ -0,0 +1,297 @@
+package com.alex.great_travel.config.cache;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.util.AeroLine;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+import org.redisson.codec.MarshallingCodec;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary codec of the catalog caches. String keys are written as raw UTF-8 and a search response
+ * as fixed width numbers with the city names written once in a dictionary, aerolines by ordinal
+ * and prices as unscaled longs. Bodies past {@link #COMPRESS_FROM} bytes are deflated, any other
+ * value goes through the fallback codec behind its own tag.
+ */
+public class CatalogCodec extends BaseCodec {
+
+    public static final int COMPRESS_FROM = 4096;
+
+    static final byte FALLBACK = 0;
+    static final byte TEXT = 1;
+    static final byte FLY_SEARCH = 2;
+
+    private static final byte DEFLATED = 1;
+    private static final AeroLine[] AEROLINES = AeroLine.values();
+
+    private final Codec fallback;
+
+    private final Encoder encoder = this::encode;
+    private final Decoder<Object> decoder = (buffer, state) -> this.decode(buffer);
+
+    public CatalogCodec() {
+        this(new MarshallingCodec());
+    }
+
+    public CatalogCodec(Codec fallback) {
+        this.fallback = fallback;
+    }
+
+    // used by redisson to copy the codec for another class loader
+    public CatalogCodec(ClassLoader classLoader, CatalogCodec codec) throws ReflectiveOperationException {
+        this(copy(classLoader, codec.fallback));
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return this.decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return this.encoder;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return this.fallback.getClassLoader();
+    }
+
+    private ByteBuf encode(Object value) throws IOException {
+        byte[] body;
+        if (value instanceof String text) {
+            body = tagged(TEXT, text.getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof FlySearchResponse search && fitsLongs(search)) {
+            body = tagged(FLY_SEARCH, compressed(writeSearch(search)));
+        } else {
+            ByteBuf encoded = this.fallback.getValueEncoder().encode(value);
+            try {
+                byte[] bytes = new byte[encoded.readableBytes()];
+                encoded.readBytes(bytes);
+                body = tagged(FALLBACK, bytes);
+            } finally {
+                encoded.release();
+            }
+        }
+        return ByteBufAllocator.DEFAULT.buffer(body.length).writeBytes(body);
+    }
+
+    private Object decode(ByteBuf buffer) throws IOException {
+        byte tag = buffer.readByte();
+        return switch (tag) {
+            case TEXT -> buffer.readCharSequence(buffer.readableBytes(), StandardCharsets.UTF_8).toString();
+            case FLY_SEARCH -> {
+                byte[] bytes = new byte[buffer.readableBytes()];
+                buffer.readBytes(bytes);
+                yield readSearch(decompressed(bytes));
+            }
+            case FALLBACK -> this.fallback.getValueDecoder().decode(buffer, null);
+            default -> throw new IOException("Unknown catalog cache tag " + tag);
+        };
+    }
+
+    private static byte[] tagged(byte tag, byte[] bytes) {
+        byte[] body = new byte[bytes.length + 1];
+        body[0] = tag;
+        System.arraycopy(bytes, 0, body, 1, bytes.length);
+        return body;
+    }
+
+    private static byte[] compressed(byte[] bytes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2 + 1);
+        if (bytes.length < COMPRESS_FROM) {
+            output.write(0);
+            output.write(bytes);
+            return output.toByteArray();
+        }
+        output.write(DEFLATED);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflated = new DeflaterOutputStream(output, deflater)) {
+            deflated.write(bytes);
+        } finally {
+            deflater.end();
+        }
+        return output.toByteArray();
+    }
+
+    private static DataInputStream decompressed(byte[] bytes) {
+        InputStream input = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+        return new DataInputStream(bytes[0] == DEFLATED ? new BufferedInputStream(new InflaterInputStream(input)) : input);
+    }
+
+    // prices whose unscaled value does not fit in a long keep the fallback codec
+    private static boolean fitsLongs(FlySearchResponse search) {
+        if (Objects.nonNull(search.getFlights())) {
+            for (FlyResponse fly : search.getFlights()) {
+                if (Objects.nonNull(fly) && !fitsLong(fly.getPrice())) return false;
+            }
+        }
+        return Objects.isNull(search.getByPrice()) || search.getByPrice().keySet().stream().allMatch(CatalogCodec::fitsLong);
+    }
+
+    private static boolean fitsLong(BigDecimal value) {
+        return Objects.isNull(value) || (value.unscaledValue().bitLength() < 64 && value.scale() == (byte) value.scale());
+    }
+
+    private static byte[] writeSearch(FlySearchResponse search) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        List<FlyResponse> flights = search.getFlights();
+
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        if (Objects.nonNull(flights)) {
+            for (FlyResponse fly : flights) {
+                if (Objects.isNull(fly)) continue;
+                for (String name : new String[]{fly.getOriginName(), fly.getDestinyName()}) {
+                    if (Objects.nonNull(name) && Objects.isNull(codes.putIfAbsent(name, names.size()))) names.add(name);
+                }
+            }
+        }
+        writeVarInt(output, names.size());
+        for (String name : names) output.writeUTF(name);
+
+        output.writeByte(presence(flights, search.getTotal(), search.getByAeroLine(), search.getByPrice()));
+        if (Objects.nonNull(flights)) {
+            writeVarInt(output, flights.size());
+            for (FlyResponse fly : flights) writeFly(output, fly, codes);
+        }
+        if (Objects.nonNull(search.getTotal())) output.writeLong(search.getTotal());
+        if (Objects.nonNull(search.getByAeroLine())) {
+            writeVarInt(output, search.getByAeroLine().size());
+            for (Map.Entry<AeroLine, Long> entry : search.getByAeroLine().entrySet()) {
+                output.writeByte(entry.getKey().ordinal());
+                output.writeLong(entry.getValue());
+            }
+        }
+        if (Objects.nonNull(search.getByPrice())) {
+            writeVarInt(output, search.getByPrice().size());
+            for (Map.Entry<BigDecimal, Long> entry : search.getByPrice().entrySet()) {
+                writeDecimal(output, entry.getKey());
+                output.writeLong(entry.getValue());
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static FlySearchResponse readSearch(DataInputStream input) throws IOException {
+        String[] names = new String[readVarInt(input)];
+        for (int i = 0; i < names.length; i++) names[i] = input.readUTF();
+
+        int present = input.readByte();
+        FlySearchResponse search = new FlySearchResponse();
+        if ((present & 1) != 0) {
+            int size = readVarInt(input);
+            List<FlyResponse> flights = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) flights.add(readFly(input, names));
+            search.setFlights(flights);
+        }
+        if ((present & 2) != 0) search.setTotal(input.readLong());
+        if ((present & 4) != 0) {
+            Map<AeroLine, Long> byAeroLine = new EnumMap<>(AeroLine.class);
+            for (int i = readVarInt(input); i > 0; i--) byAeroLine.put(AEROLINES[input.readByte()], input.readLong());
+            search.setByAeroLine(byAeroLine);
+        }
+        if ((present & 8) != 0) {
+            Map<BigDecimal, Long> byPrice = new TreeMap<>();
+            for (int i = readVarInt(input); i > 0; i--) byPrice.put(readDecimal(input), input.readLong());
+            search.setByPrice(byPrice);
+        }
+        return search;
+    }
+
+    private static void writeFly(DataOutputStream output, FlyResponse fly, Map<String, Integer> codes) throws IOException {
+        if (Objects.isNull(fly)) {
+            output.writeShort(-1);
+            return;
+        }
+        Object[] fields = {fly.getId(), fly.getOriginLat(), fly.getOriginLng(), fly.getDestinyLat(), fly.getDestinyLng(),
+                fly.getOriginName(), fly.getDestinyName(), fly.getPrice(), fly.getAeroLine()};
+        output.writeShort(presence(fields));
+        if (Objects.nonNull(fly.getId())) output.writeLong(fly.getId());
+        for (Double coordinate : new Double[]{fly.getOriginLat(), fly.getOriginLng(), fly.getDestinyLat(), fly.getDestinyLng()}) {
+            if (Objects.nonNull(coordinate)) output.writeDouble(coordinate);
+        }
+        if (Objects.nonNull(fly.getOriginName())) writeVarInt(output, codes.get(fly.getOriginName()));
+        if (Objects.nonNull(fly.getDestinyName())) writeVarInt(output, codes.get(fly.getDestinyName()));
+        if (Objects.nonNull(fly.getPrice())) writeDecimal(output, fly.getPrice());
+        if (Objects.nonNull(fly.getAeroLine())) output.writeByte(fly.getAeroLine().ordinal());
+    }
+
+    private static FlyResponse readFly(DataInputStream input, String[] names) throws IOException {
+        int present = input.readShort();
+        if (present == -1) return null;
+        FlyResponse fly = new FlyResponse();
+        if ((present & 1) != 0) fly.setId(input.readLong());
+        if ((present & 2) != 0) fly.setOriginLat(input.readDouble());
+        if ((present & 4) != 0) fly.setOriginLng(input.readDouble());
+        if ((present & 8) != 0) fly.setDestinyLat(input.readDouble());
+        if ((present & 16) != 0) fly.setDestinyLng(input.readDouble());
+        if ((present & 32) != 0) fly.setOriginName(names[readVarInt(input)]);
+        if ((present & 64) != 0) fly.setDestinyName(names[readVarInt(input)]);
+        if ((present & 128) != 0) fly.setPrice(readDecimal(input));
+        if ((present & 256) != 0) fly.setAeroLine(AEROLINES[input.readByte()]);
+        return fly;
+    }
+
+    private static int presence(Object... fields) {
+        int present = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (Objects.nonNull(fields[i])) present |= 1 << i;
+        }
+        return present;
+    }
+
+    private static void writeDecimal(DataOutputStream output, BigDecimal value) throws IOException {
+        output.writeByte(value.scale());
+        output.writeLong(value.unscaledValue().longValue());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream input) throws IOException {
+        int scale = input.readByte();
+        return new BigDecimal(BigInteger.valueOf(input.readLong()), scale);
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int next = input.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) return value;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.alex.great_travel.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Guards the calls to redis. After {@code failureThreshold} failed or slower than
+ * {@code slowCallMillis} calls in a row the breaker opens and callers skip redis, once
+ * {@code openMillis} pass a single call probes it and closes the breaker again if it is healthy,
+ * then every callback registered with {@link #onClose(Runnable)} runs.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private final List<Runnable> onClose = new CopyOnWriteArrayList<>();
+
+    public CircuitBreaker(int failureThreshold, long slowCallMillis, long openMillis) {
+        this(failureThreshold, slowCallMillis, openMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, long slowCallMillis, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.clock = clock;
+    }
+
+    public synchronized State state() {
+        return this.state;
+    }
+
+    void onClose(Runnable onClose) {
+        this.onClose.add(onClose);
+    }
+
+    // true when the caller may use redis, the first caller after the open period is the probe
+    public synchronized boolean allows() {
+        return switch (this.state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false;
+            case OPEN -> {
+                if (this.clock.getAsLong() - this.openedAt < this.openNanos) yield false;
+                this.state = State.HALF_OPEN;
+                yield true;
+            }
+        };
+    }
+
+    public long start() {
+        return this.clock.getAsLong();
+    }
+
+    public void success(long startedAt) {
+        if (this.clock.getAsLong() - startedAt > this.slowCallNanos) this.failure();
+        else this.success();
+    }
+
+    public void failure() {
+        synchronized (this) {
+            if (this.state == State.OPEN) return;
+            if (this.state == State.CLOSED && ++this.failures < this.failureThreshold) return;
+            this.state = State.OPEN;
+            this.openedAt = this.clock.getAsLong();
+        }
+        log.warn("Redis circuit opened, the caches are served by this node only");
+    }
+
+    public void success() {
+        synchronized (this) {
+            this.failures = 0;
+            if (this.state != State.HALF_OPEN) return;
+            this.state = State.CLOSED;
+        }
+        log.info("Redis circuit closed");
+        this.onClose.forEach(Runnable::run);
+    }
+}
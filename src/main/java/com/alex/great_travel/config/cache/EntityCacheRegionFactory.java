@@ -0,0 +1,93 @@
+package com.alex.great_travel.config.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.redisson.api.RedissonClient;
+import org.redisson.jcache.JCachingProvider;
+import org.redisson.jcache.configuration.RedissonConfiguration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.EternalExpiryPolicy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second level cache on JCache. Every region is a cache of the redisson JCache provider
+ * on the shared redis, so every node reads the same entries and an update on one node evicts them
+ * for all. Entries and query results expire after {@code ttlSeconds}, the update timestamps never
+ * do since a query result is only checked against the timestamps of its tables.
+ */
+public class EntityCacheRegionFactory extends RegionFactoryTemplate {
+
+    public static final String CACHE_PREFIX = "entity-cache:";
+
+    private final RedissonClient redissonClient;
+    private final CircuitBreaker breaker;
+    private final long ttlSeconds;
+
+    private CacheManager cacheManager;
+
+    public EntityCacheRegionFactory(RedissonClient redissonClient, CircuitBreaker breaker, long ttlSeconds) {
+        this.redissonClient = redissonClient;
+        this.breaker = breaker;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        this.cacheManager = Caching.getCachingProvider(JCachingProvider.class.getName()).getCacheManager();
+    }
+
+    // the caches are built on the shared client, closing the manager leaves it running
+    @Override
+    protected void releaseFromUse() {
+        this.cacheManager.close();
+        this.cacheManager = null;
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return this.storage(regionConfig.getRegionName(), true);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return this.storage(regionName, true);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return this.storage(regionName, false);
+    }
+
+    private EntityCacheStorage storage(String regionName, boolean expires) {
+        String name = CACHE_PREFIX + this.qualify(regionName);
+        Cache<Object, Object> cache = this.cacheManager.getCache(name);
+        if (Objects.isNull(cache)) {
+            MutableConfiguration<Object, Object> config = new MutableConfiguration<>()
+                    .setExpiryPolicyFactory(expires
+                            ? CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, this.ttlSeconds))
+                            : EternalExpiryPolicy.factoryOf());
+            cache = this.cacheManager.createCache(name, RedissonConfiguration.fromInstance(this.redissonClient, config));
+        }
+        return new EntityCacheStorage(cache, this.breaker);
+    }
+}
@@ -0,0 +1,109 @@
+package com.alex.great_travel.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import javax.cache.Cache;
+import java.util.function.Supplier;
+
+/**
+ * A region of the hibernate second level cache kept in one JCache cache. The calls go through the
+ * redis circuit breaker and a failed read is a miss. A write that did not reach the cache may leave
+ * a stale entry or soft lock behind, and every node reads the same region, so it is cleared as soon
+ * as redis answers: right after the failed write, or else once the breaker closes again. Until then
+ * this node reads the region as empty; another node that reaches redis meanwhile may read the stale
+ * entry, at most for the TTL of the region.
+ */
+@Slf4j
+public class EntityCacheStorage implements DomainDataStorageAccess {
+
+    private final Cache<Object, Object> cache;
+    private final CircuitBreaker breaker;
+
+    private volatile boolean dirty;
+
+    public EntityCacheStorage(Cache<Object, Object> cache, CircuitBreaker breaker) {
+        this.cache = cache;
+        this.breaker = breaker;
+        this.breaker.onClose(this::recover);
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        return this.clean() ? this.call(() -> this.cache.get(key), null) : null;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        this.write(() -> this.cache.put(key, value));
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        this.write(() -> this.cache.remove(key));
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        this.write(this.cache::clear);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return this.clean() && this.call(() -> this.cache.containsKey(key), false);
+    }
+
+    @Override
+    public void evictData() {
+        this.write(this.cache::clear);
+    }
+
+    @Override
+    public void evictData(Object key) {
+        this.write(() -> this.cache.remove(key));
+    }
+
+    @Override
+    public void release() {
+    }
+
+    private boolean clean() {
+        if (!this.dirty) return true;
+        if (!this.run(this.cache::clear)) return false;
+        this.dirty = false;
+        log.info("Entity cache {} cleared after a missed write", this.cache.getName());
+        return true;
+    }
+
+    private void write(Runnable action) {
+        if (this.run(action)) return;
+        this.dirty = true;
+        this.clean();
+    }
+
+    private void recover() {
+        if (this.dirty) this.clean();
+    }
+
+    private boolean run(Runnable action) {
+        return this.call(() -> {
+            action.run();
+            return true;
+        }, false);
+    }
+
+    private <T> T call(Supplier<T> action, T fallback) {
+        if (!this.breaker.allows()) return fallback;
+        long start = this.breaker.start();
+        try {
+            T value = action.get();
+            this.breaker.success(start);
+            return value;
+        } catch (RuntimeException exception) {
+            this.breaker.failure();
+            log.debug("Entity cache {} not reached: {}", this.cache.getName(), exception.getMessage());
+            return fallback;
+        }
+    }
+}
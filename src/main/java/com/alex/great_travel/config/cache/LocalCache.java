@@ -0,0 +1,64 @@
+package com.alex.great_travel.config.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process map of cache values, least recently used entries are dropped past
+ * {@code maxEntries} and every entry expires {@code ttlMillis} after it was written.
+ */
+final class LocalCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Object, Entry> entries;
+
+    LocalCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    LocalCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return this.size() > LocalCache.this.maxEntries;
+            }
+        };
+    }
+
+    synchronized Cache.ValueWrapper get(Object key) {
+        Entry entry = this.entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt <= this.clock.getAsLong()) {
+            this.entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    synchronized void put(Object key, Cache.ValueWrapper value) {
+        this.entries.put(key, new Entry(value, this.clock.getAsLong() + this.ttlMillis));
+    }
+
+    synchronized void evict(Object key) {
+        this.entries.remove(key);
+    }
+
+    synchronized void clear() {
+        this.entries.clear();
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    private record Entry(Cache.ValueWrapper value, long expiresAt) {
+    }
+}
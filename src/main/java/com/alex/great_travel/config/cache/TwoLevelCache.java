@@ -0,0 +1,232 @@
+package com.alex.great_travel.config.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Cache read from a local map first and from the shared (Redis) cache on a local miss. Writes go
+ * to both levels and are announced to the other nodes so they drop their local copy. While the
+ * circuit of redis is open only the local level is used, a failed write is reported so the
+ * shared level is cleared once redis is back. Every eviction, of this node or announced by another,
+ * bumps the generation of the cache; a load that saw it change keeps its value out of both levels,
+ * since the rows it read may predate the change.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final Cache shared;
+    private final LocalCache local;
+    private final Consumer<Object> announce;
+    private final CircuitBreaker breaker;
+    private final Runnable missedWrite;
+    private final Map<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    TwoLevelCache(Cache shared, LocalCache local, Consumer<Object> announce, CircuitBreaker breaker, Runnable missedWrite) {
+        this.shared = shared;
+        this.local = local;
+        this.announce = announce;
+        this.breaker = breaker;
+        this.missedWrite = missedWrite;
+    }
+
+    @Override
+    public String getName() {
+        return this.shared.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.shared.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = this.local.get(key);
+        if (value != null || !this.breaker.allows()) return value;
+
+        long generation = this.generation.get();
+        long start = this.breaker.start();
+        try {
+            value = this.shared.get(key);
+            this.breaker.success(start);
+        } catch (RuntimeException exception) {
+            this.breaker.failure();
+            return null;
+        }
+        if (value != null) this.keepLocal(key, value, generation);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = this.get(key);
+        if (value == null) return null;
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored))
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        return type == null ? null : type.cast(stored);
+    }
+
+    // misses of one key on this node share one load, the shared cache locks the key between nodes
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = this.local.get(key);
+        if (value != null) return (T) value.get();
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = this.loading.putIfAbsent(key, flight);
+        if (running != null) return (T) join(running);
+        try {
+            long generation = this.generation.get();
+            T loaded = this.breaker.allows() ? this.loadShared(key, valueLoader, generation) : load(key, valueLoader);
+            this.keepLocal(key, new SimpleValueWrapper(loaded), generation);
+            flight.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error exception) {
+            flight.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            this.loading.remove(key, flight);
+        }
+    }
+
+    // the wait for the lock of a key lasts as long as its load on another node, so only failures
+    // count here; a failure of the loader is not a failure of redis and a loaded value is kept.
+    // A stale load is refused before the shared cache writes it, and an eviction that slipped in
+    // between the check and the write evicts the key again
+    private <T> T loadShared(Object key, Callable<T> valueLoader, long generation) {
+        Load<T> load = new Load<>(valueLoader, () -> this.generation.get() == generation);
+        try {
+            T loaded = this.shared.get(key, load);
+            this.breaker.success();
+            if (this.generation.get() != generation) this.sharedWrite(() -> this.shared.evict(key));
+            return loaded;
+        } catch (RuntimeException exception) {
+            if (load.stale) {
+                this.breaker.success();
+                return load.value;
+            }
+            if (load.failed) {
+                this.breaker.success();
+                throw exception;
+            }
+            this.breaker.failure();
+            if (!load.done) return load(key, valueLoader);
+            this.missedWrite.run();
+            return load.value;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        this.local.put(key, new SimpleValueWrapper(value));
+        this.sharedWrite(() -> this.shared.put(key, value));
+        this.announce.accept(key);
+    }
+
+    // the generation moves before the levels change, a load writing after it sees the change
+    @Override
+    public void evict(Object key) {
+        this.generation.incrementAndGet();
+        this.local.evict(key);
+        this.sharedWrite(() -> this.shared.evict(key));
+        this.announce.accept(key);
+    }
+
+    @Override
+    public void clear() {
+        this.generation.incrementAndGet();
+        this.local.clear();
+        this.sharedWrite(this.shared::clear);
+        this.announce.accept(null);
+    }
+
+    private void sharedWrite(Runnable write) {
+        if (!this.breaker.allows()) {
+            this.missedWrite.run();
+            return;
+        }
+        long start = this.breaker.start();
+        try {
+            write.run();
+            this.breaker.success(start);
+        } catch (RuntimeException exception) {
+            this.breaker.failure();
+            this.missedWrite.run();
+        }
+    }
+
+    private void keepLocal(Object key, ValueWrapper value, long generation) {
+        if (this.generation.get() != generation) return;
+        this.local.put(key, value);
+        if (this.generation.get() != generation) this.local.evict(key);
+    }
+
+    private static <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new ValueRetrievalException(key, valueLoader, exception);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) throw cause;
+            if (exception.getCause() instanceof Error cause) throw cause;
+            throw exception;
+        }
+    }
+
+    // called for the messages of the other nodes, the shared level is already up to date
+    void invalidateLocal(Object key) {
+        this.generation.incrementAndGet();
+        if (key == null) this.local.clear();
+        else this.local.evict(key);
+    }
+
+    private static final class Load<T> implements Callable<T> {
+        private final Callable<T> loader;
+        private final BooleanSupplier current;
+        private T value;
+        private boolean done;
+        private boolean failed;
+        private boolean stale;
+
+        private Load(Callable<T> loader, BooleanSupplier current) {
+            this.loader = loader;
+            this.current = current;
+        }
+
+        @Override
+        public T call() throws Exception {
+            try {
+                this.value = this.loader.call();
+                this.done = true;
+            } catch (Exception | Error exception) {
+                this.failed = true;
+                throw exception;
+            }
+            // thrown so the shared cache does not write the value, the caller still gets it
+            if (!this.current.getAsBoolean()) {
+                this.stale = true;
+                throw new IllegalStateException("Cache invalidated while loading");
+            }
+            return this.value;
+        }
+    }
+}
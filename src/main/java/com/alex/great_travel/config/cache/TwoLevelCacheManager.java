@@ -0,0 +1,108 @@
+package com.alex.great_travel.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every cache of the shared manager in a {@link TwoLevelCache}. Changes are published on a
+ * topic and every other node drops its local entry; pub/sub may lose a message, so the local TTL
+ * is also the upper bound of how long a node can serve a stale entry. While the circuit of redis
+ * is open the node keeps serving its local level, and the shared caches this node could not write
+ * are cleared when it closes, they may hold entries this node evicted meanwhile.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager shared;
+    private final RTopic topic;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final CircuitBreaker breaker;
+    private final String origin = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Set<String> missedWrites = ConcurrentHashMap.newKeySet();
+    private volatile boolean subscribed;
+
+    public TwoLevelCacheManager(CacheManager shared, RTopic topic, int maxEntries, long ttlMillis, CircuitBreaker breaker) {
+        this.shared = shared;
+        this.topic = topic;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.breaker = breaker;
+        this.breaker.onClose(this::recover);
+        this.subscribe();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!this.subscribed && this.breaker.allows()) this.subscribe();
+        TwoLevelCache cache = this.caches.get(name);
+        if (cache != null) return cache;
+
+        Cache sharedCache = this.shared.getCache(name);
+        if (sharedCache == null) return null;
+        return this.caches.computeIfAbsent(name, key -> new TwoLevelCache(sharedCache,
+                new LocalCache(this.maxEntries, this.ttlMillis),
+                changedKey -> this.publish(name, changedKey),
+                this.breaker,
+                () -> this.missedWrites.add(name)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.shared.getCacheNames();
+    }
+
+    private void publish(String cacheName, Object key) {
+        if (!this.breaker.allows()) return;
+        long start = this.breaker.start();
+        try {
+            this.topic.publish(new CacheInvalidation(this.origin, cacheName, key));
+            this.breaker.success(start);
+        } catch (RuntimeException exception) {
+            this.breaker.failure();
+            log.warn("Cache invalidation of {} not published: {}", cacheName, exception.getMessage());
+        }
+    }
+
+    // redis may be down at start up, the topic is subscribed again once it is back
+    private synchronized void subscribe() {
+        if (this.subscribed) return;
+        try {
+            this.topic.addListener(CacheInvalidation.class, (channel, message) -> this.onInvalidation(message));
+            this.subscribed = true;
+            this.breaker.success();
+        } catch (RuntimeException exception) {
+            this.breaker.failure();
+            log.warn("Cache invalidations not subscribed: {}", exception.getMessage());
+        }
+    }
+
+    private void recover() {
+        if (!this.subscribed) this.subscribe();
+        for (String name : List.copyOf(this.missedWrites)) {
+            try {
+                this.shared.getCache(name).clear();
+                this.missedWrites.remove(name);
+            } catch (RuntimeException exception) {
+                log.warn("Cache {} not cleared after redis came back: {}", name, exception.getMessage());
+            }
+        }
+    }
+
+    void onInvalidation(CacheInvalidation message) {
+        if (Objects.equals(this.origin, message.getOrigin())) return;
+        TwoLevelCache cache = this.caches.get(message.getCacheName());
+        if (cache != null) cache.invalidateLocal(message.getKey());
+    }
+}
@@ -33,7 +33,8 @@ public class SecurityConfig {
     private static final String ADMIN = Role.ADMIN.name();
     private static final String CUSTOMER = Role.CUSTOMER.name();
 
-    private static final String[] PUBLIC_RESOURCES = {"/auth/**", "/fly/**","/hotel/**","/swagger-ui/**", "/v3/api-docs/**"};
+    private static final String[] PUBLIC_RESOURCES = {"/auth/**", "/fly/**","/hotel/**","/swagger-ui/**", "/v3/api-docs/**", "/actuator/health/**"};
+    private static final String[] ADMIN_RESOURCES = {"/import/**", "/cache/**"};
     private static final String[] USER_RESOURCES = {"/tour/**","/ticket/**","/reservation/**"};
 
     @Bean
@@ -42,6 +43,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(ADMIN_RESOURCES).hasRole(ADMIN)
                         .requestMatchers(PUBLIC_RESOURCES).permitAll()
                         .requestMatchers(USER_RESOURCES).authenticated()
                         .requestMatchers(HttpMethod.PUT, "/customer/**").hasAnyRole(ADMIN, CUSTOMER)
@@ -1,18 +1,26 @@
 package com.alex.great_travel.domain.entities;
 
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.domain.listeners.FlyEntityListener;
 import com.alex.great_travel.util.AeroLine;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.Set;
 
 @Entity(name = "fly")
+@Table(indexes = @Index(name = "idx_fly_price_id", columnList = "price, id"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Builder
+@EntityListeners(FlyEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "fly")
 public class FlyEntity {
 
     @Id
@@ -32,10 +40,15 @@ public class FlyEntity {
     @Enumerated(EnumType.STRING)
     private AeroLine aeroLine;
 
+    // lazy so a flight read from the second level cache does not select its tickets
     @OneToMany(mappedBy = "fly",
             cascade = CascadeType.ALL,
-            fetch = FetchType.EAGER,
+            fetch = FetchType.LAZY,
             orphanRemoval = true)
     private Set<TicketEntity> tickets;
 
+    // values as read from the database, a change event carries them to evict what they were cached under
+    @Transient
+    private FlyResponse loaded;
+
 }
@@ -1,18 +1,28 @@
 package com.alex.great_travel.domain.entities;
 
+import com.alex.great_travel.domain.listeners.HotelEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.Set;
 
 @Entity(name = "hotel")
+@Table(indexes = @Index(name = "idx_hotel_price_id", columnList = "price, id"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Builder
+@EntityListeners(HotelEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hotel")
 public class HotelEntity {
+
+    public static final int DEFAULT_ROOMS = 10;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,10 +32,13 @@ public class HotelEntity {
     private String address;
     private Integer rating;
     private BigDecimal price;
+    @Builder.Default
+    private Integer rooms = DEFAULT_ROOMS;
 
+    // lazy so a hotel read from the second level cache does not select its reservations
     @OneToMany(mappedBy = "hotel",
             cascade = CascadeType.ALL,
-            fetch = FetchType.EAGER,
+            fetch = FetchType.LAZY,
             orphanRemoval = true)
     private Set<ReservationEntity> reservation;
 }
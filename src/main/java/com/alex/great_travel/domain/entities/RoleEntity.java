@@ -3,8 +3,12 @@ package com.alex.great_travel.domain.entities;
 import com.alex.great_travel.util.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity(name = "role")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
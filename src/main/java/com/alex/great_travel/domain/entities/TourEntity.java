@@ -53,11 +53,12 @@ public class TourEntity {
         this.tickets.forEach(t -> t.setTour(this));
     }
 
+    // leaving the collection deletes the row through orphan removal
     public void removeReservation(UUID id) {
-        this.reservations.forEach(reservation -> {
-            if (reservation.getId().equals(id)) {
-                reservation.setTour(null);
-            }
+        this.reservations.removeIf(reservation -> {
+            if (!reservation.getId().equals(id)) return false;
+            reservation.setTour(null);
+            return true;
         });
     }
 
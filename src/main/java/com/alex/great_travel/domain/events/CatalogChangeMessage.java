@@ -0,0 +1,26 @@
+package com.alex.great_travel.domain.events;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.util.Tables;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A flight or hotel change sent to the other nodes, {@code origin} is the node that made it and
+ * {@code version} the version of the catalog after the change. An import is sent with no row and
+ * the imported catalog in {@code rebuilt}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CatalogChangeMessage {
+    private String origin;
+    private ChangeType type;
+    private FlyResponse fly;
+    private FlyResponse previous;
+    private HotelResponse hotel;
+    private Long version;
+    private Tables rebuilt;
+}
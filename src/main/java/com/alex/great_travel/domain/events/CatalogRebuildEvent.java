@@ -0,0 +1,27 @@
+package com.alex.great_travel.domain.events;
+
+import com.alex.great_travel.util.Tables;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A whole catalog changed at once, by an import or the midnight rebuild, so every index and cache
+ * of it is built again instead of patched row by row.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogRebuildEvent {
+    private final Tables catalog;
+    // true when the rebuild was made by another node and relayed to this one
+    private final boolean remote;
+    // true for the midnight rebuild, every node runs its own so it is never relayed
+    private final boolean scheduled;
+
+    public CatalogRebuildEvent(Tables catalog) {
+        this(catalog, false, false);
+    }
+
+    public CatalogRebuildEvent(Tables catalog, boolean remote) {
+        this(catalog, remote, false);
+    }
+}
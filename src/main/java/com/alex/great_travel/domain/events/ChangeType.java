@@ -0,0 +1,5 @@
+package com.alex.great_travel.domain.events;
+
+public enum ChangeType {
+    SAVED, REMOVED
+}
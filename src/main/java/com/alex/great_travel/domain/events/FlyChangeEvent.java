@@ -0,0 +1,24 @@
+package com.alex.great_travel.domain.events;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FlyChangeEvent {
+    private final ChangeType type;
+    private final FlyResponse fly;
+    // values read from the database before the change, null for a new flight
+    private final FlyResponse previous;
+    // true when the change was made by another node and relayed to this one
+    private final boolean remote;
+
+    public FlyChangeEvent(ChangeType type, FlyResponse fly) {
+        this(type, fly, null, false);
+    }
+
+    public FlyChangeEvent(ChangeType type, FlyResponse fly, FlyResponse previous) {
+        this(type, fly, previous, false);
+    }
+}
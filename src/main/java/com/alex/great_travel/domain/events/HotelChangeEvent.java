@@ -0,0 +1,18 @@
+package com.alex.great_travel.domain.events;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class HotelChangeEvent {
+    private final ChangeType type;
+    private final HotelResponse hotel;
+    // true when the change was made by another node and relayed to this one
+    private final boolean remote;
+
+    public HotelChangeEvent(ChangeType type, HotelResponse hotel) {
+        this(type, hotel, false);
+    }
+}
@@ -0,0 +1,44 @@
+package com.alex.great_travel.domain.listeners;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.domain.entities.FlyEntity;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+
+// instantiated by hibernate through the spring bean container
+@RequiredArgsConstructor
+public class FlyEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostLoad
+    public void onLoaded(FlyEntity entity) {
+        entity.setLoaded(toResponse(entity));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(FlyEntity entity) {
+        FlyResponse saved = toResponse(entity);
+        this.publisher.publishEvent(new FlyChangeEvent(ChangeType.SAVED, saved, entity.getLoaded()));
+        entity.setLoaded(saved);
+    }
+
+    @PostRemove
+    public void onRemoved(FlyEntity entity) {
+        this.publisher.publishEvent(new FlyChangeEvent(ChangeType.REMOVED, toResponse(entity), entity.getLoaded()));
+    }
+
+    private FlyResponse toResponse(FlyEntity entity) {
+        FlyResponse response = new FlyResponse();
+        BeanUtils.copyProperties(entity, response);
+        return response;
+    }
+}
@@ -0,0 +1,36 @@
+package com.alex.great_travel.domain.listeners;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.domain.entities.HotelEntity;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.HotelChangeEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+
+// instantiated by hibernate through the spring bean container
+@RequiredArgsConstructor
+public class HotelEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(HotelEntity entity) {
+        this.publisher.publishEvent(new HotelChangeEvent(ChangeType.SAVED, toResponse(entity)));
+    }
+
+    @PostRemove
+    public void onRemoved(HotelEntity entity) {
+        this.publisher.publishEvent(new HotelChangeEvent(ChangeType.REMOVED, toResponse(entity)));
+    }
+
+    private HotelResponse toResponse(HotelEntity entity) {
+        HotelResponse response = new HotelResponse();
+        BeanUtils.copyProperties(entity, response);
+        return response;
+    }
+}
@@ -1,8 +1,10 @@
 package com.alex.great_travel.domain.repositories;
 
 import com.alex.great_travel.domain.entities.CustomerEntity;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends CrudRepository<CustomerEntity, String> {
@@ -10,4 +12,7 @@ public interface CustomerRepository extends CrudRepository<CustomerEntity, Strin
     boolean existsByUsername(String email);
     boolean existsByEmail(String email);
     boolean existsByDni(String email);
+
+    @Query("select c.dni from customer c")
+    List<String> selectDnis();
 }
@@ -1,13 +1,23 @@
 package com.alex.great_travel.domain.repositories;
 
+import com.alex.great_travel.api.models.response.FlyResponse;
 import com.alex.great_travel.domain.entities.FlyEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Set;
 
-public interface FlyRepository extends JpaRepository<FlyEntity, Long> {
+public interface FlyRepository extends JpaRepository<FlyEntity, Long>, FlySearchRepository {
+
+    // constructor expression, only the response columns are selected and no tickets are loaded
+    String FLY_RESPONSE = "new com.alex.great_travel.api.models.response.FlyResponse(" +
+            "f.id, f.originLat, f.originLng, f.destinyLat, f.destinyLng, f.originName, f.destinyName, f.price, f.aeroLine)";
 
     @Query("select f from fly f where f.price < :price")
     Set<FlyEntity> selectLessPrice(BigDecimal price);
@@ -17,4 +27,30 @@ public interface FlyRepository extends JpaRepository<FlyEntity, Long> {
 
     @Query("select f from fly f where f.originName = :origin and f.destinyName = :destiny")
     Set<FlyEntity> selectOriginDestiny(String origin, String destiny);
+
+    @Query(value = "select " + FLY_RESPONSE + " from fly f",
+            countQuery = "select count(f) from fly f")
+    Page<FlyResponse> selectAllResponses(Pageable pageable);
+
+    @Query("select " + FLY_RESPONSE + " from fly f")
+    List<FlyResponse> selectAllResponses();
+
+    @Query("select f.id from fly f")
+    List<Long> selectIds();
+
+    @Query("select " + FLY_RESPONSE + " from fly f")
+    List<FlyResponse> selectFirstResponses(Sort sort, Limit limit);
+
+    // keyset pages, they seek from the last row read so a deep page costs the same as the first one
+    @Query("select " + FLY_RESPONSE + " from fly f where f.id > :id order by f.id")
+    List<FlyResponse> selectResponsesAfterId(Long id, Limit limit);
+
+    @Query("select " + FLY_RESPONSE + " from fly f where f.price > :price or (f.price = :price and f.id > :id) " +
+            "order by f.price asc, f.id asc")
+    List<FlyResponse> selectResponsesAfterPrice(BigDecimal price, Long id, Limit limit);
+
+    @Query("select " + FLY_RESPONSE + " from fly f where f.price < :price or (f.price = :price and f.id < :id) " +
+            "order by f.price desc, f.id desc")
+    List<FlyResponse> selectResponsesBeforePrice(BigDecimal price, Long id, Limit limit);
+
 }
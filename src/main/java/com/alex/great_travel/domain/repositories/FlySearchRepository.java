@@ -0,0 +1,19 @@
+package com.alex.great_travel.domain.repositories;
+
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.util.AeroLine;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public interface FlySearchRepository {
+
+    List<FlyResponse> search(FlySearchRequest request);
+
+    Map<AeroLine, Long> countByAeroLine(FlySearchRequest request);
+
+    Map<BigDecimal, Long> countByPriceBucket(FlySearchRequest request, BigDecimal width);
+
+}
@@ -0,0 +1,103 @@
+package com.alex.great_travel.domain.repositories;
+
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.domain.entities.FlyEntity;
+import com.alex.great_travel.util.AeroLine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Criteria implementation of the flight search, every optional filter only adds its predicate.
+ * Facets drill sideways: the counts by aeroline ignore the aeroline filter and the counts by price
+ * ignore the price range, so a client can see what it would get by changing that filter.
+ */
+public class FlySearchRepositoryImpl implements FlySearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FlyResponse> search(FlySearchRequest request) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<FlyResponse> query = builder.createQuery(FlyResponse.class);
+        Root<FlyEntity> fly = query.from(FlyEntity.class);
+        query.select(builder.construct(FlyResponse.class,
+                        fly.get("id"), fly.get("originLat"), fly.get("originLng"), fly.get("destinyLat"),
+                        fly.get("destinyLng"), fly.get("originName"), fly.get("destinyName"), fly.get("price"),
+                        fly.get("aeroLine")))
+                .where(where(builder, fly, request, true, true));
+        switch (request.getSortType()) {
+            case NONE -> query.orderBy(builder.asc(fly.get("id")));
+            case LOWER -> query.orderBy(builder.asc(fly.get("price")), builder.asc(fly.get("id")));
+            case UPPER -> query.orderBy(builder.desc(fly.get("price")), builder.desc(fly.get("id")));
+        }
+        return this.entityManager.createQuery(query)
+                .setMaxResults(request.getLimit())
+                .getResultList();
+    }
+
+    @Override
+    public Map<AeroLine, Long> countByAeroLine(FlySearchRequest request) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<FlyEntity> fly = query.from(FlyEntity.class);
+        Expression<AeroLine> aeroLine = fly.get("aeroLine");
+        query.multiselect(aeroLine, builder.count(fly))
+                .where(where(builder, fly, request, true, false))
+                .groupBy(aeroLine);
+
+        Map<AeroLine, Long> counts = new EnumMap<>(AeroLine.class);
+        this.entityManager.createQuery(query).getResultList()
+                .forEach(row -> counts.put(row.get(0, AeroLine.class), row.get(1, Long.class)));
+        return counts;
+    }
+
+    @Override
+    public Map<BigDecimal, Long> countByPriceBucket(FlySearchRequest request, BigDecimal width) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<FlyEntity> fly = query.from(FlyEntity.class);
+        Expression<Number> bucket = builder.floor(builder.quot(fly.get("price"), width));
+        query.multiselect(bucket, builder.count(fly))
+                .where(where(builder, fly, request, false, true))
+                .groupBy(bucket);
+
+        Map<BigDecimal, Long> counts = new TreeMap<>();
+        this.entityManager.createQuery(query).getResultList().forEach(row -> {
+            BigDecimal lower = new BigDecimal(row.get(0, Number.class).toString()).multiply(width).stripTrailingZeros();
+            counts.merge(lower.setScale(Math.max(0, lower.scale())), row.get(1, Long.class), Long::sum);
+        });
+        return counts;
+    }
+
+    private static Predicate[] where(CriteriaBuilder builder, Root<FlyEntity> fly, FlySearchRequest request,
+                                     boolean withPrice, boolean withAeroLine) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (withPrice && Objects.nonNull(request.getMinPrice()))
+            predicates.add(builder.greaterThanOrEqualTo(fly.get("price"), request.getMinPrice()));
+        if (withPrice && Objects.nonNull(request.getMaxPrice()))
+            predicates.add(builder.lessThanOrEqualTo(fly.get("price"), request.getMaxPrice()));
+        if (Objects.nonNull(request.getOrigin()))
+            predicates.add(builder.equal(fly.get("originName"), request.getOrigin()));
+        if (Objects.nonNull(request.getDestiny()))
+            predicates.add(builder.equal(fly.get("destinyName"), request.getDestiny()));
+        if (withAeroLine && Objects.nonNull(request.getAeroLine()))
+            predicates.add(builder.equal(fly.get("aeroLine"), request.getAeroLine()));
+        return predicates.toArray(Predicate[]::new);
+    }
+}
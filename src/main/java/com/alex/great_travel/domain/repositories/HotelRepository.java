@@ -1,15 +1,59 @@
 package com.alex.great_travel.domain.repositories;
 
+import com.alex.great_travel.api.models.response.HotelResponse;
 import com.alex.great_travel.domain.entities.HotelEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface HotelRepository extends JpaRepository<HotelEntity, Long> {
 
+    // constructor expression, only the response columns are selected and no reservations are loaded
+    String HOTEL_RESPONSE = "new com.alex.great_travel.api.models.response.HotelResponse(" +
+            "h.id, h.name, h.address, h.rating, h.price, h.rooms)";
+
     Set<HotelEntity> findByPriceLessThan(BigDecimal price);
     Set<HotelEntity> findByPriceBetween(BigDecimal min, BigDecimal max);
     Set<HotelEntity> findByRatingGreaterThan(Integer rating);
 
+    @Query(value = "select " + HOTEL_RESPONSE + " from hotel h",
+            countQuery = "select count(h) from hotel h")
+    Page<HotelResponse> selectAllResponses(Pageable pageable);
+
+    @Query("select " + HOTEL_RESPONSE + " from hotel h")
+    List<HotelResponse> selectAllResponses();
+
+    // locks the hotel row, the bookings of the same hotel wait for each other on every node
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from hotel h where h.id = :id")
+    Optional<HotelEntity> lockById(Long id);
+
+    @Query("select h.id from hotel h")
+    List<Long> selectIds();
+
+    @Query("select " + HOTEL_RESPONSE + " from hotel h")
+    List<HotelResponse> selectFirstResponses(Sort sort, Limit limit);
+
+    // keyset pages, they seek from the last row read so a deep page costs the same as the first one
+    @Query("select " + HOTEL_RESPONSE + " from hotel h where h.id > :id order by h.id")
+    List<HotelResponse> selectResponsesAfterId(Long id, Limit limit);
+
+    @Query("select " + HOTEL_RESPONSE + " from hotel h where h.price > :price or (h.price = :price and h.id > :id) " +
+            "order by h.price asc, h.id asc")
+    List<HotelResponse> selectResponsesAfterPrice(BigDecimal price, Long id, Limit limit);
+
+    @Query("select " + HOTEL_RESPONSE + " from hotel h where h.price < :price or (h.price = :price and h.id < :id) " +
+            "order by h.price desc, h.id desc")
+    List<HotelResponse> selectResponsesBeforePrice(BigDecimal price, Long id, Limit limit);
+
 }
@@ -1,10 +1,28 @@
 package com.alex.great_travel.domain.repositories;
 
 import com.alex.great_travel.domain.entities.ReservationEntity;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public interface ReservationRepository extends CrudRepository<ReservationEntity, UUID> {
 
+    @Query("select r.hotel.id as hotelId, r.dateStart as dateStart, r.dateEnd as dateEnd from reservation r " +
+            "where r.hotel is not null and r.dateEnd > :day and r.dateEnd > r.dateStart")
+    List<Stay> selectStaysEndingAfter(@Param("day") LocalDate day);
+
+    @Query("select r.hotel.id as hotelId, r.dateStart as dateStart, r.dateEnd as dateEnd from reservation r " +
+            "where r.hotel.id = :hotelId and r.dateStart < :checkOut and r.dateEnd > :checkIn and r.id <> :excluded")
+    List<Stay> selectStaysOverlapping(@Param("hotelId") Long hotelId, @Param("checkIn") LocalDate checkIn,
+                                      @Param("checkOut") LocalDate checkOut, @Param("excluded") UUID excluded);
+
+    interface Stay {
+        Long getHotelId();
+        LocalDate getDateStart();
+        LocalDate getDateEnd();
+    }
 }
@@ -2,10 +2,15 @@ package com.alex.great_travel.domain.repositories;
 
 import com.alex.great_travel.domain.entities.RoleEntity;
 import com.alex.great_travel.util.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.Optional;
 
 public interface RoleRepository extends CrudRepository<RoleEntity, Short> {
+    // runs on every registration, the result is kept in the query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<RoleEntity> findByName(Role name);
 }
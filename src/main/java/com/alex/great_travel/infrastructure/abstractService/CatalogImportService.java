@@ -0,0 +1,14 @@
+package com.alex.great_travel.infrastructure.abstractService;
+
+import com.alex.great_travel.api.models.response.ImportResponse;
+import com.alex.great_travel.util.ImportFormat;
+
+import java.io.InputStream;
+
+public interface CatalogImportService {
+
+    ImportResponse importFlights(InputStream input, ImportFormat format);
+
+    ImportResponse importHotels(InputStream input, ImportFormat format);
+
+}
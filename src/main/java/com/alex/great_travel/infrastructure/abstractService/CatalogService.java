@@ -1,8 +1,11 @@
 package com.alex.great_travel.infrastructure.abstractService;
 
+import com.alex.great_travel.api.models.response.SliceResponse;
 import com.alex.great_travel.util.SortType;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.Set;
 
@@ -10,10 +13,16 @@ public interface CatalogService<R> {
     
     Page<R> readAll(Integer page, Integer size, SortType sortType);
 
+    SliceResponse<R> readSlice(Integer size, String cursor, SortType sortType);
+
     Set<R> readLessPrice(BigDecimal price);
 
     Set<R> readBetweenPrices(BigDecimal min, BigDecimal max);
 
+    void streamLessPrice(BigDecimal price, OutputStream output) throws IOException;
+
+    void streamBetweenPrices(BigDecimal min, BigDecimal max, OutputStream output) throws IOException;
+
     String FIELD_BY_SORT = "price";
 
 }
@@ -1,9 +1,19 @@
 package com.alex.great_travel.infrastructure.abstractService;
 
+import com.alex.great_travel.api.models.request.FlySearchRequest;
 import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.api.models.response.ItineraryResponse;
 
+import java.util.List;
 import java.util.Set;
 
 public interface FlyService extends CatalogService<FlyResponse>{
     Set<FlyResponse> readByOriginDestiny(String origin, String destiny);
+
+    List<ItineraryResponse> readRoutes(String origin, String destiny, Integer maxLegs, Integer limit);
+
+    List<FlyResponse> readNear(Double lat, Double lng, Double radiusKm);
+
+    FlySearchResponse search(FlySearchRequest request);
 }
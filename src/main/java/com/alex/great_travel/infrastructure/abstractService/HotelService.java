@@ -2,8 +2,17 @@ package com.alex.great_travel.infrastructure.abstractService;
 
 import com.alex.great_travel.api.models.response.HotelResponse;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Set;
 
 public interface HotelService extends CatalogService<HotelResponse> {
     Set<HotelResponse> readByRatingGreaterThan(Integer rating);
+
+    List<HotelResponse> readByFilter(Integer minRating, BigDecimal min, BigDecimal max);
+
+    List<HotelResponse> readAvailable(LocalDate checkIn, LocalDate checkOut);
+
+    List<HotelResponse> search(String query, Integer limit);
 }
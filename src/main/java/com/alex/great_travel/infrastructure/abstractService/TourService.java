@@ -3,6 +3,7 @@ package com.alex.great_travel.infrastructure.abstractService;
 import com.alex.great_travel.api.models.request.TourRequest;
 import com.alex.great_travel.api.models.response.TourResponse;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 public interface TourService extends SimpleCrudService<TourRequest, TourResponse, Long>{
@@ -12,5 +13,5 @@ public interface TourService extends SimpleCrudService<TourRequest, TourResponse
 
     void removeReservation(Long tourId, UUID reservationId);
 
-    UUID addReservation(Long tourId, Long hotelId,  Integer totalDays);
+    UUID addReservation(Long tourId, Long hotelId, Integer totalDays, LocalDate checkIn);
 }
@@ -0,0 +1,56 @@
+package com.alex.great_travel.infrastructure.commands;
+
+import com.alex.great_travel.api.models.response.ImportResponse;
+import com.alex.great_travel.infrastructure.abstractService.CatalogImportService;
+import com.alex.great_travel.util.ImportFormat;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Imports catalog files given at start up, for example
+ * {@code java -jar great_travel.jar --import.flights=flights.csv --import.hotels=hotels.ndjson}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor
+@Slf4j
+public class CatalogImportCommand implements ApplicationRunner {
+
+    public static final String FLIGHTS_OPTION = "import.flights";
+    public static final String HOTELS_OPTION = "import.hotels";
+
+    private final CatalogImportService catalogImportService;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (String file : files(args, FLIGHTS_OPTION)) {
+            try (InputStream input = Files.newInputStream(Path.of(file))) {
+                ImportResponse response = this.catalogImportService.importFlights(input, ImportFormat.of(file));
+                log.info("Imported {} of {} flights from {}, errors {}", response.getImported(), response.getRead(), file, response.getErrors());
+            }
+        }
+        for (String file : files(args, HOTELS_OPTION)) {
+            try (InputStream input = Files.newInputStream(Path.of(file))) {
+                ImportResponse response = this.catalogImportService.importHotels(input, ImportFormat.of(file));
+                log.info("Imported {} of {} hotels from {}, errors {}", response.getImported(), response.getRead(), file, response.getErrors());
+            }
+        }
+    }
+
+    private static List<String> files(ApplicationArguments args, String option) {
+        List<String> values = args.getOptionValues(option);
+        return Objects.isNull(values) ? List.of() : values;
+    }
+}
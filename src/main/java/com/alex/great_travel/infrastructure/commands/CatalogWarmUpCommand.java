@@ -0,0 +1,29 @@
+package com.alex.great_travel.infrastructure.commands;
+
+import com.alex.great_travel.infrastructure.helpers.CatalogWarmUpHelper;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms the catalog at start up after the import runs. The node refuses traffic while it warms,
+ * Spring Boot reports it ready to accept traffic once every runner is done. The state is served
+ * by the readiness probe at {@code /actuator/health/readiness}, 503 until the warm up ends.
+ */
+@Component
+@AllArgsConstructor
+public class CatalogWarmUpCommand implements ApplicationRunner {
+
+    private final CatalogWarmUpHelper catalogWarmUpHelper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(this.applicationEventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        this.catalogWarmUpHelper.warmUp();
+    }
+}
@@ -0,0 +1,112 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.CatalogChangeMessage;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.domain.events.HotelChangeEvent;
+import com.alex.great_travel.util.Tables;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Sends every committed flight and hotel change to the other nodes, which publish it again as a
+ * remote event so their indexes patch the one changed row as the node that made it did. An import
+ * is sent as one rebuild of its catalog, every node builds its indexes and caches of it again. A
+ * message lost while redis is down is repaired by the midnight rebuild of the indexes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogChangeRelayHelper {
+
+    private final RedissonClient redissonClient;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final CatalogVersionHelper catalogVersionHelper;
+
+    private final String origin = UUID.randomUUID().toString();
+    private volatile boolean subscribed;
+
+    @PostConstruct
+    @Scheduled(fixedDelay = 30_000, initialDelay = 30_000)
+    public synchronized void subscribe() {
+        if (this.subscribed) return;
+        try {
+            this.topic().addListener(CatalogChangeMessage.class, (channel, message) -> this.onMessage(message));
+            this.subscribed = true;
+        } catch (RuntimeException exception) {
+            log.warn("Catalog changes of other nodes not subscribed: {}", exception.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RedisConfig.CacheConstants.RELAY_ORDER)
+    public void onChange(FlyChangeEvent event) {
+        if (event.isRemote()) return;
+        this.send(new CatalogChangeMessage(this.origin, event.getType(), event.getFly(), event.getPrevious(), null,
+                this.catalogVersionHelper.fly().number(), null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RedisConfig.CacheConstants.RELAY_ORDER)
+    public void onChange(HotelChangeEvent event) {
+        if (event.isRemote()) return;
+        this.send(new CatalogChangeMessage(this.origin, event.getType(), null, null, event.getHotel(),
+                this.catalogVersionHelper.hotel().number(), null));
+    }
+
+    @EventListener
+    @Order(RedisConfig.CacheConstants.RELAY_ORDER)
+    public void onRebuild(CatalogRebuildEvent event) {
+        if (event.isRemote() || event.isScheduled()) return;
+        CatalogVersionHelper.Version version = event.getCatalog() == Tables.fly
+                ? this.catalogVersionHelper.fly() : this.catalogVersionHelper.hotel();
+        this.send(new CatalogChangeMessage(this.origin, null, null, null, null, version.number(), event.getCatalog()));
+    }
+
+    // the listeners of the remote event run before publishEvent returns, the version moves after them
+    void onMessage(CatalogChangeMessage message) {
+        if (Objects.equals(this.origin, message.getOrigin())) return;
+        long version = Objects.isNull(message.getVersion()) ? 0 : message.getVersion();
+        if (Objects.nonNull(message.getFly())) {
+            this.applicationEventPublisher.publishEvent(
+                    new FlyChangeEvent(message.getType(), message.getFly(), message.getPrevious(), true));
+            this.catalogVersionHelper.onRemoteFly(version);
+        }
+        if (Objects.nonNull(message.getHotel())) {
+            this.applicationEventPublisher.publishEvent(new HotelChangeEvent(message.getType(), message.getHotel(), true));
+            this.catalogVersionHelper.onRemoteHotel(version);
+        }
+        if (Objects.nonNull(message.getRebuilt())) {
+            this.applicationEventPublisher.publishEvent(new CatalogRebuildEvent(message.getRebuilt(), true));
+            if (message.getRebuilt() == Tables.fly) this.catalogVersionHelper.onRemoteFly(version);
+            if (message.getRebuilt() == Tables.hotel) this.catalogVersionHelper.onRemoteHotel(version);
+        }
+    }
+
+    private void send(CatalogChangeMessage message) {
+        try {
+            this.topic().publish(message);
+        } catch (RuntimeException exception) {
+            log.warn("Catalog change not sent to the other nodes: {}", exception.getMessage());
+        }
+    }
+
+    private RTopic topic() {
+        return this.redissonClient.getTopic(RedisConfig.CacheConstants.CATALOG_CHANGE_TOPIC,
+                new TypedJsonJacksonCodec(CatalogChangeMessage.class));
+    }
+}
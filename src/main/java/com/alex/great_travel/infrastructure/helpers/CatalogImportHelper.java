@@ -0,0 +1,152 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.response.ImportResponse;
+import com.alex.great_travel.util.ImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reads an import line by line and hands the valid rows to the writer by chunks, only one chunk
+ * is in memory whatever the size of the file. Lines of a chunk are parsed and validated in parallel.
+ */
+@Component
+@AllArgsConstructor
+public class CatalogImportHelper {
+
+    public static final int CHUNK_SIZE = 1000;
+    private static final int MAX_ERRORS = 20;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public <T> ImportResponse read(BufferedReader reader, ImportFormat format, Class<T> type,
+                                   Consumer<List<T>> writer) throws IOException {
+        String[] header = format == ImportFormat.CSV ? this.header(reader) : null;
+        Progress progress = new Progress();
+        List<String> lines = new ArrayList<>(CHUNK_SIZE);
+        long[] numbers = new long[CHUNK_SIZE];
+        long lineNumber = Objects.isNull(header) ? 0 : 1;
+
+        String line;
+        while (Objects.nonNull(line = reader.readLine())) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            numbers[lines.size()] = lineNumber;
+            lines.add(line);
+            if (lines.size() == CHUNK_SIZE) {
+                this.flush(lines, numbers, header, type, writer, progress);
+                lines.clear();
+            }
+        }
+        if (!lines.isEmpty()) this.flush(lines, numbers, header, type, writer, progress);
+
+        return ImportResponse.builder()
+                .read(progress.read)
+                .imported(progress.imported)
+                .rejected(progress.read - progress.imported)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private <T> void flush(List<String> lines, long[] numbers, String[] header, Class<T> type,
+                           Consumer<List<T>> writer, Progress progress) {
+        List<Row<T>> rows = IntStream.range(0, lines.size())
+                .parallel()
+                .mapToObj(i -> this.parse(lines.get(i), header, type))
+                .toList();
+
+        List<T> valid = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row<T> row = rows.get(i);
+            if (Objects.isNull(row.error)) valid.add(row.value);
+            else if (progress.errors.size() < MAX_ERRORS) progress.errors.add("line " + numbers[i] + ": " + row.error);
+        }
+        if (!valid.isEmpty()) writer.accept(valid);
+        progress.read += rows.size();
+        progress.imported += valid.size();
+    }
+
+    private <T> Row<T> parse(String line, String[] header, Class<T> type) {
+        T value;
+        try {
+            value = Objects.isNull(header)
+                    ? this.objectMapper.readValue(line, type)
+                    : this.objectMapper.convertValue(this.csvRow(header, line), type);
+        } catch (Exception exception) {
+            return new Row<>(null, "malformed row");
+        }
+        Set<ConstraintViolation<T>> violations = this.validator.validate(value);
+        if (violations.isEmpty()) return new Row<>(value, null);
+        return new Row<>(null, violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", ")));
+    }
+
+    private String[] header(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (Objects.isNull(line)) return new String[0];
+        return splitCsv(line).stream().map(String::trim).toArray(String[]::new);
+    }
+
+    private Map<String, String> csvRow(String[] header, String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != header.length) throw new IllegalArgumentException("columns");
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.length; i++) row.put(header[i], values.get(i).isEmpty() ? null : values.get(i));
+        return row;
+    }
+
+    // rfc 4180 fields: a quoted field can hold commas and a doubled quote is a quote
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char current = line.charAt(i);
+            if (quoted) {
+                if (current == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (current == '"') {
+                    quoted = false;
+                } else {
+                    value.append(current);
+                }
+            } else if (current == '"') {
+                quoted = true;
+            } else if (current == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(current);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private record Row<T>(T value, String error) {
+    }
+
+    private static final class Progress {
+        private long read;
+        private long imported;
+        private final List<String> errors = new ArrayList<>();
+    }
+}
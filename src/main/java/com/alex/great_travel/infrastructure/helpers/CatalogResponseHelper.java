@@ -0,0 +1,203 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.domain.events.HotelChangeEvent;
+import com.alex.great_travel.util.Tables;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded json bodies of the catalog reads, kept as written and gzipped so a repeated read neither
+ * builds nor serializes its rows. Entries are dropped least recently used past
+ * {@code cache.response.max-bytes}, and every entry of a catalog on any change or import of that
+ * catalog.
+ * The ETag of a read is the version of its catalog and its key, a client sending it back gets a
+ * 304 without any read while the catalog did not change.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogResponseHelper {
+
+    public static final int COMPRESS_FROM = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final CatalogVersionHelper catalogVersionHelper;
+
+    @Value("${cache.response.max-bytes:33554432}")
+    private Long maxBytes;
+
+    private final Map<String, Body> bodies = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long flyGeneration;
+    private long hotelGeneration;
+
+    public ResponseEntity<byte[]> fly(String key, WebRequest request, Supplier<? extends Collection<?>> query) {
+        return this.respond("fly:" + key, request, query, true);
+    }
+
+    public ResponseEntity<byte[]> hotel(String key, WebRequest request, Supplier<? extends Collection<?>> query) {
+        return this.respond("hotel:" + key, request, query, false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RedisConfig.CacheConstants.DROP_ORDER)
+    public synchronized void onChange(FlyChangeEvent event) {
+        this.flyGeneration++;
+        this.drop("fly:");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RedisConfig.CacheConstants.DROP_ORDER)
+    public synchronized void onChange(HotelChangeEvent event) {
+        this.hotelGeneration++;
+        this.drop("hotel:");
+    }
+
+    @EventListener
+    @Order(RedisConfig.CacheConstants.DROP_ORDER)
+    public synchronized void onRebuild(CatalogRebuildEvent event) {
+        if (event.getCatalog() == Tables.fly) {
+            this.flyGeneration++;
+            this.drop("fly:");
+        } else if (event.getCatalog() == Tables.hotel) {
+            this.hotelGeneration++;
+            this.drop("hotel:");
+        }
+    }
+
+    public synchronized void clear() {
+        this.flyGeneration++;
+        this.hotelGeneration++;
+        this.bodies.clear();
+        this.bytes = 0;
+    }
+
+    // equal amounts written with other scales share one entry
+    public static String plain(BigDecimal value) {
+        return Objects.isNull(value) ? null : value.stripTrailingZeros().toPlainString();
+    }
+
+    // the parameters are url encoded, a separator inside a city name can not make two reads one key
+    public static String key(String read, Object... parameters) {
+        StringBuilder key = new StringBuilder(read);
+        for (Object parameter : parameters) {
+            String value = parameter instanceof BigDecimal amount ? plain(amount) : Objects.toString(parameter, "");
+            key.append(':').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }
+        return key.toString();
+    }
+
+    private ResponseEntity<byte[]> respond(String key, WebRequest request, Supplier<? extends Collection<?>> query, boolean fly) {
+        CatalogVersionHelper.Version version = fly ? this.catalogVersionHelper.fly() : this.catalogVersionHelper.hotel();
+        // weak, the written and the gzipped body of a read share it
+        String eTag = "W/\"" + version.number() + "-" + Integer.toHexString(key.hashCode()) + "\"";
+        if (request.checkNotModified(eTag, version.modified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).lastModified(version.modified()).build();
+        }
+
+        Body body;
+        long generation;
+        synchronized (this) {
+            body = this.bodies.get(key);
+            generation = fly ? this.flyGeneration : this.hotelGeneration;
+        }
+        if (Objects.isNull(body)) {
+            body = this.encode(query.get());
+            this.keep(key, body, fly, generation);
+        }
+
+        if (Objects.isNull(body.json)) return ResponseEntity.noContent().eTag(eTag).lastModified(version.modified()).build();
+        boolean gzip = Objects.nonNull(body.gzip) && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .lastModified(version.modified())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(gzip ? body.gzip : body.json);
+    }
+
+    // a body read before a change of its catalog is not kept, the generation tells it apart
+    private synchronized void keep(String key, Body body, boolean fly, long generation) {
+        if (generation != (fly ? this.flyGeneration : this.hotelGeneration) || body.size() > this.maxBytes) return;
+        Body previous = this.bodies.put(key, body);
+        this.bytes += body.size() - (Objects.isNull(previous) ? 0 : previous.size());
+        var eldest = this.bodies.entrySet().iterator();
+        while (this.bytes > this.maxBytes && eldest.hasNext()) {
+            this.bytes -= eldest.next().getValue().size();
+            eldest.remove();
+        }
+    }
+
+    private void drop(String prefix) {
+        var entries = this.bodies.entrySet().iterator();
+        while (entries.hasNext()) {
+            var entry = entries.next();
+            if (!entry.getKey().startsWith(prefix)) continue;
+            this.bytes -= entry.getValue().size();
+            entries.remove();
+        }
+    }
+
+    private Body encode(Collection<?> rows) {
+        if (rows.isEmpty()) return new Body(null, null);
+        try {
+            byte[] json = this.objectMapper.writeValueAsBytes(rows);
+            return new Body(json, json.length < COMPRESS_FROM ? null : gzip(json));
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(json);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return output.toByteArray();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (Objects.isNull(acceptEncoding)) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) continue;
+            return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    private record Body(byte[] json, byte[] gzip) {
+        private long size() {
+            return (Objects.isNull(this.json) ? 0 : this.json.length) + (Objects.isNull(this.gzip) ? 0 : this.gzip.length) + 64;
+        }
+    }
+}
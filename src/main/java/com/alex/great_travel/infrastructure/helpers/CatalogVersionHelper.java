@@ -0,0 +1,114 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.domain.events.HotelChangeEvent;
+import com.alex.great_travel.util.Tables;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Version of the flight and hotel catalogs, a counter in redis bumped by every change, import and
+ * midnight rebuild so every node names the same catalog with the same number once the change
+ * reached it. The version moves only once the indexes are patched and the bodies read from them
+ * dropped, a read that sees the new number reads the new rows. A node that can not reach redis
+ * bumps its own number past a thousand times the current time in millis; the shared counter starts
+ * at the time in millis and moves by one per change, so it can not have reached that number yet
+ * and the local one never matches a version of another node by chance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersionHelper {
+
+    public static final String FLY_VERSION = "catalog-version:flights";
+    public static final String HOTEL_VERSION = "catalog-version:hotels";
+
+    private final RedissonClient redissonClient;
+
+    private Version fly = new Version(0, System.currentTimeMillis());
+    private Version hotel = new Version(0, System.currentTimeMillis());
+
+    public record Version(long number, long modified) {
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        this.fly = new Version(this.read(FLY_VERSION), System.currentTimeMillis());
+        this.hotel = new Version(this.read(HOTEL_VERSION), System.currentTimeMillis());
+    }
+
+    public synchronized Version fly() {
+        return this.fly;
+    }
+
+    public synchronized Version hotel() {
+        return this.hotel;
+    }
+
+    // runs before the relay so the message to the other nodes carries the new version
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RedisConfig.CacheConstants.VERSION_ORDER)
+    public synchronized void onChange(FlyChangeEvent event) {
+        if (!event.isRemote()) this.fly = this.bumped(this.fly, FLY_VERSION);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RedisConfig.CacheConstants.VERSION_ORDER)
+    public synchronized void onChange(HotelChangeEvent event) {
+        if (!event.isRemote()) this.hotel = this.bumped(this.hotel, HOTEL_VERSION);
+    }
+
+    @EventListener
+    @Order(RedisConfig.CacheConstants.VERSION_ORDER)
+    public synchronized void onRebuild(CatalogRebuildEvent event) {
+        if (event.isRemote()) return;
+        if (event.getCatalog() == Tables.fly) this.fly = this.bumped(this.fly, FLY_VERSION);
+        if (event.getCatalog() == Tables.hotel) this.hotel = this.bumped(this.hotel, HOTEL_VERSION);
+    }
+
+    // called by the relay once the change of another node was published on this one
+    public synchronized void onRemoteFly(long number) {
+        this.fly = new Version(Math.max(this.fly.number() + 1, number), System.currentTimeMillis());
+    }
+
+    public synchronized void onRemoteHotel(long number) {
+        this.hotel = new Version(Math.max(this.hotel.number() + 1, number), System.currentTimeMillis());
+    }
+
+    private Version bumped(Version current, String name) {
+        long number;
+        try {
+            number = Math.max(current.number() + 1, this.counter(name).incrementAndGet());
+        } catch (RuntimeException exception) {
+            log.warn("Catalog version {} bumped on this node only: {}", name, exception.getMessage());
+            number = Math.max(current.number() + 1, System.currentTimeMillis() * 1000);
+        }
+        return new Version(number, System.currentTimeMillis());
+    }
+
+    // a counter starts at the current time in millis so a flushed redis does not reuse old numbers,
+    // a node that can not read it starts past a thousand times that time as a local bump does
+    private long read(String name) {
+        try {
+            RAtomicLong counter = this.counter(name);
+            counter.compareAndSet(0, System.currentTimeMillis());
+            return counter.get();
+        } catch (RuntimeException exception) {
+            log.warn("Catalog version {} not read: {}", name, exception.getMessage());
+            return System.currentTimeMillis() * 1000;
+        }
+    }
+
+    private RAtomicLong counter(String name) {
+        return this.redissonClient.getAtomicLong(name);
+    }
+}
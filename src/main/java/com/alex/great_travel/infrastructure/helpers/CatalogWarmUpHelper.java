@@ -0,0 +1,145 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.infrastructure.abstractService.FlyService;
+import com.alex.great_travel.infrastructure.indexes.FlyCatalogIndex;
+import com.alex.great_travel.infrastructure.indexes.HotelCatalogIndex;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
+import com.alex.great_travel.util.Tables;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills the catalog again after a deploy or a reset. The hotel reads by price and rating, the
+ * routes and the rooms are served by the catalog indexes, so those and the id filters are built
+ * eagerly, and the most requested flight searches, counted by every node in a shared sorted set,
+ * are searched again through the cache on a small pool so the database is not flooded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogWarmUpHelper {
+
+    public static final String SEARCH_HITS = "flights:search-hits";
+    public static final int MAX_TRACKED = 1000;
+    public static final long WARM_UP_TIMEOUT_SECONDS = 120;
+
+    private final FlyService flyService;
+    private final FlyCatalogIndex flyCatalogIndex;
+    private final HotelCatalogIndex hotelCatalogIndex;
+    private final RoomInventory roomInventory;
+    private final RedissonClient redissonClient;
+    private final IdFilterHelper idFilterHelper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${cache.warm-up.searches:100}")
+    private Integer searches;
+
+    @Value("${cache.warm-up.threads:2}")
+    private Integer threads;
+
+    private final Map<FlySearchRequest, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // counted in memory and flushed once a minute, a search does not pay a round trip to redis
+    public void record(FlySearchRequest request) {
+        LongAdder hits = this.pending.get(request);
+        if (hits == null) {
+            if (this.pending.size() >= MAX_TRACKED) return;
+            hits = this.pending.computeIfAbsent(request, key -> new LongAdder());
+        }
+        hits.increment();
+    }
+
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void flush() {
+        if (this.pending.isEmpty()) return;
+        try {
+            RScoredSortedSet<FlySearchRequest> hits = this.hits();
+            for (FlySearchRequest request : List.copyOf(this.pending.keySet())) {
+                LongAdder count = this.pending.remove(request);
+                if (count != null) hits.addScore(request, count.sum());
+            }
+            if (hits.size() > MAX_TRACKED) hits.removeRangeByRank(0, -MAX_TRACKED - 1);
+        } catch (RuntimeException exception) {
+            log.warn("Search hits not flushed: {}", exception.getMessage());
+        }
+    }
+
+    public Collection<FlySearchRequest> mostRequested() {
+        try {
+            return this.hits().valueRangeReversed(0, this.searches - 1);
+        } catch (RuntimeException exception) {
+            log.warn("Most requested searches not read: {}", exception.getMessage());
+            return List.of();
+        }
+    }
+
+    // every node rebuilds its own catalogs, a lost change message is repaired and the versions move
+    @Scheduled(cron = RedisConfig.CacheConstants.SCHEDULED_RESET_CACHE)
+    public void rebuild() {
+        this.applicationEventPublisher.publishEvent(new CatalogRebuildEvent(Tables.fly, false, true));
+        this.applicationEventPublisher.publishEvent(new CatalogRebuildEvent(Tables.hotel, false, true));
+    }
+
+    // a minute after the midnight reset, once the caches were dropped and the indexes rebuilt
+    @Scheduled(cron = RedisConfig.CacheConstants.SCHEDULED_WARM_UP)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        this.flyCatalogIndex.byPrice();
+        this.hotelCatalogIndex.byPrice();
+        this.roomInventory.available(LocalDate.now(), LocalDate.now().plusDays(1));
+        this.idFilterHelper.rebuild();
+
+        Collection<FlySearchRequest> requests = this.mostRequested();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, this.threads));
+        try {
+            List<Runnable> tasks = new ArrayList<>(requests.size());
+            for (FlySearchRequest request : requests) {
+                tasks.add(() -> {
+                    try {
+                        this.flyService.search(request);
+                    } catch (RuntimeException exception) {
+                        failed.incrementAndGet();
+                    }
+                });
+            }
+            tasks.forEach(pool::execute);
+            pool.shutdown();
+            if (!pool.awaitTermination(WARM_UP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Warm up stopped after {} seconds", WARM_UP_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Catalog warmed up with {} searches, {} failed, in {} ms",
+                requests.size(), failed.get(), System.currentTimeMillis() - start);
+    }
+
+    private RScoredSortedSet<FlySearchRequest> hits() {
+        return this.redissonClient.getScoredSortedSet(SEARCH_HITS, new TypedJsonJacksonCodec(FlySearchRequest.class));
+    }
+}
@@ -0,0 +1,45 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.response.EntityCacheStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hits, misses and puts of every region of the second level cache on this node, counted by the
+ * hibernate statistics since the node started.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheStatsHelper {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<EntityCacheStatsResponse> stats() {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(statistics::getCacheRegionStatistics)
+                .filter(Objects::nonNull)
+                .map(EntityCacheStatsHelper::toResponse)
+                .toList();
+    }
+
+    private static EntityCacheStatsResponse toResponse(CacheRegionStatistics region) {
+        long reads = region.getHitCount() + region.getMissCount();
+        return EntityCacheStatsResponse.builder()
+                .region(region.getRegionName())
+                .hits(region.getHitCount())
+                .misses(region.getMissCount())
+                .puts(region.getPutCount())
+                .hitRatio(reads == 0 ? 0 : (double) region.getHitCount() / reads)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.config.cache.CatalogCacheConfig;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the searches cached in the flights cache, shared by every node, and evicts only the ones
+ * a flight change can alter. A search reads the flights matching all of its filters, its aeroline
+ * facet ignores the aeroline and its price facet ignores the price range, so a flight affects it
+ * when it is on the route and either in the price range or of the aeroline. A key is tracked as
+ * long as its entry can live in the shared cache, so a change only reads the searches still cached.
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class FlySearchCacheHelper {
+
+    public static final String SEARCH_KEYS = "flights:search-keys";
+    public static final long TRACK_MARGIN_MILLIS = 60_000; // the entry is written once the search is loaded
+
+    private final RedissonClient redissonClient;
+    private final CacheManager cacheManager;
+    private final Environment environment;
+
+    // a search is still answered when redis is down, its entry is only in the local level then
+    public void track(FlySearchRequest request) {
+        try {
+            long ttl = CatalogCacheConfig.of(this.environment, RedisConfig.CacheConstants.FLY_CACHE_NAME).getTTL();
+            this.keys().fastPut(request.cacheKey(), request, ttl + TRACK_MARGIN_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException exception) {
+            log.debug("Search {} not tracked: {}", request.cacheKey(), exception.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(FlyChangeEvent event) {
+        // the node that made the change already evicted the shared entries
+        if (event.isRemote()) return;
+        Cache cache = this.cacheManager.getCache(RedisConfig.CacheConstants.FLY_CACHE_NAME);
+        if (Objects.isNull(cache)) return;
+        try {
+            RMapCache<String, FlySearchRequest> keys = this.keys();
+            keys.readAllMap().forEach((key, request) -> {
+                if (affects(request, event.getFly()) || affects(request, event.getPrevious())) {
+                    cache.evict(key);
+                    keys.fastRemove(key);
+                }
+            });
+        } catch (RuntimeException exception) {
+            // the midnight reset of the cache still drops whatever could not be evicted here
+            log.warn("Searches of flight {} not evicted: {}", event.getFly().getId(), exception.getMessage());
+        }
+    }
+
+    @Scheduled(cron = RedisConfig.CacheConstants.SCHEDULED_RESET_CACHE)
+    public void clear() {
+        this.keys().delete();
+    }
+
+    static boolean affects(FlySearchRequest request, FlyResponse fly) {
+        if (Objects.isNull(fly)) return false;
+        boolean onRoute = (Objects.isNull(request.getOrigin()) || request.getOrigin().equals(fly.getOriginName()))
+                && (Objects.isNull(request.getDestiny()) || request.getDestiny().equals(fly.getDestinyName()));
+        return onRoute && (inRange(request, fly.getPrice())
+                || Objects.isNull(request.getAeroLine()) || request.getAeroLine() == fly.getAeroLine());
+    }
+
+    private static boolean inRange(FlySearchRequest request, BigDecimal price) {
+        return Objects.nonNull(price)
+                && (Objects.isNull(request.getMinPrice()) || price.compareTo(request.getMinPrice()) >= 0)
+                && (Objects.isNull(request.getMaxPrice()) || price.compareTo(request.getMaxPrice()) <= 0);
+    }
+
+    private RMapCache<String, FlySearchRequest> keys() {
+        return this.redissonClient.getMapCache(SEARCH_KEYS, new TypedJsonJacksonCodec(String.class, FlySearchRequest.class));
+    }
+}
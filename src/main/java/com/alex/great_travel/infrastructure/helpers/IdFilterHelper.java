@@ -0,0 +1,221 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.domain.events.HotelChangeEvent;
+import com.alex.great_travel.domain.repositories.CustomerRepository;
+import com.alex.great_travel.domain.repositories.FlyRepository;
+import com.alex.great_travel.domain.repositories.HotelRepository;
+import com.alex.great_travel.infrastructure.indexes.IdBloomFilter;
+import com.alex.great_travel.util.Tables;
+import com.alex.great_travel.util.exceptions.IdNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Rejects the fly, hotel and customer ids that were never saved before any query runs. Every node
+ * keeps a bloom filter per table built from the ids in the database, and the nodes share one in
+ * redis that every save is added to once committed. An id missing from the local filter is looked
+ * up in the shared one, which knows the rows saved on other nodes and by the imports, and is
+ * rejected only when both miss it. Until the local filter is built, or while redis fails, the
+ * database decides; a save redis missed is kept pending and written again every 30 seconds.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdFilterHelper {
+
+    public static final String FLY_FILTER = "id-filter:flights";
+    public static final String HOTEL_FILTER = "id-filter:hotels";
+    public static final String CUSTOMER_FILTER = "id-filter:customers";
+    public static final int MIN_LOCAL_INSERTIONS = 1024;
+
+    private final FlyRepository flyRepository;
+    private final HotelRepository hotelRepository;
+    private final CustomerRepository customerRepository;
+    private final RedissonClient redissonClient;
+
+    @Value("${cache.id-filter.expected-insertions:1000000}")
+    private Long expectedInsertions;
+
+    @Value("${cache.id-filter.false-probability:0.01}")
+    private Double falseProbability;
+
+    private final Filter flights = new Filter(Tables.fly, FLY_FILTER);
+    private final Filter hotels = new Filter(Tables.hotel, HOTEL_FILTER);
+    private final Filter customers = new Filter(Tables.customer, CUSTOMER_FILTER);
+
+    public void requireFly(Long id) {
+        if (Objects.nonNull(id)) this.require(this.flights, String.valueOf(id));
+    }
+
+    public void requireHotel(Long id) {
+        if (Objects.nonNull(id)) this.require(this.hotels, String.valueOf(id));
+    }
+
+    public void requireCustomer(String dni) {
+        if (Objects.nonNull(dni)) this.require(this.customers, dni);
+    }
+
+    // called inside the transaction of the save, the other nodes learn the dni once it commits
+    public void addCustomer(String dni) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.add(this.customers, dni, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                IdFilterHelper.this.add(IdFilterHelper.this.customers, dni, true);
+            }
+        });
+    }
+
+    // the changes relayed from other nodes are already in the shared filter
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(FlyChangeEvent event) {
+        if (event.getType() != ChangeType.SAVED) return;
+        this.add(this.flights, String.valueOf(event.getFly().getId()), !event.isRemote());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(HotelChangeEvent event) {
+        if (event.getType() != ChangeType.SAVED) return;
+        this.add(this.hotels, String.valueOf(event.getHotel().getId()), !event.isRemote());
+    }
+
+    public void rebuild() {
+        this.rebuildFlights();
+        this.rebuildHotels();
+        this.rebuild(this.customers, this.customerRepository::selectDnis);
+    }
+
+    // the imports write with plain jdbc, no change event tells the filters about their rows
+    public void rebuildFlights() {
+        this.rebuild(this.flights, this.flyRepository::selectIds);
+    }
+
+    public void rebuildHotels() {
+        this.rebuild(this.hotels, this.hotelRepository::selectIds);
+    }
+
+    @Scheduled(fixedDelay = 30_000, initialDelay = 30_000)
+    public void flush() {
+        this.flush(this.flights);
+        this.flush(this.hotels);
+        this.flush(this.customers);
+    }
+
+    private void require(Filter filter, String id) {
+        if (!this.mightExist(filter, id)) throw new IdNotFoundException(filter.table.name());
+    }
+
+    private boolean mightExist(Filter filter, String id) {
+        IdBloomFilter local = filter.local;
+        if (Objects.isNull(local) || local.mightContain(id)) return true;
+        try {
+            if (!this.shared(filter).contains(id)) return false;
+        } catch (RuntimeException exception) {
+            log.debug("Id filter {} not read: {}", filter.name, exception.getMessage());
+            return true;
+        }
+        filter.add(id);
+        return true;
+    }
+
+    // written at once so another node knows the id on its next request, only a failed write waits
+    // for the flush; a filter not created yet fails too and the flush creates it
+    private void add(Filter filter, String id, boolean shared) {
+        filter.add(id);
+        if (!shared) return;
+        try {
+            this.shared(filter).add(id);
+        } catch (RuntimeException exception) {
+            filter.pending.add(id);
+            log.debug("Id {} of filter {} left pending: {}", id, filter.name, exception.getMessage());
+        }
+    }
+
+    // every id read goes to the shared filter too, it fills what a save missed while redis was down
+    private synchronized void rebuild(Filter filter, Supplier<? extends Collection<?>> ids) {
+        long start = System.currentTimeMillis();
+        filter.startRebuild();
+        Collection<?> rows = ids.get();
+        IdBloomFilter next = new IdBloomFilter(Math.max(MIN_LOCAL_INSERTIONS, rows.size() * 2L), this.falseProbability);
+        for (Object row : rows) {
+            String id = String.valueOf(row);
+            next.add(id);
+            filter.pending.add(id);
+        }
+        filter.finishRebuild(next);
+        this.flush(filter);
+        log.info("Id filter {} built with {} ids in {} ms", filter.name, rows.size(), System.currentTimeMillis() - start);
+    }
+
+    private void flush(Filter filter) {
+        if (filter.pending.isEmpty()) return;
+        try {
+            RBloomFilter<String> shared = this.shared(filter);
+            shared.tryInit(this.expectedInsertions, this.falseProbability);
+            Iterator<String> ids = filter.pending.iterator();
+            while (ids.hasNext()) {
+                shared.add(ids.next());
+                ids.remove();
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Id filter {} not flushed, {} ids pending: {}", filter.name, filter.pending.size(), exception.getMessage());
+        }
+    }
+
+    private RBloomFilter<String> shared(Filter filter) {
+        return this.redissonClient.getBloomFilter(filter.name, StringCodec.INSTANCE);
+    }
+
+    private static final class Filter {
+
+        private final Tables table;
+        private final String name;
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+        private volatile IdBloomFilter local;
+        private Set<String> added;
+
+        private Filter(Tables table, String name) {
+            this.table = table;
+            this.name = name;
+        }
+
+        private synchronized void add(String id) {
+            if (Objects.nonNull(this.local)) this.local.add(id);
+            if (Objects.nonNull(this.added)) this.added.add(id);
+        }
+
+        // the ids saved while the table is read are kept and added to the filter that replaces it
+        private synchronized void startRebuild() {
+            this.added = new HashSet<>();
+        }
+
+        private synchronized void finishRebuild(IdBloomFilter next) {
+            this.added.forEach(next::add);
+            this.added = null;
+            this.local = next;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Component
+@AllArgsConstructor
+public class NdjsonHelper {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final int ROWS_BY_FLUSH = 256;
+
+    private final ObjectMapper objectMapper;
+
+    // one json document by line, rows are pulled from the stream one at a time so the heap holds a single row
+    public <T> long write(Stream<T> rows, OutputStream output) throws IOException {
+        ObjectWriter writer = this.objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long written = 0;
+        try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                // the first rows leave early, the client does not wait for the whole result
+                if (++written % ROWS_BY_FLUSH == 1) generator.flush();
+            }
+        }
+        return written;
+    }
+
+}
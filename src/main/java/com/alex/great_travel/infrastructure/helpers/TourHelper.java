@@ -1,8 +1,10 @@
 package com.alex.great_travel.infrastructure.helpers;
 
+import com.alex.great_travel.api.models.request.TourHotelRequest;
 import com.alex.great_travel.domain.entities.*;
 import com.alex.great_travel.domain.repositories.ReservationRepository;
 import com.alex.great_travel.domain.repositories.TicketRepository;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
 import com.alex.great_travel.infrastructure.services.ReservationServiceImp;
 import com.alex.great_travel.infrastructure.services.TicketServiceImpl;
 import com.alex.great_travel.util.TravelUtil;
@@ -14,6 +16,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
@@ -24,6 +27,7 @@ public class TourHelper {
 
     private final TicketRepository ticketRepository;
     private final ReservationRepository reservationRepository;
+    private final RoomInventory roomInventory;
 
     public Set<TicketEntity> createTickets(Set<FlyEntity> flights, CustomerEntity customer) {
 
@@ -46,24 +50,11 @@ public class TourHelper {
 
     }
 
-    public Set<ReservationEntity> createReservations(HashMap<HotelEntity, Integer> hotels, CustomerEntity customer) {
+    public Set<ReservationEntity> createReservations(HashMap<HotelEntity, TourHotelRequest> hotels, CustomerEntity customer) {
 
         HashSet<ReservationEntity> response = new HashSet<>(hotels.size());
-        hotels.forEach((hotel, totalDays) -> {
-            ReservationEntity reservationToPersist = ReservationEntity.builder()
-                    .id(UUID.randomUUID())
-                    .hotel(hotel)
-                    .customer(customer)
-                    .totalDays(totalDays)
-                    .dateTimeReservation(LocalDateTime.now())
-                    .dateStart(LocalDate.now())
-                    .dateEnd(LocalDate.now().plusDays(totalDays))
-                    .price(hotel.getPrice().multiply(ReservationServiceImp.CHARGER_PRICE_PERCENTAGE))
-                    .build();
-
-            response.add(this.reservationRepository.save(reservationToPersist));
-
-        });
+        hotels.forEach((hotel, stay) ->
+                response.add(this.createReservation(hotel, customer, stay.getTotalDays(), stay.getCheckIn())));
 
         return response;
 
@@ -85,15 +76,19 @@ public class TourHelper {
 
     }
 
-    public ReservationEntity createReservation(HotelEntity hotel, CustomerEntity customer, Integer totalDays){
+    // a stay without check in starts today
+    public ReservationEntity createReservation(HotelEntity hotel, CustomerEntity customer, Integer totalDays, LocalDate checkIn){
+        LocalDate start = Objects.isNull(checkIn) ? LocalDate.now() : checkIn;
+        LocalDate end = start.plusDays(totalDays);
+        this.roomInventory.reserve(hotel.getId(), start, end);
         ReservationEntity reservationToPersist = ReservationEntity.builder()
                 .id(UUID.randomUUID())
                 .hotel(hotel)
                 .customer(customer)
                 .totalDays(totalDays)
                 .dateTimeReservation(LocalDateTime.now())
-                .dateStart(LocalDate.now())
-                .dateEnd(LocalDate.now().plusDays(totalDays))
+                .dateStart(start)
+                .dateEnd(end)
                 .price(hotel.getPrice().multiply(ReservationServiceImp.CHARGER_PRICE_PERCENTAGE))
                 .build();
 
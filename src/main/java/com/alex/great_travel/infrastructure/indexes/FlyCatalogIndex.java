@@ -0,0 +1,99 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.domain.repositories.FlyRepository;
+import com.alex.great_travel.util.Tables;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlyCatalogIndex {
+
+    private final FlyRepository flyRepository;
+
+    private volatile Indexes indexes;
+
+    public PriceIndex<FlyResponse> byPrice() {
+        return this.indexes().byPrice();
+    }
+
+    public RouteIndex byRoute() {
+        return this.indexes().byRoute();
+    }
+
+    public RouteGraph routeGraph() {
+        return this.indexes().routeGraph();
+    }
+
+    public GeoIndex byOrigin() {
+        return this.indexes().byOrigin();
+    }
+
+    public synchronized void rebuild() {
+        List<FlyResponse> flights = this.flyRepository.selectAllResponses();
+        PriceIndex<FlyResponse> prices = PriceIndex.of(flights, FlyResponse::getId, FlyResponse::getPrice);
+        RouteIndex routes = RouteIndex.of(prices.rows());
+        this.indexes = new Indexes(prices, routes, RouteGraph.of(routes, prices.rows()), GeoIndex.of(prices.rows()));
+        log.info("Fly index rebuilt with {} rows", flights.size());
+    }
+
+    // runs before the bodies of the catalog are dropped, a body read again is read from the new rows
+    @EventListener
+    @Order(RedisConfig.CacheConstants.PATCH_ORDER)
+    public void onRebuild(CatalogRebuildEvent event) {
+        if (event.getCatalog() == Tables.fly) this.rebuild();
+    }
+
+    // only the row of the flight is patched in every index, the previous row is the one indexed
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RedisConfig.CacheConstants.PATCH_ORDER)
+    public synchronized void onChange(FlyChangeEvent event) {
+        Indexes current = this.indexes;
+        if (current == null) return;
+        FlyResponse fly = event.getFly();
+        FlyResponse previous = current.byPrice().find(fly.getId());
+
+        PriceIndex<FlyResponse> prices = current.byPrice().without(fly.getId());
+        RouteIndex routes = current.byRoute();
+        RouteGraph graph = current.routeGraph();
+        GeoIndex origins = current.byOrigin();
+        if (previous != null) {
+            routes = routes.without(previous);
+            graph = graph.without(routes, previous);
+            origins = origins.without(previous);
+        }
+        if (event.getType() == ChangeType.SAVED) {
+            prices = prices.with(fly.getId(), fly.getPrice(), fly);
+            routes = routes.with(fly);
+            graph = graph.with(routes, fly);
+            origins = origins.with(fly);
+        }
+        this.indexes = new Indexes(prices, routes, graph, origins);
+    }
+
+    private Indexes indexes() {
+        Indexes current = this.indexes;
+        return current != null ? current : this.load();
+    }
+
+    private synchronized Indexes load() {
+        if (this.indexes == null) this.rebuild();
+        return this.indexes;
+    }
+
+    // published as one reference so a reader never mixes indexes of different changes
+    private record Indexes(PriceIndex<FlyResponse> byPrice, RouteIndex byRoute, RouteGraph routeGraph, GeoIndex byOrigin) {
+    }
+}
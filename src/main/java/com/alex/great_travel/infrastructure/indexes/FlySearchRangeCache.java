@@ -0,0 +1,153 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.Tables;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Complete flight searches kept by route, a search whose price range is inside a kept range is
+ * answered filtering the kept flights instead of querying again. Only searches without aeroline
+ * and not truncated by the limit are kept, the aeroline facet needs every aeroline of the range,
+ * and a search with aeroline also needs the kept range open on both ends for its price facet.
+ */
+@Component
+public class FlySearchRangeCache {
+
+    public static final int MAX_ROUTES = 256;
+    public static final int MAX_RANGES_BY_ROUTE = 4;
+
+    private final Map<String, List<Superset>> byRoute = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Superset>> eldest) {
+            return this.size() > MAX_ROUTES;
+        }
+    };
+    private long generation;
+
+    public synchronized long generation() {
+        return this.generation;
+    }
+
+    public synchronized Optional<FlySearchResponse> find(FlySearchRequest request, BigDecimal bucketWidth) {
+        List<Superset> supersets = this.byRoute.get(route(request));
+        if (Objects.isNull(supersets)) return Optional.empty();
+        return supersets.stream()
+                .filter(superset -> superset.covers(request))
+                .findFirst()
+                .map(superset -> superset.answer(request, bucketWidth));
+    }
+
+    // a response read before a catalog change is not kept, the generation tells it apart
+    public synchronized void register(FlySearchRequest request, FlySearchResponse response, long generation) {
+        if (generation != this.generation || Objects.nonNull(request.getAeroLine())) return;
+        if (response.getTotal() > response.getFlights().size()) return;
+
+        Superset added = new Superset(request.getMinPrice(), request.getMaxPrice(),
+                List.copyOf(response.getFlights()), response.getByPrice());
+        List<Superset> supersets = this.byRoute.computeIfAbsent(route(request), key -> new ArrayList<>());
+        if (supersets.stream().anyMatch(superset -> superset.contains(added))) return;
+        supersets.removeIf(added::contains);
+        supersets.add(0, added);
+        if (supersets.size() > MAX_RANGES_BY_ROUTE) supersets.remove(supersets.size() - 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(FlyChangeEvent event) {
+        this.clear();
+    }
+
+    @EventListener
+    public void onRebuild(CatalogRebuildEvent event) {
+        if (event.getCatalog() == Tables.fly) this.clear();
+    }
+
+    public synchronized void clear() {
+        this.byRoute.clear();
+        this.generation++;
+    }
+
+    private static String route(FlySearchRequest request) {
+        return request.getOrigin() + ":" + request.getDestiny();
+    }
+
+    static BigDecimal bucket(BigDecimal price, BigDecimal width) {
+        BigDecimal lower = price.divide(width, 0, RoundingMode.FLOOR).multiply(width).stripTrailingZeros();
+        return lower.setScale(Math.max(0, lower.scale()));
+    }
+
+    private record Superset(BigDecimal min, BigDecimal max, List<FlyResponse> flights, Map<BigDecimal, Long> byPrice) {
+
+        private boolean covers(FlySearchRequest request) {
+            return this.contains(request.getMinPrice(), request.getMaxPrice())
+                    && (Objects.isNull(request.getAeroLine()) || (Objects.isNull(this.min) && Objects.isNull(this.max)));
+        }
+
+        private boolean contains(Superset other) {
+            return this.contains(other.min, other.max);
+        }
+
+        private boolean contains(BigDecimal otherMin, BigDecimal otherMax) {
+            boolean fromBelow = Objects.isNull(this.min) || (Objects.nonNull(otherMin) && otherMin.compareTo(this.min) >= 0);
+            boolean toAbove = Objects.isNull(this.max) || (Objects.nonNull(otherMax) && otherMax.compareTo(this.max) <= 0);
+            return fromBelow && toAbove;
+        }
+
+        private FlySearchResponse answer(FlySearchRequest request, BigDecimal bucketWidth) {
+            Map<AeroLine, Long> byAeroLine = new EnumMap<>(AeroLine.class);
+            List<FlyResponse> matching = new ArrayList<>();
+            for (FlyResponse fly : this.flights) {
+                if (!inRange(fly.getPrice(), request.getMinPrice(), request.getMaxPrice())) continue;
+                byAeroLine.merge(fly.getAeroLine(), 1L, Long::sum);
+                if (Objects.isNull(request.getAeroLine()) || request.getAeroLine() == fly.getAeroLine()) matching.add(fly);
+            }
+
+            matching.sort(order(request));
+            return FlySearchResponse.builder()
+                    .flights(matching.stream().limit(request.getLimit()).toList())
+                    .total((long) matching.size())
+                    .byAeroLine(byAeroLine)
+                    .byPrice(Objects.isNull(request.getAeroLine()) ? this.byPrice : this.byPrice(request.getAeroLine(), bucketWidth))
+                    .build();
+        }
+
+        private Map<BigDecimal, Long> byPrice(AeroLine aeroLine, BigDecimal bucketWidth) {
+            Map<BigDecimal, Long> counts = new TreeMap<>();
+            this.flights.stream()
+                    .filter(fly -> fly.getAeroLine() == aeroLine)
+                    .forEach(fly -> counts.merge(bucket(fly.getPrice(), bucketWidth), 1L, Long::sum));
+            return counts;
+        }
+
+        private static boolean inRange(BigDecimal price, BigDecimal min, BigDecimal max) {
+            return (Objects.isNull(min) || price.compareTo(min) >= 0) && (Objects.isNull(max) || price.compareTo(max) <= 0);
+        }
+
+        private static Comparator<FlyResponse> order(FlySearchRequest request) {
+            Comparator<FlyResponse> byPrice = Comparator.comparing(FlyResponse::getPrice).thenComparing(FlyResponse::getId);
+            return switch (request.getSortType()) {
+                case NONE -> Comparator.comparing(FlyResponse::getId);
+                case LOWER -> byPrice;
+                case UPPER -> byPrice.reversed();
+            };
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable KD-tree over flight origins. Coordinates are projected on the unit sphere so the
+ * straight (chord) distance grows with the great circle distance and a radius query is an
+ * euclidean range search, the tree is implicit: the median of every range is its node.
+ * A change does not rebalance the tree, saved flights go to a small list scanned by every query
+ * and removed ones are skipped by id, the tree is rebuilt once that backlog outgrows it.
+ */
+public final class GeoIndex {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final int MIN_BACKLOG = 64;
+
+    private final double[][] points;
+    private final FlyResponse[] flights;
+    private final FlyResponse[] added;
+    private final Set<Long> removed;
+
+    private GeoIndex(double[][] points, FlyResponse[] flights, FlyResponse[] added, Set<Long> removed) {
+        this.points = points;
+        this.flights = flights;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    public static GeoIndex of(Collection<FlyResponse> source) {
+        FlyResponse[] flights = source.stream()
+                .filter(fly -> Objects.nonNull(fly.getOriginLat()) && Objects.nonNull(fly.getOriginLng()))
+                .toArray(FlyResponse[]::new);
+        double[][] points = new double[3][flights.length];
+        for (int i = 0; i < flights.length; i++) {
+            double[] point = toPoint(flights[i].getOriginLat(), flights[i].getOriginLng());
+            for (int axis = 0; axis < 3; axis++) points[axis][i] = point[axis];
+        }
+
+        Integer[] order = new Integer[flights.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        build(order, points, 0, order.length, 0);
+
+        double[][] tree = new double[3][flights.length];
+        FlyResponse[] treeFlights = new FlyResponse[flights.length];
+        for (int i = 0; i < order.length; i++) {
+            for (int axis = 0; axis < 3; axis++) tree[axis][i] = points[axis][order[i]];
+            treeFlights[i] = flights[order[i]];
+        }
+        return new GeoIndex(tree, treeFlights, new FlyResponse[0], Set.of());
+    }
+
+    public GeoIndex with(FlyResponse fly) {
+        if (Objects.isNull(fly.getOriginLat()) || Objects.isNull(fly.getOriginLng())) return this;
+        return this.compacted(new GeoIndex(this.points, this.flights, IndexArrays.insert(this.added, this.added.length, fly), this.removed));
+    }
+
+    // the flight is found by its own point, a zero radius search instead of a scan over the tree
+    public GeoIndex without(FlyResponse fly) {
+        for (int i = 0; i < this.added.length; i++) {
+            if (this.added[i].getId().equals(fly.getId())) {
+                return new GeoIndex(this.points, this.flights, IndexArrays.remove(this.added, i), this.removed);
+            }
+        }
+        if (Objects.isNull(fly.getOriginLat()) || Objects.isNull(fly.getOriginLng())) return this;
+
+        Hits hits = new Hits();
+        this.search(0, this.flights.length, 0, toPoint(fly.getOriginLat(), fly.getOriginLng()), 0, hits);
+        if (hits.positions().noneMatch(position -> this.flights[position].getId().equals(fly.getId()))) return this;
+
+        Set<Long> removed = new HashSet<>(this.removed);
+        removed.add(fly.getId());
+        return this.compacted(new GeoIndex(this.points, this.flights, this.added, Set.copyOf(removed)));
+    }
+
+    public List<FlyResponse> near(double lat, double lng, double radiusKm) {
+        double[] query = toPoint(lat, lng);
+        double chord = radiusKm >= Math.PI * EARTH_RADIUS_KM ? 2.0 : 2.0 * Math.sin(radiusKm / (2.0 * EARTH_RADIUS_KM));
+        Hits hits = new Hits();
+        this.search(0, this.flights.length, 0, query, chord * chord, hits);
+        List<FlyResponse> found = new ArrayList<>(hits.sorted(this.flights));
+        for (FlyResponse fly : this.added) {
+            if (distance2(query, toPoint(fly.getOriginLat(), fly.getOriginLng())) <= chord * chord) found.add(fly);
+        }
+        if (found.size() == hits.size) return List.copyOf(found);
+        found.sort(Comparator.comparingDouble(fly -> distance2(query, toPoint(fly.getOriginLat(), fly.getOriginLng()))));
+        return List.copyOf(found);
+    }
+
+    private GeoIndex compacted(GeoIndex index) {
+        int backlog = index.added.length + index.removed.size();
+        if (backlog <= Math.max(MIN_BACKLOG, index.flights.length / MIN_BACKLOG)) return index;
+        List<FlyResponse> live = new ArrayList<>(index.flights.length + index.added.length);
+        for (FlyResponse fly : index.flights) {
+            if (!index.removed.contains(fly.getId())) live.add(fly);
+        }
+        live.addAll(Arrays.asList(index.added));
+        return of(live);
+    }
+
+    private void search(int low, int high, int depth, double[] query, double radius2, Hits hits) {
+        if (low >= high) return;
+        int middle = (low + high) >>> 1;
+        double distance2 = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            double delta = query[axis] - this.points[axis][middle];
+            distance2 += delta * delta;
+        }
+        if (distance2 <= radius2 && !this.removed.contains(this.flights[middle].getId())) hits.add(middle, distance2);
+
+        double split = query[depth % 3] - this.points[depth % 3][middle];
+        if (split <= 0) {
+            this.search(low, middle, depth + 1, query, radius2, hits);
+            if (split * split <= radius2) this.search(middle + 1, high, depth + 1, query, radius2, hits);
+        } else {
+            this.search(middle + 1, high, depth + 1, query, radius2, hits);
+            if (split * split <= radius2) this.search(low, middle, depth + 1, query, radius2, hits);
+        }
+    }
+
+    private static void build(Integer[] order, double[][] points, int low, int high, int depth) {
+        if (high - low <= 1) return;
+        double[] coordinates = points[depth % 3];
+        Arrays.sort(order, low, high, Comparator.comparingDouble(i -> coordinates[i]));
+        int middle = (low + high) >>> 1;
+        build(order, points, low, middle, depth + 1);
+        build(order, points, middle + 1, high, depth + 1);
+    }
+
+    private static double distance2(double[] a, double[] b) {
+        double distance2 = 0;
+        for (int axis = 0; axis < 3; axis++) distance2 += (a[axis] - b[axis]) * (a[axis] - b[axis]);
+        return distance2;
+    }
+
+    private static double[] toPoint(double lat, double lng) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lng);
+        return new double[]{Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    private static final class Hits {
+        private int[] positions = new int[16];
+        private double[] distances = new double[16];
+        private int size;
+
+        private void add(int position, double distance2) {
+            if (this.size == this.positions.length) {
+                this.positions = Arrays.copyOf(this.positions, this.size * 2);
+                this.distances = Arrays.copyOf(this.distances, this.size * 2);
+            }
+            this.positions[this.size] = position;
+            this.distances[this.size++] = distance2;
+        }
+
+        private IntStream positions() {
+            return Arrays.stream(this.positions, 0, this.size);
+        }
+
+        private List<FlyResponse> sorted(FlyResponse[] flights) {
+            Integer[] order = new Integer[this.size];
+            for (int i = 0; i < this.size; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparingDouble(i -> this.distances[i]));
+            FlyResponse[] result = new FlyResponse[this.size];
+            for (int i = 0; i < this.size; i++) result[i] = flights[this.positions[order[i]]];
+            return List.of(result);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable bitmap index over hotels. Every hotel has a position in price order and every rating
+ * keeps the set of positions with at least that rating, so a price range is a contiguous run of
+ * positions and a combined filter is a copy of one bitmap with the bits outside the run cleared.
+ */
+public final class HotelBitmapIndex {
+
+    private final HotelResponse[] hotels;
+    private final long[] cents;
+    private final BitSet[] atLeastRating;
+
+    private HotelBitmapIndex(HotelResponse[] hotels, long[] cents, BitSet[] atLeastRating) {
+        this.hotels = hotels;
+        this.cents = cents;
+        this.atLeastRating = atLeastRating;
+    }
+
+    public static HotelBitmapIndex of(PriceIndex<HotelResponse> prices) {
+        HotelResponse[] hotels = prices.rows().toArray(HotelResponse[]::new);
+        long[] cents = new long[hotels.length];
+        int maxRating = 0;
+        for (int i = 0; i < hotels.length; i++) {
+            cents[i] = PriceIndex.toCents(hotels[i].getPrice());
+            maxRating = Math.max(maxRating, rating(hotels[i]));
+        }
+
+        BitSet[] byRating = new BitSet[maxRating + 1];
+        for (int rating = 0; rating <= maxRating; rating++) byRating[rating] = new BitSet(hotels.length);
+        for (int i = 0; i < hotels.length; i++) byRating[rating(hotels[i])].set(i);
+
+        // cumulative from the top, the bitmap of a rating is the or of every rating above it
+        for (int rating = maxRating - 1; rating >= 0; rating--) byRating[rating].or(byRating[rating + 1]);
+        return new HotelBitmapIndex(hotels, cents, byRating);
+    }
+
+    public List<HotelResponse> filter(Integer minRating, BigDecimal minPrice, BigDecimal maxPrice) {
+        int rating = Objects.isNull(minRating) ? 0 : Math.max(0, minRating);
+        if (rating >= this.atLeastRating.length) return Collections.emptyList();
+
+        int from = Objects.isNull(minPrice) ? 0 : this.lowerBound(PriceIndex.ceilCents(minPrice));
+        int to = Objects.isNull(maxPrice) ? this.hotels.length : this.lowerBound(PriceIndex.floorCents(maxPrice) + 1);
+        if (from >= to) return Collections.emptyList();
+
+        BitSet matches = (BitSet) this.atLeastRating[rating].clone();
+        matches.clear(0, from);
+        matches.clear(to, this.hotels.length);
+
+        List<HotelResponse> result = new ArrayList<>(matches.cardinality());
+        for (int position = matches.nextSetBit(0); position >= 0; position = matches.nextSetBit(position + 1)) {
+            result.add(this.hotels[position]);
+        }
+        return result;
+    }
+
+    private int lowerBound(long target) {
+        int low = 0;
+        int high = this.cents.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.cents[middle] < target) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static int rating(HotelResponse hotel) {
+        return Objects.isNull(hotel.getRating()) ? 0 : Math.max(0, hotel.getRating());
+    }
+}
@@ -0,0 +1,83 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.HotelChangeEvent;
+import com.alex.great_travel.domain.repositories.HotelRepository;
+import com.alex.great_travel.util.Tables;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotelCatalogIndex {
+
+    private final HotelRepository hotelRepository;
+
+    private volatile Indexes indexes;
+
+    public PriceIndex<HotelResponse> byPrice() {
+        return this.indexes().byPrice();
+    }
+
+    public HotelBitmapIndex byFilter() {
+        return this.indexes().byFilter();
+    }
+
+    public HotelTextIndex byText() {
+        return this.indexes().byText();
+    }
+
+    public synchronized void rebuild() {
+        List<HotelResponse> hotels = this.hotelRepository.selectAllResponses();
+        PriceIndex<HotelResponse> prices = PriceIndex.of(hotels, HotelResponse::getId, HotelResponse::getPrice);
+        this.indexes = new Indexes(prices, HotelBitmapIndex.of(prices), HotelTextIndex.of(prices));
+        log.info("Hotel index rebuilt with {} rows", hotels.size());
+    }
+
+    @EventListener
+    @Order(RedisConfig.CacheConstants.PATCH_ORDER)
+    public void onRebuild(CatalogRebuildEvent event) {
+        if (event.getCatalog() == Tables.hotel) this.rebuild();
+    }
+
+    // the text index patches the postings of the hotel only, the bitmaps are cut again from the prices
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(RedisConfig.CacheConstants.PATCH_ORDER)
+    public synchronized void onChange(HotelChangeEvent event) {
+        Indexes current = this.indexes;
+        if (current == null) return;
+        HotelResponse hotel = event.getHotel();
+        PriceIndex<HotelResponse> prices = switch (event.getType()) {
+            case SAVED -> current.byPrice().with(hotel.getId(), hotel.getPrice(), hotel);
+            case REMOVED -> current.byPrice().without(hotel.getId());
+        };
+        HotelTextIndex text = switch (event.getType()) {
+            case SAVED -> current.byText().with(hotel);
+            case REMOVED -> current.byText().without(hotel.getId());
+        };
+        this.indexes = new Indexes(prices, HotelBitmapIndex.of(prices), text);
+    }
+
+    private Indexes indexes() {
+        Indexes current = this.indexes;
+        return current != null ? current : this.load();
+    }
+
+    private synchronized Indexes load() {
+        if (this.indexes == null) this.rebuild();
+        return this.indexes;
+    }
+
+    // published as one reference so a reader never mixes indexes of different changes
+    private record Indexes(PriceIndex<HotelResponse> byPrice, HotelBitmapIndex byFilter, HotelTextIndex byText) {
+    }
+}
@@ -0,0 +1,191 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable trigram inverted index over hotel name and address. Every word is padded with two
+ * leading blanks and one trailing blank before it is cut in trigrams, so a typo only breaks the
+ * few trigrams around it, and the last word of a query is left open as the prefix of a word.
+ * A hotel matches when it shares at least {@link #MIN_SIMILARITY} of the query trigrams.
+ * Every hotel keeps its slot while it is indexed, a change only copies the postings of the
+ * trigrams of the changed row; the slots of removed hotels are dropped once they are half of them.
+ */
+public final class HotelTextIndex {
+
+    public static final double MIN_SIMILARITY = 0.5;
+
+    private final HotelResponse[] hotels;
+    private final String[][] grams;
+    private final Map<Long, Integer> slots;
+    private final Map<String, int[]> postings;
+    private final int removed;
+
+    private HotelTextIndex(HotelResponse[] hotels, String[][] grams, Map<Long, Integer> slots,
+                           Map<String, int[]> postings, int removed) {
+        this.hotels = hotels;
+        this.grams = grams;
+        this.slots = slots;
+        this.postings = postings;
+        this.removed = removed;
+    }
+
+    public static HotelTextIndex of(PriceIndex<HotelResponse> prices) {
+        return of(prices.rows());
+    }
+
+    public HotelTextIndex with(HotelResponse hotel) {
+        Integer slot = this.slots.get(hotel.getId());
+        int position = Objects.isNull(slot) ? this.hotels.length : slot;
+        String[] previous = Objects.isNull(slot) ? new String[0] : this.grams[slot];
+        String[] cut = trigrams(text(hotel), false);
+
+        HotelResponse[] hotels = Arrays.copyOf(this.hotels, Math.max(this.hotels.length, position + 1));
+        String[][] grams = Arrays.copyOf(this.grams, hotels.length);
+        hotels[position] = hotel;
+        grams[position] = cut;
+        Map<Long, Integer> slots = this.slots;
+        if (Objects.isNull(slot)) {
+            slots = new HashMap<>(this.slots);
+            slots.put(hotel.getId(), position);
+        }
+        return new HotelTextIndex(hotels, grams, slots, this.repost(position, previous, cut), this.removed);
+    }
+
+    public HotelTextIndex without(Long id) {
+        Integer slot = this.slots.get(id);
+        if (Objects.isNull(slot)) return this;
+        if ((this.removed + 1) * 2 > this.hotels.length) {
+            List<HotelResponse> kept = new ArrayList<>(this.slots.size() - 1);
+            for (HotelResponse hotel : this.hotels) {
+                if (Objects.nonNull(hotel) && !hotel.getId().equals(id)) kept.add(hotel);
+            }
+            return of(kept);
+        }
+
+        HotelResponse[] hotels = this.hotels.clone();
+        String[][] grams = this.grams.clone();
+        hotels[slot] = null;
+        grams[slot] = null;
+        Map<Long, Integer> slots = new HashMap<>(this.slots);
+        slots.remove(id);
+        return new HotelTextIndex(hotels, grams, slots, this.repost(slot, this.grams[slot], new String[0]), this.removed + 1);
+    }
+
+    private static HotelTextIndex of(List<HotelResponse> rows) {
+        HotelResponse[] hotels = rows.toArray(HotelResponse[]::new);
+        String[][] grams = new String[hotels.length][];
+        Map<Long, Integer> slots = new HashMap<>(hotels.length * 2);
+        Map<String, Integer> sizes = new HashMap<>();
+        for (int i = 0; i < hotels.length; i++) {
+            grams[i] = trigrams(text(hotels[i]), false);
+            slots.put(hotels[i].getId(), i);
+            for (String gram : grams[i]) sizes.merge(gram, 1, Integer::sum);
+        }
+
+        Map<String, int[]> postings = new HashMap<>(sizes.size() * 2);
+        Map<String, Integer> filled = new HashMap<>(sizes.size() * 2);
+        sizes.forEach((gram, size) -> postings.put(gram, new int[size]));
+        for (int i = 0; i < hotels.length; i++) {
+            for (String gram : grams[i]) postings.get(gram)[filled.merge(gram, 1, Integer::sum) - 1] = i;
+        }
+        return new HotelTextIndex(hotels, grams, slots, postings, 0);
+    }
+
+    // the map is copied by reference, only the postings of trigrams the row left or joined are new arrays
+    private Map<String, int[]> repost(int slot, String[] previous, String[] current) {
+        Set<String> before = new HashSet<>(Arrays.asList(previous));
+        Set<String> after = new HashSet<>(Arrays.asList(current));
+        if (before.equals(after)) return this.postings;
+
+        Map<String, int[]> postings = new HashMap<>(this.postings);
+        for (String gram : previous) {
+            if (after.contains(gram)) continue;
+            int[] positions = postings.get(gram);
+            if (positions.length == 1) postings.remove(gram);
+            else postings.put(gram, IndexArrays.remove(positions, indexOf(positions, slot)));
+        }
+        for (String gram : current) {
+            if (before.contains(gram)) continue;
+            int[] positions = postings.getOrDefault(gram, new int[0]);
+            postings.put(gram, IndexArrays.insert(positions, positions.length, slot));
+        }
+        return postings;
+    }
+
+    public List<HotelResponse> search(String query, int limit) {
+        String[] wanted = trigrams(query, true);
+        if (wanted.length == 0 || limit < 1) return Collections.emptyList();
+
+        int[] shared = new int[this.hotels.length];
+        int[] touched = new int[this.hotels.length];
+        int size = 0;
+        for (String gram : wanted) {
+            int[] positions = this.postings.get(gram);
+            if (Objects.isNull(positions)) continue;
+            for (int position : positions) {
+                if (shared[position]++ == 0) touched[size++] = position;
+            }
+        }
+
+        int needed = (int) Math.ceil(wanted.length * MIN_SIMILARITY);
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (shared[touched[i]] >= needed) matches.add(touched[i]);
+        }
+
+        // more shared trigrams first, then the shorter text, then the cheaper hotel
+        matches.sort(Comparator.comparingInt((Integer position) -> -shared[position])
+                .thenComparingInt(position -> this.grams[position].length)
+                .thenComparingLong(position -> PriceIndex.toCents(this.hotels[position].getPrice()))
+                .thenComparingLong(position -> this.hotels[position].getId()));
+
+        return matches.stream()
+                .limit(limit)
+                .map(position -> this.hotels[position])
+                .toList();
+    }
+
+    private static int indexOf(int[] positions, int slot) {
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] == slot) return i;
+        }
+        throw new IllegalStateException("Slot " + slot + " is not in its postings");
+    }
+
+    private static String text(HotelResponse hotel) {
+        return Objects.toString(hotel.getName(), "") + " " + Objects.toString(hotel.getAddress(), "");
+    }
+
+    static String[] trigrams(String text, boolean openLastWord) {
+        if (Objects.isNull(text)) return new String[0];
+        String[] words = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{Alnum}]+", " ")
+                .trim()
+                .split(" ");
+
+        Set<String> grams = new LinkedHashSet<>();
+        for (int w = 0; w < words.length; w++) {
+            if (words[w].isEmpty()) continue;
+            boolean open = openLastWord && w == words.length - 1;
+            String padded = "  " + words[w] + (open ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) grams.add(padded.substring(i, i + 3));
+        }
+        return grams.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,65 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of record ids, sized for {@code expectedInsertions} ids at {@code falseProbability}.
+ * A miss means the id was never added, a hit only that it may have been. Adds are lock free so
+ * the ids saved while it is read land without blocking the lookups.
+ */
+public final class IdBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public IdBloomFilter(long expectedInsertions, double falseProbability) {
+        long expected = Math.max(1, expectedInsertions);
+        long size = (long) Math.ceil(-expected * Math.log(falseProbability) / (Math.log(2) * Math.log(2)));
+        this.bits = Math.max(Long.SIZE, Math.min(size, (long) Integer.MAX_VALUE * Long.SIZE));
+        this.words = new AtomicLongArray((int) ((this.bits + Long.SIZE - 1) / Long.SIZE));
+        this.hashes = Math.max(1, (int) Math.round((double) this.bits / expected * Math.log(2)));
+    }
+
+    public void add(String id) {
+        long hash = hash(id);
+        for (int i = 0; i < this.hashes; i++) {
+            long bit = this.bit(hash, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = this.words.get(word);
+            while ((current & mask) == 0 && !this.words.compareAndSet(word, current, current | mask)) {
+                current = this.words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String id) {
+        long hash = hash(id);
+        for (int i = 0; i < this.hashes; i++) {
+            long bit = this.bit(hash, i);
+            if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // the positions come from two halves of one hash, h1 + i * h2
+    private long bit(long hash, int i) {
+        long combined = (hash >>> 32) + i * (hash & 0xffffffffL);
+        return Math.floorMod(combined, this.bits);
+    }
+
+    // fnv-1a over the chars and a final mix so the two halves are independent enough
+    private static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
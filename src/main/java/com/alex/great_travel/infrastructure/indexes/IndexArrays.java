@@ -0,0 +1,60 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import java.util.Arrays;
+
+// copy on write helpers of the immutable indexes, a patch copies the arrays once and never sorts
+final class IndexArrays {
+
+    private IndexArrays() {
+    }
+
+    static long[] insert(long[] source, int position, long value) {
+        long[] target = new long[source.length + 1];
+        System.arraycopy(source, 0, target, 0, position);
+        target[position] = value;
+        System.arraycopy(source, position, target, position + 1, source.length - position);
+        return target;
+    }
+
+    static int[] insert(int[] source, int position, int value) {
+        int[] target = new int[source.length + 1];
+        System.arraycopy(source, 0, target, 0, position);
+        target[position] = value;
+        System.arraycopy(source, position, target, position + 1, source.length - position);
+        return target;
+    }
+
+    static <T> T[] insert(T[] source, int position, T value) {
+        T[] target = Arrays.copyOf(source, source.length + 1);
+        System.arraycopy(source, position, target, position + 1, source.length - position);
+        target[position] = value;
+        return target;
+    }
+
+    static long[] remove(long[] source, int position) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, position);
+        System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+        return target;
+    }
+
+    static int[] remove(int[] source, int position) {
+        int[] target = new int[source.length - 1];
+        System.arraycopy(source, 0, target, 0, position);
+        System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+        return target;
+    }
+
+    static <T> T[] remove(T[] source, int position) {
+        T[] target = Arrays.copyOf(source, source.length - 1);
+        System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+        return target;
+    }
+
+    // adds a value to every position from the given one, the offsets after a patched range move
+    static int[] shift(int[] source, int from, int delta) {
+        int[] target = source.clone();
+        for (int i = from; i < target.length; i++) target[i] += delta;
+        return target;
+    }
+}
@@ -0,0 +1,155 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable catalog snapshot sorted by price. Prices are kept as cents in a primitive array so
+ * less than and between queries are two binary searches and the result is a view over the rows.
+ * Changes return a new snapshot, readers never see a partially patched index. A second pair of
+ * arrays sorted by id keeps the price of every row, a row is found by its id and then by its price.
+ */
+public final class PriceIndex<R> {
+
+    private final long[] cents;
+    private final long[] ids;
+    private final Object[] rows;
+    private final long[] sortedIds;
+    private final long[] centsById;
+
+    private PriceIndex(long[] cents, long[] ids, Object[] rows, long[] sortedIds, long[] centsById) {
+        this.cents = cents;
+        this.ids = ids;
+        this.rows = rows;
+        this.sortedIds = sortedIds;
+        this.centsById = centsById;
+    }
+
+    public static <R> PriceIndex<R> of(Collection<R> source, ToLongFunction<R> id, Function<R, BigDecimal> price) {
+        List<R> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparingLong((R row) -> toCents(price.apply(row))).thenComparingLong(id));
+
+        long[] cents = new long[sorted.size()];
+        long[] ids = new long[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            cents[i] = toCents(price.apply(sorted.get(i)));
+            ids[i] = id.applyAsLong(sorted.get(i));
+        }
+
+        int[] byId = IntStream.range(0, ids.length).boxed()
+                .sorted(Comparator.comparingLong(i -> ids[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] sortedIds = new long[ids.length];
+        long[] centsById = new long[ids.length];
+        for (int i = 0; i < byId.length; i++) {
+            sortedIds[i] = ids[byId[i]];
+            centsById[i] = cents[byId[i]];
+        }
+        return new PriceIndex<>(cents, ids, sorted.toArray(), sortedIds, centsById);
+    }
+
+    public static <R> PriceIndex<R> empty() {
+        return new PriceIndex<>(new long[0], new long[0], new Object[0], new long[0], new long[0]);
+    }
+
+    public List<R> lessThan(BigDecimal price) {
+        return this.slice(0, this.lowerBound(ceilCents(price)));
+    }
+
+    public List<R> between(BigDecimal min, BigDecimal max) {
+        long from = ceilCents(min);
+        long to = floorCents(max);
+        if (from > to) return Collections.emptyList();
+        return this.slice(this.lowerBound(from), this.lowerBound(to + 1));
+    }
+
+    public List<R> rows() {
+        return this.slice(0, this.rows.length);
+    }
+
+    public int size() {
+        return this.rows.length;
+    }
+
+    public PriceIndex<R> with(long id, BigDecimal price, R row) {
+        PriceIndex<R> base = this.without(id);
+        long rowCents = toCents(price);
+        int position = base.lowerBound(rowCents, id);
+        int byId = -Arrays.binarySearch(base.sortedIds, id) - 1;
+        return new PriceIndex<>(
+                IndexArrays.insert(base.cents, position, rowCents),
+                IndexArrays.insert(base.ids, position, id),
+                IndexArrays.insert(base.rows, position, row),
+                IndexArrays.insert(base.sortedIds, byId, id),
+                IndexArrays.insert(base.centsById, byId, rowCents));
+    }
+
+    public PriceIndex<R> without(long id) {
+        int byId = Arrays.binarySearch(this.sortedIds, id);
+        if (byId < 0) return this;
+        int position = this.lowerBound(this.centsById[byId], id);
+        return new PriceIndex<>(
+                IndexArrays.remove(this.cents, position),
+                IndexArrays.remove(this.ids, position),
+                IndexArrays.remove(this.rows, position),
+                IndexArrays.remove(this.sortedIds, byId),
+                IndexArrays.remove(this.centsById, byId));
+    }
+
+    @SuppressWarnings("unchecked")
+    public R find(long id) {
+        int byId = Arrays.binarySearch(this.sortedIds, id);
+        return byId < 0 ? null : (R) this.rows[this.lowerBound(this.centsById[byId], id)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<R> slice(int from, int to) {
+        return (List<R>) Collections.unmodifiableList(Arrays.asList(this.rows).subList(from, to));
+    }
+
+    // first position whose price is greater or equal than the given cents
+    private int lowerBound(long target) {
+        int low = 0;
+        int high = this.cents.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.cents[middle] < target) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    // position of the row with the given price and id, or where it goes, rows of a price are in id order
+    private int lowerBound(long target, long id) {
+        int low = 0;
+        int high = this.cents.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.cents[middle] < target || (this.cents[middle] == target && this.ids[middle] < id)) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    static long ceilCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    static long floorCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact();
+    }
+}
@@ -0,0 +1,65 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+/**
+ * Rooms booked by night of one hotel, one counter by day in a primitive array that starts at
+ * {@code firstDay} (epoch day) and grows on demand. Nights outside the array have no bookings.
+ */
+final class RoomCalendar {
+
+    private int rooms;
+    private long firstDay;
+    private int[] booked = new int[0];
+
+    RoomCalendar(int rooms) {
+        this.rooms = rooms;
+    }
+
+    int rooms() {
+        return this.rooms;
+    }
+
+    void rooms(int rooms) {
+        this.rooms = rooms;
+    }
+
+    // nights from the check in day to the day before the check out
+    boolean fits(long checkIn, long checkOut) {
+        if (this.rooms <= 0) return false;
+        long from = Math.max(checkIn, this.firstDay);
+        long to = Math.min(checkOut, this.firstDay + this.booked.length);
+        for (long day = from; day < to; day++) {
+            if (this.booked[(int) (day - this.firstDay)] >= this.rooms) return false;
+        }
+        return true;
+    }
+
+    void add(long checkIn, long checkOut, int delta) {
+        if (checkIn >= checkOut) return;
+        this.cover(checkIn, checkOut);
+        for (long day = checkIn; day < checkOut; day++) {
+            int position = (int) (day - this.firstDay);
+            this.booked[position] = Math.max(0, this.booked[position] + delta);
+        }
+    }
+
+    int booked(long day) {
+        long position = day - this.firstDay;
+        return position < 0 || position >= this.booked.length ? 0 : this.booked[(int) position];
+    }
+
+    private void cover(long checkIn, long checkOut) {
+        if (this.booked.length == 0) {
+            this.firstDay = checkIn;
+            this.booked = new int[(int) (checkOut - checkIn)];
+            return;
+        }
+        long first = Math.min(this.firstDay, checkIn);
+        long end = Math.max(this.firstDay + this.booked.length, checkOut);
+        if (first == this.firstDay && end == this.firstDay + this.booked.length) return;
+
+        int[] grown = new int[(int) (end - first)];
+        System.arraycopy(this.booked, 0, grown, (int) (this.firstDay - first), this.booked.length);
+        this.firstDay = first;
+        this.booked = grown;
+    }
+}
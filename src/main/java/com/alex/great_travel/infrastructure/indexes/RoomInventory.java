@@ -0,0 +1,168 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.request.ReservationRequest;
+import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.domain.entities.HotelEntity;
+import com.alex.great_travel.domain.events.HotelChangeEvent;
+import com.alex.great_travel.domain.repositories.HotelRepository;
+import com.alex.great_travel.domain.repositories.ReservationRepository;
+import com.alex.great_travel.util.Tables;
+import com.alex.great_travel.util.exceptions.IdNotFoundException;
+import com.alex.great_travel.util.exceptions.NoRoomAvailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Room occupancy of every hotel by night. A reservation is checked against the database inside its
+ * own transaction: the hotel row is locked, so bookings of the same hotel wait for each other on
+ * every node, and the stays overlapping the new one are counted night by night. The calendars in
+ * memory only answer availability reads, they take the bookings of this node once committed and
+ * are reloaded every minute with the ones made on other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomInventory {
+
+    public static final UUID NO_RESERVATION = new UUID(0L, 0L);
+
+    private final HotelRepository hotelRepository;
+    private final ReservationRepository reservationRepository;
+
+    private Map<Long, RoomCalendar> calendars;
+
+    public void reserve(Long hotelId, LocalDate checkIn, LocalDate checkOut) {
+        this.reserve(hotelId, checkIn, checkOut, NO_RESERVATION);
+    }
+
+    // the stay being replaced is still in the table, it does not count against its own update
+    public void reserve(Long hotelId, LocalDate checkIn, LocalDate checkOut, UUID replaced) {
+        if (checkIn.isBefore(LocalDate.now()) || checkIn.isAfter(LocalDate.now().plusDays(ReservationRequest.BOOKING_HORIZON_DAYS))
+                || !checkIn.isBefore(checkOut) || checkOut.isAfter(checkIn.plusDays(ReservationRequest.MAX_TOTAL_DAYS))) {
+            throw new NoRoomAvailableException(hotelId, checkIn, checkOut);
+        }
+        HotelEntity hotel = this.hotelRepository.lockById(hotelId)
+                .orElseThrow(() -> new IdNotFoundException(Tables.hotel.name()));
+
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        RoomCalendar booked = new RoomCalendar(Objects.requireNonNullElse(hotel.getRooms(), 0));
+        this.reservationRepository.selectStaysOverlapping(hotelId, checkIn, checkOut, replaced).forEach(stay ->
+                booked.add(Math.max(from, stay.getDateStart().toEpochDay()), Math.min(to, stay.getDateEnd().toEpochDay()), 1));
+        if (!booked.fits(from, to)) throw new NoRoomAvailableException(hotelId, checkIn, checkOut);
+
+        this.afterCommit(() -> this.change(hotelId, from, to, 1));
+    }
+
+    // legacy rows may have no dates, they never took a night of the calendar
+    public void release(Long hotelId, LocalDate checkIn, LocalDate checkOut) {
+        if (Objects.isNull(checkIn) || Objects.isNull(checkOut)) return;
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        this.afterCommit(() -> this.change(hotelId, from, to, -1));
+    }
+
+    public synchronized List<Long> available(LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        if (from >= to) return List.of();
+        List<Long> hotels = new ArrayList<>();
+        this.calendars().forEach((hotelId, calendar) -> {
+            if (calendar.fits(from, to)) hotels.add(hotelId);
+        });
+        return hotels;
+    }
+
+    public synchronized int booked(Long hotelId, LocalDate night) {
+        RoomCalendar calendar = this.calendars().get(hotelId);
+        return Objects.isNull(calendar) ? 0 : calendar.booked(night.toEpochDay());
+    }
+
+    // the database is read outside the lock, a booking committed meanwhile shows up on the next reload
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void reload() {
+        synchronized (this) {
+            if (Objects.isNull(this.calendars)) return;
+        }
+        Map<Long, RoomCalendar> loaded = this.load();
+        synchronized (this) {
+            this.calendars = loaded;
+        }
+        log.debug("Room inventory reloaded for {} hotels", loaded.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onChange(HotelChangeEvent event) {
+        if (Objects.isNull(this.calendars)) return;
+        HotelResponse hotel = event.getHotel();
+        switch (event.getType()) {
+            case SAVED -> this.calendars.computeIfAbsent(hotel.getId(), id -> new RoomCalendar(hotel.getRooms()))
+                    .rooms(hotel.getRooms());
+            case REMOVED -> this.calendars.remove(hotel.getId());
+        }
+    }
+
+    // calendars not loaded yet will read the committed stay from the table
+    private synchronized void change(Long hotelId, long from, long to, int delta) {
+        if (Objects.isNull(this.calendars)) return;
+        RoomCalendar calendar = this.calendars.get(hotelId);
+        if (Objects.nonNull(calendar)) calendar.add(Math.max(from, today()), Math.min(to, lastNight() + 1), delta);
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private Map<Long, RoomCalendar> calendars() {
+        if (Objects.isNull(this.calendars)) {
+            this.calendars = this.load();
+            log.info("Room inventory loaded for {} hotels", this.calendars.size());
+        }
+        return this.calendars;
+    }
+
+    // stays are cut at the last night a reservation can take, a wrong date_end can not grow the arrays
+    private Map<Long, RoomCalendar> load() {
+        Map<Long, RoomCalendar> loaded = new HashMap<>();
+        this.hotelRepository.selectAllResponses()
+                .forEach(hotel -> loaded.put(hotel.getId(), new RoomCalendar(hotel.getRooms())));
+        long today = today();
+        long end = lastNight() + 1;
+        this.reservationRepository.selectStaysEndingAfter(LocalDate.now()).forEach(stay -> {
+            RoomCalendar calendar = loaded.get(stay.getHotelId());
+            if (Objects.nonNull(calendar))
+                calendar.add(Math.max(today, stay.getDateStart().toEpochDay()), Math.min(end, stay.getDateEnd().toEpochDay()), 1);
+        });
+        return loaded;
+    }
+
+    private static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    private static long lastNight() {
+        return today() + ReservationRequest.BOOKING_HORIZON_DAYS + ReservationRequest.MAX_TOTAL_DAYS;
+    }
+}
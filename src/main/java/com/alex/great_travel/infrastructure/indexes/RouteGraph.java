@@ -0,0 +1,229 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable flight graph, cities are the nodes and every flight is an edge weighted by its price.
+ * Adjacency is kept in compressed rows (edges of a city are contiguous and sorted by price), so
+ * the cheapest itineraries are enumerated lazily: a popped path only pushes its next sibling edge
+ * and its first extension, both never cheaper than itself.
+ */
+public final class RouteGraph {
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final RouteIndex cities;
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final long[] edgeCents;
+    private final FlyResponse[] edgeFlight;
+    private final int[] reverseStart;
+    private final int[] reverseSource;
+
+    private RouteGraph(RouteIndex cities, int[] edgeStart, int[] edgeTarget, long[] edgeCents,
+                       FlyResponse[] edgeFlight, int[] reverseStart, int[] reverseSource) {
+        this.cities = cities;
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+        this.edgeCents = edgeCents;
+        this.edgeFlight = edgeFlight;
+        this.reverseStart = reverseStart;
+        this.reverseSource = reverseSource;
+    }
+
+    public static RouteGraph of(RouteIndex cities, Collection<FlyResponse> source) {
+        FlyResponse[] flights = source.toArray(FlyResponse[]::new);
+        Arrays.sort(flights, Comparator
+                .comparingInt((FlyResponse fly) -> cities.code(fly.getOriginName()))
+                .thenComparingLong(fly -> PriceIndex.toCents(fly.getPrice()))
+                .thenComparingLong(FlyResponse::getId));
+
+        int nodes = cities.cities();
+        int[] edgeStart = new int[nodes + 1];
+        int[] edgeTarget = new int[flights.length];
+        long[] edgeCents = new long[flights.length];
+        int[] reverseStart = new int[nodes + 1];
+        for (int i = 0; i < flights.length; i++) {
+            edgeStart[cities.code(flights[i].getOriginName()) + 1]++;
+            edgeTarget[i] = cities.code(flights[i].getDestinyName());
+            edgeCents[i] = PriceIndex.toCents(flights[i].getPrice());
+            reverseStart[edgeTarget[i] + 1]++;
+        }
+        for (int city = 0; city < nodes; city++) {
+            edgeStart[city + 1] += edgeStart[city];
+            reverseStart[city + 1] += reverseStart[city];
+        }
+
+        int[] reverseSource = new int[flights.length];
+        int[] filled = Arrays.copyOf(reverseStart, nodes);
+        for (int city = 0; city < nodes; city++) {
+            for (int edge = edgeStart[city]; edge < edgeStart[city + 1]; edge++) {
+                reverseSource[filled[edgeTarget[edge]]++] = city;
+            }
+        }
+
+        return new RouteGraph(cities, edgeStart, edgeTarget, edgeCents, flights, reverseStart, reverseSource);
+    }
+
+    // the edge is inserted in its origin row by price, the rows after it and the new cities move by one
+    public RouteGraph with(RouteIndex cities, FlyResponse fly) {
+        int nodes = cities.cities();
+        int origin = cities.code(fly.getOriginName());
+        int target = cities.code(fly.getDestinyName());
+        long cents = PriceIndex.toCents(fly.getPrice());
+        int[] edgeStart = grow(this.edgeStart, nodes + 1);
+        int[] reverseStart = grow(this.reverseStart, nodes + 1);
+
+        int edge = edgeStart[origin];
+        while (edge < edgeStart[origin + 1] && (this.edgeCents[edge] < cents
+                || (this.edgeCents[edge] == cents && this.edgeFlight[edge].getId() < fly.getId()))) edge++;
+
+        return new RouteGraph(cities,
+                IndexArrays.shift(edgeStart, origin + 1, 1),
+                IndexArrays.insert(this.edgeTarget, edge, target),
+                IndexArrays.insert(this.edgeCents, edge, cents),
+                IndexArrays.insert(this.edgeFlight, edge, fly),
+                IndexArrays.shift(reverseStart, target + 1, 1),
+                IndexArrays.insert(this.reverseSource, reverseStart[target], origin));
+    }
+
+    public RouteGraph without(RouteIndex cities, FlyResponse fly) {
+        int origin = this.cities.code(fly.getOriginName());
+        if (origin < 0) return this;
+        for (int edge = this.edgeStart[origin]; edge < this.edgeStart[origin + 1]; edge++) {
+            if (!this.edgeFlight[edge].getId().equals(fly.getId())) continue;
+            int target = this.edgeTarget[edge];
+            int reverse = this.reverseStart[target];
+            while (this.reverseSource[reverse] != origin) reverse++;
+            return new RouteGraph(cities,
+                    IndexArrays.shift(this.edgeStart, origin + 1, -1),
+                    IndexArrays.remove(this.edgeTarget, edge),
+                    IndexArrays.remove(this.edgeCents, edge),
+                    IndexArrays.remove(this.edgeFlight, edge),
+                    IndexArrays.shift(this.reverseStart, target + 1, -1),
+                    IndexArrays.remove(this.reverseSource, reverse));
+        }
+        return this;
+    }
+
+    public List<List<FlyResponse>> cheapest(String origin, String destiny, int maxLegs, int limit) {
+        int from = this.cities.code(origin);
+        int to = this.cities.code(destiny);
+        if (from < 0 || to < 0 || from == to || maxLegs < 1 || limit < 1) return Collections.emptyList();
+
+        int[] hops = this.hopsTo(to, maxLegs);
+        if (hops[from] == UNREACHABLE) return Collections.emptyList();
+
+        List<List<FlyResponse>> itineraries = new ArrayList<>(limit);
+        PriorityQueue<Path> queue = new PriorityQueue<>(Comparator.comparingLong(path -> path.cents));
+        this.pushFirst(queue, null, from, 0L, 1, maxLegs, hops);
+
+        while (!queue.isEmpty() && itineraries.size() < limit) {
+            Path path = queue.poll();
+            this.pushSibling(queue, path, from, maxLegs, hops);
+
+            int city = this.edgeTarget[path.edge];
+            if (path.visits(city, this.edgeTarget, from)) continue;
+
+            if (city == to) {
+                itineraries.add(path.flights(this.edgeFlight));
+            } else if (path.legs < maxLegs) {
+                this.pushFirst(queue, path, city, path.cents, path.legs + 1, maxLegs, hops);
+            }
+        }
+        return itineraries;
+    }
+
+    // breadth first search over the reverse edges, legs needed from every city to the destiny
+    private int[] hopsTo(int destiny, int maxLegs) {
+        int[] hops = new int[this.cities.cities()];
+        Arrays.fill(hops, UNREACHABLE);
+        hops[destiny] = 0;
+
+        int[] frontier = {destiny};
+        for (int depth = 1; depth <= maxLegs && frontier.length > 0; depth++) {
+            int[] next = new int[hops.length];
+            int size = 0;
+            for (int city : frontier) {
+                for (int edge = this.reverseStart[city]; edge < this.reverseStart[city + 1]; edge++) {
+                    int source = this.reverseSource[edge];
+                    if (hops[source] == UNREACHABLE) {
+                        hops[source] = depth;
+                        next[size++] = source;
+                    }
+                }
+            }
+            frontier = Arrays.copyOf(next, size);
+        }
+        return hops;
+    }
+
+    private void pushFirst(PriorityQueue<Path> queue, Path parent, int city, long cents, int legs, int maxLegs, int[] hops) {
+        int edge = this.nextUsable(this.edgeStart[city], this.edgeStart[city + 1], maxLegs - legs, hops);
+        if (edge >= 0) queue.add(new Path(parent, edge, legs, cents + this.edgeCents[edge]));
+    }
+
+    private void pushSibling(PriorityQueue<Path> queue, Path path, int origin, int maxLegs, int[] hops) {
+        int source = path.parent == null ? origin : this.edgeTarget[path.parent.edge];
+        int edge = this.nextUsable(path.edge + 1, this.edgeStart[source + 1], maxLegs - path.legs, hops);
+        if (edge >= 0) {
+            long cents = path.cents - this.edgeCents[path.edge] + this.edgeCents[edge];
+            queue.add(new Path(path.parent, edge, path.legs, cents));
+        }
+    }
+
+    // edges whose target can not reach the destiny with the remaining legs are skipped
+    private int nextUsable(int from, int end, int remainingLegs, int[] hops) {
+        for (int edge = from; edge < end; edge++) {
+            if (hops[this.edgeTarget[edge]] <= remainingLegs) return edge;
+        }
+        return -1;
+    }
+
+    // the cities interned after the graph was built have no edges yet
+    private static int[] grow(int[] starts, int length) {
+        int[] grown = Arrays.copyOf(starts, length);
+        Arrays.fill(grown, starts.length, length, starts[starts.length - 1]);
+        return grown;
+    }
+
+    private static final class Path {
+        private final Path parent;
+        private final int edge;
+        private final int legs;
+        private final long cents;
+
+        private Path(Path parent, int edge, int legs, long cents) {
+            this.parent = parent;
+            this.edge = edge;
+            this.legs = legs;
+            this.cents = cents;
+        }
+
+        private boolean visits(int city, int[] edgeTarget, int origin) {
+            if (city == origin) return true;
+            for (Path previous = this.parent; previous != null; previous = previous.parent) {
+                if (edgeTarget[previous.edge] == city) return true;
+            }
+            return false;
+        }
+
+        private List<FlyResponse> flights(FlyResponse[] edgeFlight) {
+            FlyResponse[] flights = new FlyResponse[this.legs];
+            Path current = this;
+            for (int leg = this.legs - 1; leg >= 0; leg--) {
+                flights[leg] = edgeFlight[current.edge];
+                current = current.parent;
+            }
+            return List.of(flights);
+        }
+    }
+}
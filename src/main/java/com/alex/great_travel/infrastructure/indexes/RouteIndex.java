@@ -0,0 +1,153 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of flights by route. City names are interned into int codes and every
+ * (origin, destiny) pair is packed into a long key, flights of the same route are stored
+ * contiguously so a lookup is two dictionary hits and a binary search.
+ */
+public final class RouteIndex {
+
+    private final Map<String, Integer> codes;
+    private final String[] names;
+    private final long[] keys;
+    private final int[] offsets;
+    private final FlyResponse[] flights;
+
+    private RouteIndex(Map<String, Integer> codes, String[] names, long[] keys, int[] offsets, FlyResponse[] flights) {
+        this.codes = codes;
+        this.names = names;
+        this.keys = keys;
+        this.offsets = offsets;
+        this.flights = flights;
+    }
+
+    public static RouteIndex of(Collection<FlyResponse> source) {
+        Map<String, Integer> codes = new HashMap<>();
+        FlyResponse[] flights = source.toArray(FlyResponse[]::new);
+        long[] flightKeys = new long[flights.length];
+        for (int i = 0; i < flights.length; i++) {
+            int origin = codes.computeIfAbsent(flights[i].getOriginName(), name -> codes.size());
+            int destiny = codes.computeIfAbsent(flights[i].getDestinyName(), name -> codes.size());
+            flightKeys[i] = pack(origin, destiny);
+        }
+
+        String[] names = new String[codes.size()];
+        codes.forEach((name, code) -> names[code] = name);
+
+        // stable sort keeps the incoming order (price order) inside every route
+        Integer[] order = new Integer[flights.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(flightKeys[a], flightKeys[b]));
+
+        FlyResponse[] grouped = new FlyResponse[flights.length];
+        long[] keys = new long[flights.length];
+        int[] offsets = new int[flights.length + 1];
+        int routes = 0;
+        for (int i = 0; i < order.length; i++) {
+            grouped[i] = flights[order[i]];
+            long key = flightKeys[order[i]];
+            if (routes == 0 || keys[routes - 1] != key) {
+                keys[routes] = key;
+                offsets[routes] = i;
+                routes++;
+            }
+        }
+        offsets[routes] = flights.length;
+
+        return new RouteIndex(Map.copyOf(codes), names,
+                Arrays.copyOf(keys, routes), Arrays.copyOf(offsets, routes + 1), grouped);
+    }
+
+    // a new route or city is inserted in place, the flight goes after the cheaper ones of its route
+    public RouteIndex with(FlyResponse fly) {
+        Map<String, Integer> codes = this.codes;
+        String[] names = this.names;
+        if (this.code(fly.getOriginName()) < 0 || this.code(fly.getDestinyName()) < 0) {
+            Map<String, Integer> grown = new HashMap<>(codes);
+            grown.putIfAbsent(fly.getOriginName(), grown.size());
+            grown.putIfAbsent(fly.getDestinyName(), grown.size());
+            names = Arrays.copyOf(names, grown.size());
+            for (Map.Entry<String, Integer> city : grown.entrySet()) names[city.getValue()] = city.getKey();
+            codes = Map.copyOf(grown);
+        }
+
+        long key = pack(codes.get(fly.getOriginName()), codes.get(fly.getDestinyName()));
+        long[] keys = this.keys;
+        int[] offsets = this.offsets;
+        int route = Arrays.binarySearch(keys, key);
+        if (route < 0) {
+            route = -route - 1;
+            keys = IndexArrays.insert(keys, route, key);
+            offsets = IndexArrays.insert(offsets, route, offsets[route]);
+        }
+
+        long cents = PriceIndex.toCents(fly.getPrice());
+        int position = offsets[route];
+        while (position < offsets[route + 1] && before(this.flights[position], cents, fly.getId())) position++;
+        return new RouteIndex(codes, names, keys, IndexArrays.shift(offsets, route + 1, 1),
+                IndexArrays.insert(this.flights, position, fly));
+    }
+
+    // the city codes are kept, a city left without flights only costs its name until the next rebuild
+    public RouteIndex without(FlyResponse fly) {
+        int originCode = this.code(fly.getOriginName());
+        int destinyCode = this.code(fly.getDestinyName());
+        if (originCode < 0 || destinyCode < 0) return this;
+
+        int route = Arrays.binarySearch(this.keys, pack(originCode, destinyCode));
+        if (route < 0) return this;
+        for (int position = this.offsets[route]; position < this.offsets[route + 1]; position++) {
+            if (!this.flights[position].getId().equals(fly.getId())) continue;
+            FlyResponse[] flights = IndexArrays.remove(this.flights, position);
+            if (this.offsets[route + 1] - this.offsets[route] > 1) {
+                return new RouteIndex(this.codes, this.names, this.keys, IndexArrays.shift(this.offsets, route + 1, -1), flights);
+            }
+            return new RouteIndex(this.codes, this.names, IndexArrays.remove(this.keys, route),
+                    IndexArrays.shift(IndexArrays.remove(this.offsets, route), route, -1), flights);
+        }
+        return this;
+    }
+
+    public List<FlyResponse> find(String origin, String destiny) {
+        int originCode = this.code(origin);
+        int destinyCode = this.code(destiny);
+        if (originCode < 0 || destinyCode < 0) return Collections.emptyList();
+
+        int route = Arrays.binarySearch(this.keys, pack(originCode, destinyCode));
+        if (route < 0) return Collections.emptyList();
+        return Collections.unmodifiableList(
+                Arrays.asList(this.flights).subList(this.offsets[route], this.offsets[route + 1]));
+    }
+
+    public int code(String city) {
+        if (city == null) return -1;
+        Integer code = this.codes.get(city);
+        return code == null ? -1 : code;
+    }
+
+    public String name(int code) {
+        return this.names[code];
+    }
+
+    public int cities() {
+        return this.names.length;
+    }
+
+    private static boolean before(FlyResponse fly, long cents, long id) {
+        long flyCents = PriceIndex.toCents(fly.getPrice());
+        return flyCents < cents || (flyCents == cents && fly.getId() < id);
+    }
+
+    static long pack(int origin, int destiny) {
+        return ((long) origin << 32) | (destiny & 0xFFFFFFFFL);
+    }
+}
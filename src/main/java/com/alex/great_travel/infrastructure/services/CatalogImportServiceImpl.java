@@ -0,0 +1,111 @@
+package com.alex.great_travel.infrastructure.services;
+
+import com.alex.great_travel.api.models.request.FlyImportRequest;
+import com.alex.great_travel.api.models.request.HotelImportRequest;
+import com.alex.great_travel.api.models.response.ImportResponse;
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.entities.HotelEntity;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.infrastructure.abstractService.CatalogImportService;
+import com.alex.great_travel.infrastructure.helpers.CatalogImportHelper;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
+import com.alex.great_travel.util.ImportFormat;
+import com.alex.great_travel.util.Tables;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Loads supplier catalogs with plain jdbc batches, the rows never become entities. The whole file
+ * is one transaction, and the indexes and caches are refreshed once after it commits: the catalog
+ * is rebuilt by the listeners of a {@link CatalogRebuildEvent}, the id filter and the shared cache
+ * here.
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogImportHelper catalogImportHelper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final CacheManager cacheManager;
+    private final IdFilterHelper idFilterHelper;
+
+    private static final String INSERT_FLY = "insert into fly (origin_lat, origin_lng, destiny_lat, destiny_lng, " +
+            "origin_name, destiny_name, aero_line, price) values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_HOTEL = "insert into hotel (name, address, rating, price, rooms) values (?, ?, ?, ?, ?)";
+
+    @Override
+    public ImportResponse importFlights(InputStream input, ImportFormat format) {
+        ImportResponse response = this.transactionTemplate.execute(status ->
+                this.read(input, format, FlyImportRequest.class, flights ->
+                        this.jdbcTemplate.batchUpdate(INSERT_FLY, flights, flights.size(), (statement, fly) -> {
+                            statement.setDouble(1, fly.getOriginLat());
+                            statement.setDouble(2, fly.getOriginLng());
+                            statement.setDouble(3, fly.getDestinyLat());
+                            statement.setDouble(4, fly.getDestinyLng());
+                            statement.setString(5, fly.getOriginName());
+                            statement.setString(6, fly.getDestinyName());
+                            statement.setString(7, fly.getAeroLine().name());
+                            statement.setBigDecimal(8, fly.getPrice());
+                        })));
+        if (response.getImported() > 0) {
+            this.applicationEventPublisher.publishEvent(new CatalogRebuildEvent(Tables.fly));
+            this.idFilterHelper.rebuildFlights();
+            this.clear(RedisConfig.CacheConstants.FLY_CACHE_NAME);
+        }
+        log.info("Flights import read {} rows, imported {}", response.getRead(), response.getImported());
+        return response;
+    }
+
+    @Override
+    public ImportResponse importHotels(InputStream input, ImportFormat format) {
+        ImportResponse response = this.transactionTemplate.execute(status ->
+                this.read(input, format, HotelImportRequest.class, hotels ->
+                        this.jdbcTemplate.batchUpdate(INSERT_HOTEL, hotels, hotels.size(), (statement, hotel) -> {
+                            statement.setString(1, hotel.getName());
+                            statement.setString(2, hotel.getAddress());
+                            statement.setInt(3, hotel.getRating());
+                            statement.setBigDecimal(4, hotel.getPrice());
+                            statement.setInt(5, Objects.requireNonNullElse(hotel.getRooms(), HotelEntity.DEFAULT_ROOMS));
+                        })));
+        if (response.getImported() > 0) {
+            this.applicationEventPublisher.publishEvent(new CatalogRebuildEvent(Tables.hotel));
+            this.idFilterHelper.rebuildHotels();
+        }
+        log.info("Hotels import read {} rows, imported {}", response.getRead(), response.getImported());
+        return response;
+    }
+
+    private <T> ImportResponse read(InputStream input, ImportFormat format, Class<T> type,
+                                    Consumer<List<T>> writer) {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            return this.catalogImportHelper.read(reader, format, type, writer);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = this.cacheManager.getCache(cacheName);
+        if (Objects.nonNull(cache)) cache.clear();
+    }
+}
@@ -8,6 +8,7 @@ import com.alex.great_travel.domain.entities.RoleEntity;
 import com.alex.great_travel.domain.repositories.CustomerRepository;
 import com.alex.great_travel.domain.repositories.RoleRepository;
 import com.alex.great_travel.infrastructure.abstractService.CustomerService;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
 import com.alex.great_travel.util.Role;
 import com.alex.great_travel.util.Tables;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
@@ -31,6 +32,7 @@ public class CustomerServiceImpl implements CustomerService {
     private final RoleRepository roleRepositroy;
     private static final Set<Role> VALID_ROLES = Set.of(Role.CUSTOMER, Role.ADMIN);
     private final PasswordEncoder encoder;
+    private final IdFilterHelper idFilterHelper;
 
     @Override
     public CustomerResponse create(CustomerRequest customerRequest) {
@@ -62,6 +64,7 @@ public class CustomerServiceImpl implements CustomerService {
                 .build();
 
         CustomerEntity customerPersisted = this.customerRepository.save(customerToPersist);
+        this.idFilterHelper.addCustomer(customerPersisted.getDni());
 
         return this.entityToResponse(customerPersisted);
     }
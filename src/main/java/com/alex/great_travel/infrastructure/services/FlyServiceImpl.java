@@ -1,23 +1,38 @@
 package com.alex.great_travel.infrastructure.services;
 
+import com.alex.great_travel.api.models.request.FlySearchRequest;
 import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.api.models.response.SliceResponse;
+import com.alex.great_travel.api.models.response.ItineraryResponse;
 import com.alex.great_travel.config.RedisConfig;
-import com.alex.great_travel.domain.entities.FlyEntity;
 import com.alex.great_travel.domain.repositories.FlyRepository;
 import com.alex.great_travel.infrastructure.abstractService.FlyService;
+import com.alex.great_travel.infrastructure.helpers.FlySearchCacheHelper;
+import com.alex.great_travel.infrastructure.helpers.NdjsonHelper;
+import com.alex.great_travel.infrastructure.indexes.FlyCatalogIndex;
+import com.alex.great_travel.infrastructure.indexes.FlySearchRangeCache;
+import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.PageCursor;
 import com.alex.great_travel.util.SortType;
 import lombok.AllArgsConstructor;
-import org.springframework.beans.BeanUtils;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -25,6 +40,12 @@ import java.util.stream.Collectors;
 public class FlyServiceImpl implements FlyService {
 
     private final FlyRepository flyRepository;
+    private final FlyCatalogIndex flyCatalogIndex;
+    private final NdjsonHelper ndjsonHelper;
+    private final FlySearchRangeCache flySearchRangeCache;
+    private final FlySearchCacheHelper flySearchCacheHelper;
+
+    public static final BigDecimal PRICE_BUCKET_WIDTH = BigDecimal.valueOf(50);
 
     @Override
     public Page<FlyResponse> readAll(Integer page, Integer size, SortType sortType) {
@@ -35,41 +56,105 @@ public class FlyServiceImpl implements FlyService {
             case UPPER -> pageRequest = PageRequest.of(page, size, Sort.by(FIELD_BY_SORT).descending());
         }
 
-        return this.flyRepository.findAll(pageRequest).map(this::entityToResponse);
+        return this.flyRepository.selectAllResponses(pageRequest);
+    }
+
+    @Override
+    public SliceResponse<FlyResponse> readSlice(Integer size, String cursor, SortType sortType) {
+        PageCursor after = PageCursor.decode(cursor, sortType);
+        Limit limit = Limit.of(size + 1);
+        List<FlyResponse> rows;
+        if (after.isFirst()) {
+            rows = this.flyRepository.selectFirstResponses(after.sort(FIELD_BY_SORT), limit);
+        } else {
+            rows = switch (after.getSortType()) {
+                case NONE -> this.flyRepository.selectResponsesAfterId(after.getId(), limit);
+                case LOWER -> this.flyRepository.selectResponsesAfterPrice(after.getPrice(), after.getId(), limit);
+                case UPPER -> this.flyRepository.selectResponsesBeforePrice(after.getPrice(), after.getId(), limit);
+            };
+        }
+
+        return after.slice(rows, size, FlyResponse::getPrice, FlyResponse::getId);
     }
 
     @Override
-    @Cacheable(value = RedisConfig.CacheConstants.FLY_CACHE_NAME)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Set<FlyResponse> readLessPrice(BigDecimal price) {
-        return this.flyRepository.selectLessPrice(price)
-                .stream()
-                .map(this::entityToResponse)
-                .collect(Collectors.toSet());
+        return new HashSet<>(this.flyCatalogIndex.byPrice().lessThan(price));
     }
 
     @Override
-    @Cacheable(value = RedisConfig.CacheConstants.FLY_CACHE_NAME)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Set<FlyResponse> readBetweenPrices(BigDecimal min, BigDecimal max) {
-        return this.flyRepository.selectBetweenPrice(min, max)
-                .stream()
-                .map(this::entityToResponse)
-                .collect(Collectors.toSet());
+        return new HashSet<>(this.flyCatalogIndex.byPrice().between(min, max));
+    }
+
+    // written from the snapshot, a slow client holds no transaction nor database connection
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void streamLessPrice(BigDecimal price, OutputStream output) throws IOException {
+        this.ndjsonHelper.write(this.flyCatalogIndex.byPrice().lessThan(price).stream(), output);
     }
 
     @Override
-    @Cacheable(value = RedisConfig.CacheConstants.FLY_CACHE_NAME)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void streamBetweenPrices(BigDecimal min, BigDecimal max, OutputStream output) throws IOException {
+        this.ndjsonHelper.write(this.flyCatalogIndex.byPrice().between(min, max).stream(), output);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Set<FlyResponse> readByOriginDestiny(String origin, String destiny) {
-        return this.flyRepository.selectOriginDestiny(origin, destiny)
+        return new HashSet<>(this.flyCatalogIndex.byRoute().find(origin, destiny));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ItineraryResponse> readRoutes(String origin, String destiny, Integer maxLegs, Integer limit) {
+        return this.flyCatalogIndex.routeGraph()
+                .cheapest(origin, destiny, maxLegs, limit)
                 .stream()
-                .map(this::entityToResponse)
-                .collect(Collectors.toSet());
+                .map(this::toItinerary)
+                .toList();
     }
 
-    private FlyResponse entityToResponse(FlyEntity entity) {
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<FlyResponse> readNear(Double lat, Double lng, Double radiusKm) {
+        return this.flyCatalogIndex.byOrigin().near(lat, lng, radiusKm);
+    }
 
-        FlyResponse response = new FlyResponse();
-        BeanUtils.copyProperties(entity, response);
+    // the request arrives normalized, the key is the same for every equivalent search
+    @Override
+    @Cacheable(value = RedisConfig.CacheConstants.FLY_CACHE_NAME, key = "#request.cacheKey()", sync = true)
+    public FlySearchResponse search(FlySearchRequest request) {
+        this.flySearchCacheHelper.track(request);
+        long generation = this.flySearchRangeCache.generation();
+        return this.flySearchRangeCache.find(request, PRICE_BUCKET_WIDTH).orElseGet(() -> {
+            FlySearchResponse response = this.searchDatabase(request);
+            this.flySearchRangeCache.register(request, response, generation);
+            return response;
+        });
+    }
+
+    private FlySearchResponse searchDatabase(FlySearchRequest request) {
+        Map<AeroLine, Long> byAeroLine = this.flyRepository.countByAeroLine(request);
+        long total = Objects.isNull(request.getAeroLine())
+                ? byAeroLine.values().stream().mapToLong(Long::longValue).sum()
+                : byAeroLine.getOrDefault(request.getAeroLine(), 0L);
+        return FlySearchResponse.builder()
+                .flights(total == 0 ? List.of() : this.flyRepository.search(request))
+                .total(total)
+                .byAeroLine(byAeroLine)
+                .byPrice(this.flyRepository.countByPriceBucket(request, PRICE_BUCKET_WIDTH))
+                .build();
+    }
 
-        return response;
+    private ItineraryResponse toItinerary(List<FlyResponse> flights) {
+        return ItineraryResponse.builder()
+                .legs(flights.size())
+                .totalPrice(flights.stream().map(FlyResponse::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .flights(flights)
+                .build();
     }
 }
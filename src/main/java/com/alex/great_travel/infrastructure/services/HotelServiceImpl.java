@@ -1,23 +1,30 @@
 package com.alex.great_travel.infrastructure.services;
 
 import com.alex.great_travel.api.models.response.HotelResponse;
-import com.alex.great_travel.config.RedisConfig;
-import com.alex.great_travel.domain.entities.HotelEntity;
+import com.alex.great_travel.api.models.response.SliceResponse;
 import com.alex.great_travel.domain.repositories.HotelRepository;
 import com.alex.great_travel.infrastructure.abstractService.HotelService;
+import com.alex.great_travel.infrastructure.helpers.NdjsonHelper;
+import com.alex.great_travel.infrastructure.indexes.HotelCatalogIndex;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
+import com.alex.great_travel.util.PageCursor;
 import com.alex.great_travel.util.SortType;
 import lombok.AllArgsConstructor;
-import org.springframework.beans.BeanUtils;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -26,6 +33,9 @@ import java.util.stream.Collectors;
 public class HotelServiceImpl implements HotelService {
 
     private final HotelRepository hotelRepository;
+    private final HotelCatalogIndex hotelCatalogIndex;
+    private final NdjsonHelper ndjsonHelper;
+    private final RoomInventory roomInventory;
 
     @Override
     public Page<HotelResponse> readAll(Integer page, Integer size, SortType sortType) {
@@ -36,42 +46,78 @@ public class HotelServiceImpl implements HotelService {
             case UPPER -> pageRequest = PageRequest.of(page, size, Sort.by(FIELD_BY_SORT).descending());
         }
 
-        return this.hotelRepository.findAll(pageRequest).map(this::entityToResponse);
+        return this.hotelRepository.selectAllResponses(pageRequest);
     }
 
     @Override
-    @Cacheable(value = RedisConfig.CacheConstants.HOTEL_CACHE_NAME)
+    public SliceResponse<HotelResponse> readSlice(Integer size, String cursor, SortType sortType) {
+        PageCursor after = PageCursor.decode(cursor, sortType);
+        Limit limit = Limit.of(size + 1);
+        List<HotelResponse> rows;
+        if (after.isFirst()) {
+            rows = this.hotelRepository.selectFirstResponses(after.sort(FIELD_BY_SORT), limit);
+        } else {
+            rows = switch (after.getSortType()) {
+                case NONE -> this.hotelRepository.selectResponsesAfterId(after.getId(), limit);
+                case LOWER -> this.hotelRepository.selectResponsesAfterPrice(after.getPrice(), after.getId(), limit);
+                case UPPER -> this.hotelRepository.selectResponsesBeforePrice(after.getPrice(), after.getId(), limit);
+            };
+        }
+
+        return after.slice(rows, size, HotelResponse::getPrice, HotelResponse::getId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Set<HotelResponse> readLessPrice(BigDecimal price) {
-        return this.hotelRepository.findByPriceLessThan(price)
-                .stream()
-                .map(this::entityToResponse)
-                .collect(Collectors.toSet());
+        return new HashSet<>(this.hotelCatalogIndex.byPrice().lessThan(price));
     }
 
     @Override
-    @Cacheable(value = RedisConfig.CacheConstants.HOTEL_CACHE_NAME)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Set<HotelResponse> readBetweenPrices(BigDecimal min, BigDecimal max) {
-        return this.hotelRepository.findByPriceBetween(min, max)
-                .stream()
-                .map(this::entityToResponse)
-                .collect(Collectors.toSet());
+        return new HashSet<>(this.hotelCatalogIndex.byPrice().between(min, max));
+    }
+
+    // written from the snapshot, a slow client holds no transaction nor database connection
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void streamLessPrice(BigDecimal price, OutputStream output) throws IOException {
+        this.ndjsonHelper.write(this.hotelCatalogIndex.byPrice().lessThan(price).stream(), output);
     }
 
     @Override
-    @Cacheable(value = RedisConfig.CacheConstants.HOTEL_CACHE_NAME)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void streamBetweenPrices(BigDecimal min, BigDecimal max, OutputStream output) throws IOException {
+        this.ndjsonHelper.write(this.hotelCatalogIndex.byPrice().between(min, max).stream(), output);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Set<HotelResponse> readByRatingGreaterThan(Integer rating) {
-        return this.hotelRepository.findByRatingGreaterThan(rating)
-                .stream()
-                .map(this::entityToResponse)
-                .collect(Collectors.toSet());
+        return new HashSet<>(this.hotelCatalogIndex.byFilter().filter(rating + 1, null, null));
     }
 
-    private HotelResponse entityToResponse(HotelEntity entity) {
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<HotelResponse> readByFilter(Integer minRating, BigDecimal min, BigDecimal max) {
+        return this.hotelCatalogIndex.byFilter().filter(minRating, min, max);
+    }
 
-        HotelResponse response = new HotelResponse();
-        BeanUtils.copyProperties(entity, response);
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<HotelResponse> readAvailable(LocalDate checkIn, LocalDate checkOut) {
+        Set<Long> available = new HashSet<>(this.roomInventory.available(checkIn, checkOut));
+        if (available.isEmpty()) return List.of();
+        return this.hotelCatalogIndex.byPrice().rows().stream()
+                .filter(hotel -> available.contains(hotel.getId()))
+                .toList();
+    }
 
-        return response;
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<HotelResponse> search(String query, Integer limit) {
+        return this.hotelCatalogIndex.byText().search(query, limit);
     }
 
 }
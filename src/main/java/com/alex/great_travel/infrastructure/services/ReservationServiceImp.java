@@ -12,6 +12,8 @@ import com.alex.great_travel.domain.repositories.HotelRepository;
 import com.alex.great_travel.domain.repositories.ReservationRepository;
 import com.alex.great_travel.infrastructure.abstractService.ReservationService;
 import com.alex.great_travel.infrastructure.helpers.CustomerHelper;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
 import com.alex.great_travel.util.Tables;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
 import lombok.AllArgsConstructor;
@@ -24,6 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -36,24 +39,32 @@ public class ReservationServiceImp implements ReservationService {
     private final CustomerRepository customerRepository;
     private final HotelRepository hotelRepository;
     private final CustomerHelper customerHelper;
+    private final RoomInventory roomInventory;
+    private final IdFilterHelper idFilterHelper;
 
     public static final BigDecimal CHARGER_PRICE_PERCENTAGE = BigDecimal.valueOf(1.25);
 
     @Override
     public ReservationResponse create(ReservationRequest reservationRequest) {
+        this.idFilterHelper.requireHotel(reservationRequest.getHotelId());
+        this.idFilterHelper.requireCustomer(reservationRequest.getClientId());
         HotelEntity hotel = this.hotelRepository.findById(reservationRequest.getHotelId())
                 .orElseThrow(() -> new IdNotFoundException(Tables.hotel.name()));
         CustomerEntity customer = this.customerRepository.findById(reservationRequest.getClientId())
                 .orElseThrow(() -> new IdNotFoundException(Tables.customer.name()));
 
+        LocalDate checkIn = checkIn(reservationRequest);
+        LocalDate checkOut = checkIn.plusDays(reservationRequest.getTotalDays());
+        this.roomInventory.reserve(hotel.getId(), checkIn, checkOut);
+
         ReservationEntity reservationToPersist = ReservationEntity.builder()
                 .id(UUID.randomUUID())
                 .customer(customer)
                 .hotel(hotel)
                 .dateTimeReservation(LocalDateTime.now())
                 .totalDays(reservationRequest.getTotalDays())
-                .dateStart(LocalDate.now())
-                .dateEnd(LocalDate.now().plusDays(reservationRequest.getTotalDays()))
+                .dateStart(checkIn)
+                .dateEnd(checkOut)
                 .price(hotel.getPrice().multiply(CHARGER_PRICE_PERCENTAGE))
                 .build();
 
@@ -72,6 +83,7 @@ public class ReservationServiceImp implements ReservationService {
 
     @Override
     public BigDecimal findPrice(Long hotelId) {
+        this.idFilterHelper.requireHotel(hotelId);
         HotelEntity hotel = this.hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new IdNotFoundException(Tables.hotel.name()));
         return hotel.getPrice().multiply(CHARGER_PRICE_PERCENTAGE);
@@ -79,16 +91,22 @@ public class ReservationServiceImp implements ReservationService {
 
     @Override
     public ReservationResponse update(ReservationRequest reservationRequest, UUID uuid) {
+        this.idFilterHelper.requireHotel(reservationRequest.getHotelId());
         HotelEntity hotel = this.hotelRepository.findById(reservationRequest.getHotelId())
                 .orElseThrow(() -> new IdNotFoundException(Tables.hotel.name()));
         ReservationEntity reservationToUpdate = this.reservationRepository.findById(uuid)
                 .orElseThrow(() -> new IdNotFoundException(Tables.reservation.name()));
 
+        LocalDate checkIn = checkIn(reservationRequest);
+        LocalDate checkOut = checkIn.plusDays(reservationRequest.getTotalDays());
+        this.release(reservationToUpdate);
+        this.roomInventory.reserve(hotel.getId(), checkIn, checkOut, reservationToUpdate.getId());
+
         reservationToUpdate.setHotel(hotel);
         reservationToUpdate.setDateTimeReservation(LocalDateTime.now());
-        reservationToUpdate.setDateStart(LocalDate.now());
+        reservationToUpdate.setDateStart(checkIn);
         reservationToUpdate.setTotalDays(reservationRequest.getTotalDays());
-        reservationToUpdate.setDateEnd(LocalDate.now().plusDays(reservationRequest.getTotalDays()));
+        reservationToUpdate.setDateEnd(checkOut);
         reservationToUpdate.setPrice(hotel.getPrice().multiply(CHARGER_PRICE_PERCENTAGE));
 
         ReservationEntity reservationUpdated = this.reservationRepository.save(reservationToUpdate);
@@ -102,9 +120,19 @@ public class ReservationServiceImp implements ReservationService {
     public void delete(UUID uuid) {
         ReservationEntity reservationToDelete = this.reservationRepository.findById(uuid)
                 .orElseThrow(() -> new IdNotFoundException(Tables.reservation.name()));
+        this.release(reservationToDelete);
         this.reservationRepository.delete(reservationToDelete);
     }
 
+    private void release(ReservationEntity reservation) {
+        if (Objects.isNull(reservation.getHotel())) return;
+        this.roomInventory.release(reservation.getHotel().getId(), reservation.getDateStart(), reservation.getDateEnd());
+    }
+
+    private static LocalDate checkIn(ReservationRequest reservationRequest) {
+        return Objects.isNull(reservationRequest.getCheckIn()) ? LocalDate.now() : reservationRequest.getCheckIn();
+    }
+
     private ReservationResponse entityToResponse(ReservationEntity reservationEntity) {
         ReservationResponse response = new ReservationResponse();
         BeanUtils.copyProperties(reservationEntity, response);
@@ -11,6 +11,7 @@ import com.alex.great_travel.domain.repositories.FlyRepository;
 import com.alex.great_travel.domain.repositories.TicketRepository;
 import com.alex.great_travel.infrastructure.abstractService.TicketService;
 import com.alex.great_travel.infrastructure.helpers.CustomerHelper;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
 import com.alex.great_travel.util.Tables;
 import com.alex.great_travel.util.TravelUtil;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
@@ -34,11 +35,14 @@ public class TicketServiceImpl implements TicketService {
     private final CustomerRepository customerRepository;
     private final TicketRepository ticketRepository;
     private final CustomerHelper customerHelper;
+    private final IdFilterHelper idFilterHelper;
 
     public static final BigDecimal CHARGER_PRICE_PERCENTAGE = BigDecimal.valueOf(1.25);
 
     @Override
     public TicketResponse create(TicketRequest ticketRequest) {
+        this.idFilterHelper.requireFly(ticketRequest.getFlyId());
+        this.idFilterHelper.requireCustomer(ticketRequest.getClientId());
         FlyEntity fly = this.flyRepository.findById(ticketRequest.getFlyId()).orElseThrow();
         CustomerEntity customer = this.customerRepository.findById(ticketRequest.getClientId()).orElseThrow();
 
@@ -69,6 +73,7 @@ public class TicketServiceImpl implements TicketService {
 
     @Override
     public BigDecimal findPrice(Long flyId) {
+        this.idFilterHelper.requireFly(flyId);
         FlyEntity fly = this.flyRepository.findById(flyId)
                 .orElseThrow(() -> new IdNotFoundException(Tables.fly.name()));
         return fly.getPrice().multiply(CHARGER_PRICE_PERCENTAGE);
@@ -78,6 +83,7 @@ public class TicketServiceImpl implements TicketService {
     public TicketResponse update(TicketRequest ticketRequest, UUID uuid) {
         TicketEntity ticketToUpdate = this.ticketRepository.findById(uuid)
                 .orElseThrow(() -> new IdNotFoundException(Tables.ticket.name()));
+        this.idFilterHelper.requireFly(ticketRequest.getFlyId());
         FlyEntity fly = this.flyRepository.findById(ticketRequest.getFlyId())
                 .orElseThrow(() -> new IdNotFoundException(Tables.fly.name()));
 
@@ -1,5 +1,6 @@
 package com.alex.great_travel.infrastructure.services;
 
+import com.alex.great_travel.api.models.request.TourHotelRequest;
 import com.alex.great_travel.api.models.request.TourRequest;
 import com.alex.great_travel.api.models.response.TourResponse;
 import com.alex.great_travel.domain.entities.*;
@@ -9,13 +10,16 @@ import com.alex.great_travel.domain.repositories.HotelRepository;
 import com.alex.great_travel.domain.repositories.TourRepository;
 import com.alex.great_travel.infrastructure.abstractService.TourService;
 import com.alex.great_travel.infrastructure.helpers.CustomerHelper;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
 import com.alex.great_travel.infrastructure.helpers.TourHelper;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
 import com.alex.great_travel.util.Tables;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,9 +34,14 @@ public class TourServiceImpl implements TourService {
     private final FlyRepository flyRepository;
     private final TourHelper tourHelper;
     private final CustomerHelper customerHelper;
+    private final IdFilterHelper idFilterHelper;
+    private final RoomInventory roomInventory;
 
     @Override
     public TourResponse create(TourRequest request) {
+        this.idFilterHelper.requireCustomer(request.getCustomerId());
+        request.getFlights().forEach(fly -> this.idFilterHelper.requireFly(fly.getId()));
+        request.getHotels().forEach(hotel -> this.idFilterHelper.requireHotel(hotel.getId()));
         CustomerEntity customer = customerRepository.findById(request.getCustomerId())
                 .orElseThrow(() -> new IdNotFoundException(Tables.customer.name()));
 
@@ -41,11 +50,11 @@ public class TourServiceImpl implements TourService {
                 .forEach(fly -> flights.add(this.flyRepository.findById(fly.getId())
                         .orElseThrow(() -> new IdNotFoundException(Tables.fly.name()))));
 
-        HashMap<HotelEntity, Integer> hotels = new HashMap<>();
+        HashMap<HotelEntity, TourHotelRequest> hotels = new HashMap<>();
         request.getHotels()
                 .forEach(hotel ->
                         hotels.put(this.hotelRepository.findById(hotel.getId())
-                                .orElseThrow(() -> new IdNotFoundException(Tables.hotel.name())), hotel.getTotalDays()));
+                                .orElseThrow(() -> new IdNotFoundException(Tables.hotel.name())), hotel));
 
         TourEntity tourToSave = TourEntity.builder()
                 .tickets(tourHelper.createTickets(flights, customer))
@@ -93,7 +102,10 @@ public class TourServiceImpl implements TourService {
                 .orElseThrow(() -> new IdNotFoundException(Tables.tour.name()));
 
         tourToDelete.getTickets().forEach(ticket -> ticket.setTour(null));
-        tourToDelete.getReservations().forEach(reservation -> reservation.setTour(null));
+        tourToDelete.getReservations().forEach(reservation -> {
+            reservation.setTour(null);
+            this.release(reservation);
+        });
 
         tourToDelete.getTickets().clear();
         tourToDelete.getReservations().clear();
@@ -111,6 +123,7 @@ public class TourServiceImpl implements TourService {
 
     @Override
     public UUID addTicket(Long tourId, Long flyId) {
+        this.idFilterHelper.requireFly(flyId);
         TourEntity tourUpdate = this.tourRepository.findById(tourId)
                 .orElseThrow(() -> new IdNotFoundException(Tables.tour.name()));
         FlyEntity fly = this.flyRepository.findById(flyId)
@@ -125,19 +138,28 @@ public class TourServiceImpl implements TourService {
     public void removeReservation(Long tourId, UUID reservationId) {
         TourEntity tourUpdate = this.tourRepository.findById(tourId)
                 .orElseThrow(() -> new IdNotFoundException(Tables.tour.name()));
+        tourUpdate.getReservations().stream()
+                .filter(reservation -> reservation.getId().equals(reservationId))
+                .forEach(this::release);
         tourUpdate.removeReservation(reservationId);
         this.tourRepository.save(tourUpdate);
     }
 
     @Override
-    public UUID addReservation(Long tourId, Long hotelId, Integer totalDays) {
+    public UUID addReservation(Long tourId, Long hotelId, Integer totalDays, LocalDate checkIn) {
+        this.idFilterHelper.requireHotel(hotelId);
         TourEntity tourUpdate = this.tourRepository.findById(tourId)
                 .orElseThrow(() -> new IdNotFoundException(Tables.tour.name()));
         HotelEntity hotel = this.hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new IdNotFoundException(Tables.hotel.name()));
-        ReservationEntity reservation = this.tourHelper.createReservation(hotel, tourUpdate.getCustomer(), totalDays);
+        ReservationEntity reservation = this.tourHelper.createReservation(hotel, tourUpdate.getCustomer(), totalDays, checkIn);
         tourUpdate.addReservation(reservation);
         this.tourRepository.save(tourUpdate);
         return reservation.getId();
     }
+
+    private void release(ReservationEntity reservation) {
+        if (Objects.isNull(reservation.getHotel())) return;
+        this.roomInventory.release(reservation.getHotel().getId(), reservation.getDateStart(), reservation.getDateEnd());
+    }
 }
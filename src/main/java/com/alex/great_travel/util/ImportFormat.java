@@ -0,0 +1,13 @@
+package com.alex.great_travel.util;
+
+import java.util.Objects;
+
+public enum ImportFormat {
+    CSV, NDJSON;
+
+    // accepts a content type or a file name
+    public static ImportFormat of(String source) {
+        String value = Objects.isNull(source) ? "" : source.toLowerCase();
+        return value.contains("ndjson") || value.endsWith(".json") || value.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
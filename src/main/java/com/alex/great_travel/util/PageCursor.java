@@ -0,0 +1,80 @@
+package com.alex.great_travel.util;
+
+import com.alex.great_travel.api.models.response.SliceResponse;
+import com.alex.great_travel.util.exceptions.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Position of a keyset page, the last (price, id) already returned and the order it was read in.
+ * It travels to the client as an opaque token so the next page seeks from it instead of skipping rows.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final SortType sortType;
+    private final BigDecimal price;
+    private final Long id;
+
+    public static PageCursor first(SortType sortType) {
+        return new PageCursor(sortType, null, null);
+    }
+
+    // the order is taken from the token, so a client can not change it in the middle of a scroll
+    public static PageCursor decode(String token, SortType sortType) {
+        if (Objects.isNull(token) || token.isBlank()) return first(sortType);
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) throw new InvalidCursorException(token);
+            return new PageCursor(SortType.valueOf(parts[0]), new BigDecimal(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    public String encode() {
+        String raw = this.sortType.name() + SEPARATOR + this.price.toPlainString() + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return Objects.isNull(this.id);
+    }
+
+    public Sort sort(String priceField) {
+        return switch (this.sortType) {
+            case NONE -> Sort.by("id");
+            case LOWER -> Sort.by(priceField, "id").ascending();
+            case UPPER -> Sort.by(priceField, "id").descending();
+        };
+    }
+
+    // rows were read with one extra element, it only tells if there is a next page
+    public <R> SliceResponse<R> slice(List<R> rows, int size, Function<R, BigDecimal> price, Function<R, Long> id) {
+        boolean hasNext = rows.size() > size;
+        List<R> content = hasNext ? List.copyOf(rows.subList(0, size)) : rows;
+        String next = null;
+        if (hasNext) {
+            R last = content.get(content.size() - 1);
+            next = new PageCursor(this.sortType, price.apply(last), id.apply(last)).encode();
+        }
+        return SliceResponse.<R>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(next)
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.alex.great_travel.util.exceptions;
+
+public class InvalidCursorException extends RuntimeException{
+
+    private static final String ERROR_MESSAGE = "Cursor %s is not valid";
+
+    public InvalidCursorException(String cursor){
+        super(String.format(ERROR_MESSAGE, cursor));
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.alex.great_travel.util.exceptions;
+
+public class InvalidParamException extends RuntimeException{
+
+    private static final String ERROR_MESSAGE = "Param %s with value %s is not valid";
+
+    public InvalidParamException(String param, Object value){
+        super(String.format(ERROR_MESSAGE, param, value));
+    }
+
+}
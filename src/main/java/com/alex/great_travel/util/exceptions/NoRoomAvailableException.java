@@ -0,0 +1,11 @@
+package com.alex.great_travel.util.exceptions;
+
+public class NoRoomAvailableException extends RuntimeException{
+
+    private static final String ERROR_MESSAGE = "No room available in hotel %s from %s to %s";
+
+    public NoRoomAvailableException(Long hotelId, Object checkIn, Object checkOut){
+        super(String.format(ERROR_MESSAGE, hotelId, checkIn, checkOut));
+    }
+
+}
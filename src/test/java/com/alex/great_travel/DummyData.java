@@ -3,6 +3,7 @@ package com.alex.great_travel;
 import com.alex.great_travel.api.models.request.*;
 import com.alex.great_travel.api.models.response.CustomerResponse;
 import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.HotelResponse;
 import com.alex.great_travel.api.models.response.TicketResponse;
 import com.alex.great_travel.api.models.response.TourResponse;
 import com.alex.great_travel.domain.entities.*;
@@ -256,6 +257,16 @@ public class DummyData {
                 .build();
     }
 
+    public static HotelResponse createHotelResponse() {
+        return HotelResponse.builder()
+                .id(1L)
+                .price(BigDecimal.valueOf(100))
+                .name("Hotel1")
+                .rating(5)
+                .address("addres hotel 1")
+                .build();
+    }
+
     //Reservation
 
     public static ReservationEntity createReservationEntity(
@@ -0,0 +1,99 @@
+package com.alex.great_travel.api.controllers.status200;
+
+import com.alex.great_travel.api.controllers.CacheController;
+import com.alex.great_travel.api.models.response.CacheStatsResponse;
+import com.alex.great_travel.api.models.response.EntityCacheStatsResponse;
+import com.alex.great_travel.config.cache.CatalogCacheManager;
+import com.alex.great_travel.config.security.SecurityConfig;
+import com.alex.great_travel.infrastructure.helpers.EntityCacheStatsHelper;
+import com.alex.great_travel.infrastructure.services.security.UserDetailsServiceImpl;
+import com.alex.great_travel.util.jwt.JwtUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CacheController.class)
+@Import(SecurityConfig.class)
+class CacheControllerStatus200Test {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsServiceImpl;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private CatalogCacheManager catalogCacheManager;
+
+    @MockitoBean
+    private EntityCacheStatsHelper entityCacheStatsHelper;
+
+    private static final String RESOURCE_PATH = "/cache";
+    private static final String ADMIN = "ADMIN";
+    private static final String CUSTOMER = "CUSTOMER";
+
+    @Test
+    @WithMockUser(roles = ADMIN)
+    @DisplayName("should return the stats of every catalog cache")
+    void stats() throws Exception {
+        when(catalogCacheManager.stats()).thenReturn(List.of(CacheStatsResponse.builder()
+                .name("flights")
+                .entries(12L)
+                .memoryBytes(4096L)
+                .expired(3L)
+                .removed(1L)
+                .maxEntries(5000)
+                .eviction("LFU")
+                .build()));
+
+        mockMvc.perform(get(RESOURCE_PATH + "/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("flights"))
+                .andExpect(jsonPath("$[0].memoryBytes").value(4096))
+                .andExpect(jsonPath("$[0].eviction").value("LFU"));
+    }
+
+    @Test
+    @WithMockUser(roles = ADMIN)
+    @DisplayName("should return the stats of every entity cache region")
+    void entities() throws Exception {
+        when(entityCacheStatsHelper.stats()).thenReturn(List.of(EntityCacheStatsResponse.builder()
+                .region("fly")
+                .hits(30L)
+                .misses(10L)
+                .puts(10L)
+                .hitRatio(0.75)
+                .build()));
+
+        mockMvc.perform(get(RESOURCE_PATH + "/entities"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region").value("fly"))
+                .andExpect(jsonPath("$[0].hits").value(30))
+                .andExpect(jsonPath("$[0].hitRatio").value(0.75));
+    }
+
+    @Test
+    @WithMockUser(roles = CUSTOMER)
+    @DisplayName("should forbid the stats to a customer")
+    void stats_ShouldBeForbidden_GivenCustomer() throws Exception {
+        mockMvc.perform(get(RESOURCE_PATH + "/stats"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(catalogCacheManager);
+    }
+}
@@ -2,9 +2,16 @@ package com.alex.great_travel.api.controllers.status200;
 
 import com.alex.great_travel.DummyData;
 import com.alex.great_travel.api.controllers.FlyController;
+import com.alex.great_travel.api.models.request.FlySearchRequest;
 import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.api.models.response.SliceResponse;
+import com.alex.great_travel.api.models.response.ItineraryResponse;
 import com.alex.great_travel.config.security.SecurityConfig;
 import com.alex.great_travel.infrastructure.abstractService.FlyService;
+import com.alex.great_travel.infrastructure.helpers.CatalogResponseHelper;
+import com.alex.great_travel.infrastructure.helpers.CatalogVersionHelper;
+import com.alex.great_travel.infrastructure.helpers.CatalogWarmUpHelper;
 import com.alex.great_travel.infrastructure.services.security.UserDetailsServiceImpl;
 import com.alex.great_travel.util.AeroLine;
 import com.alex.great_travel.util.SortType;
@@ -18,27 +25,44 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FlyController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CatalogResponseHelper.class})
 class FlyControllerStatus200Test {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CatalogResponseHelper catalogResponseHelper;
+
     @MockitoBean
     private UserDetailsServiceImpl userDetailsServiceImpl;
 
@@ -50,10 +74,18 @@ class FlyControllerStatus200Test {
     @MockitoBean
     private FlyService flyService;
 
+    @MockitoBean
+    private CatalogWarmUpHelper catalogWarmUpHelper;
+
+    @MockitoBean
+    private CatalogVersionHelper catalogVersionHelper;
+
     private FlyResponse flyResponse;
 
     @BeforeEach
     void setUp() {
+        catalogResponseHelper.clear();
+        when(catalogVersionHelper.fly()).thenReturn(new CatalogVersionHelper.Version(1, 1_700_000_000_000L));
         flyResponse = DummyData.createFlyResponse(
                 99.9999,
                 88.8888,
@@ -98,6 +130,28 @@ class FlyControllerStatus200Test {
                 .andExpect(jsonPath("$.length()").value(1));
     }
 
+    @Test
+    @DisplayName("should answer not modified to a client holding the current version of the flights")
+    void getLessPrice_ShouldReturnNotModified() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "less_price";
+        BigDecimal price = BigDecimal.valueOf(50);
+        when(flyService.readLessPrice(price)).thenReturn(Set.of(flyResponse));
+
+        String eTag = mockMvc.perform(get(uri)
+                        .param("price", "50"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(uri)
+                        .param("price", "50")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(flyService, times(1)).readLessPrice(price);
+    }
+
     @Test
     @DisplayName("should return a set of flights where the minimum and maximum prices match")
     void getBetweenPrice() throws Exception {
@@ -133,4 +187,132 @@ class FlyControllerStatus200Test {
                 .andExpect(jsonPath("$[0].destinyName").value(flyResponse.getDestinyName()))
                 .andExpect(jsonPath("$.length()").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("should return the cheapest itineraries between origin and destination")
+    void getRoutes() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "routes";
+        ItineraryResponse itinerary = ItineraryResponse.builder()
+                .legs(1)
+                .totalPrice(flyResponse.getPrice())
+                .flights(List.of(flyResponse))
+                .build();
+        when(flyService.readRoutes("Mexico", "Grecia", 3, 5)).thenReturn(List.of(itinerary));
+
+        mockMvc.perform(get(uri)
+                        .param("origin", "Mexico")
+                        .param("destiny", "Grecia")
+                        .param("maxLegs", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].legs").value(1))
+                .andExpect(jsonPath("$[0].totalPrice").value(flyResponse.getPrice()))
+                .andExpect(jsonPath("$[0].flights[0].originName").value(flyResponse.getOriginName()))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("should return the flights departing near the coordinates")
+    void getNear() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "near";
+        when(flyService.readNear(90.0, 88.8888, 50.0)).thenReturn(List.of(flyResponse));
+
+        mockMvc.perform(get(uri)
+                        .param("lat", "99.9999")
+                        .param("lng", "88.8888")
+                        .param("radiusKm", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].originLat").value(flyResponse.getOriginLat()))
+                .andExpect(jsonPath("$[0].originName").value(flyResponse.getOriginName()))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("should wrap a longitude past the antimeridian")
+    void getNear_ShouldWrapLongitude() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "near";
+        when(flyService.readNear(10.0, -170.0, 100.0)).thenReturn(List.of(flyResponse));
+
+        mockMvc.perform(get(uri)
+                        .param("lat", "10")
+                        .param("lng", "190"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("should return a slice with the cursor of the next one")
+    void findSlice() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "slice";
+        SliceResponse<FlyResponse> slice = SliceResponse.<FlyResponse>builder()
+                .content(List.of(flyResponse))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("TE9XRVJ8MTAwfDE")
+                .build();
+        when(flyService.readSlice(1, "TE9XRVJ8NTB8Mg", SortType.LOWER)).thenReturn(slice);
+
+        mockMvc.perform(get(uri)
+                        .param("size", "1")
+                        .param("cursor", "TE9XRVJ8NTB8Mg")
+                        .header("sortType", "LOWER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(flyResponse.getId()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("TE9XRVJ8MTAwfDE"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("should stream the rows with price lower as ndjson")
+    void streamLessPrice() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "less_price/stream";
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(flyService).streamLessPrice(eq(BigDecimal.valueOf(120)), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(uri)
+                        .param("price", "120"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    @DisplayName("should return the flights matching the search with the facet counts")
+    void search() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "search";
+        FlySearchRequest request = FlySearchRequest.builder()
+                .minPrice(new BigDecimal("10"))
+                .maxPrice(new BigDecimal("50"))
+                .origin("Mexico")
+                .aeroLine(AeroLine.aero_gold)
+                .sortType(SortType.LOWER)
+                .build()
+                .normalized();
+        FlySearchResponse response = FlySearchResponse.builder()
+                .flights(List.of(flyResponse))
+                .total(1L)
+                .byAeroLine(Map.of(AeroLine.aero_gold, 1L))
+                .byPrice(Map.of(BigDecimal.ZERO, 1L))
+                .build();
+        when(flyService.search(request)).thenReturn(response);
+
+        mockMvc.perform(get(uri)
+                        .param("minPrice", "10.00")
+                        .param("maxPrice", "50")
+                        .param("origin", " Mexico ")
+                        .param("aeroLine", "aero_gold")
+                        .header("sortType", "LOWER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.flights[0].id").value(flyResponse.getId()))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.byAeroLine.aero_gold").value(1))
+                .andExpect(jsonPath("$.byPrice.0").value(1));
+    }
+}
@@ -0,0 +1,31 @@
+package com.alex.great_travel.api.controllers.status200;
+
+import com.alex.great_travel.infrastructure.services.ServiceSpec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// shares the context of the service tests, a second one would run the schema again on the same database
+class HealthStatus200Test extends ServiceSpec {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Test
+    @DisplayName("Should report the node ready without a token once the warm up is done")
+    void readiness_ShouldReturn200_WhenStarted() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}
@@ -4,9 +4,12 @@ import com.alex.great_travel.DummyData;
 import com.alex.great_travel.api.controllers.HotelController;
 import com.alex.great_travel.api.models.response.FlyResponse;
 import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.api.models.response.SliceResponse;
 import com.alex.great_travel.config.security.SecurityConfig;
 import com.alex.great_travel.infrastructure.abstractService.FlyService;
 import com.alex.great_travel.infrastructure.abstractService.HotelService;
+import com.alex.great_travel.infrastructure.helpers.CatalogResponseHelper;
+import com.alex.great_travel.infrastructure.helpers.CatalogVersionHelper;
 import com.alex.great_travel.infrastructure.services.security.UserDetailsServiceImpl;
 import com.alex.great_travel.util.SortType;
 import com.alex.great_travel.util.jwt.JwtUtils;
@@ -21,23 +24,36 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(HotelController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CatalogResponseHelper.class})
 class HotelControllerStatus200Test {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CatalogResponseHelper catalogResponseHelper;
+
     @MockitoBean
     private UserDetailsServiceImpl userDetailsServiceImpl;
 
@@ -49,10 +65,15 @@ class HotelControllerStatus200Test {
     @MockitoBean
     private HotelService hotelService;
 
+    @MockitoBean
+    private CatalogVersionHelper catalogVersionHelper;
+
     private HotelResponse hotelResponse;
 
     @BeforeEach
     void setUp() {
+        catalogResponseHelper.clear();
+        when(catalogVersionHelper.hotel()).thenReturn(new CatalogVersionHelper.Version(1, 1_700_000_000_000L));
         hotelResponse = HotelResponse.builder()
                 .id(1L)
                 .name("Hotel1")
@@ -124,4 +145,98 @@ class HotelControllerStatus200Test {
                 .andExpect(jsonPath("$[0].rating").value(hotelResponse.getRating()))
                 .andExpect(jsonPath("$.length()").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("should return a slice with the cursor of the next one")
+    void findSlice() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "slice";
+        SliceResponse<HotelResponse> slice = SliceResponse.<HotelResponse>builder()
+                .content(List.of(hotelResponse))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("TE9XRVJ8MTAwfDE")
+                .build();
+        when(hotelService.readSlice(1, "TE9XRVJ8NTB8Mg", SortType.LOWER)).thenReturn(slice);
+
+        mockMvc.perform(get(uri)
+                        .param("size", "1")
+                        .param("cursor", "TE9XRVJ8NTB8Mg")
+                        .header("sortType", "LOWER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(hotelResponse.getId()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("TE9XRVJ8MTAwfDE"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("should stream the rows with price lower as ndjson")
+    void streamLessPrice() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "less_price/stream";
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(hotelService).streamLessPrice(eq(BigDecimal.valueOf(120)), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(uri)
+                        .param("price", "120"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    @DisplayName("should return the hotels matching the rating and the prices")
+    void getByFilter() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "filter";
+        when(hotelService.readByFilter(4, BigDecimal.valueOf(90), BigDecimal.valueOf(120))).thenReturn(List.of(hotelResponse));
+
+        mockMvc.perform(get(uri)
+                        .param("minRating", "4")
+                        .param("min", "90")
+                        .param("max", "120"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(hotelResponse.getId()))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("should return the hotels with free rooms between the dates")
+    void getAvailable() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "available";
+        LocalDate checkIn = LocalDate.of(2030, 1, 10);
+        when(hotelService.readAvailable(checkIn, checkIn.plusDays(3))).thenReturn(List.of(hotelResponse));
+
+        mockMvc.perform(get(uri)
+                        .param("checkIn", "2030-01-10")
+                        .param("checkOut", "2030-01-13"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(hotelResponse.getId()));
+
+        mockMvc.perform(get(uri)
+                        .param("checkIn", "2030-01-13")
+                        .param("checkOut", "2030-01-10"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("should return the hotels matching the text with the limit clamped")
+    void search() throws Exception {
+        String uri = RESOURCE_PATH + "/" + "search";
+        when(hotelService.search("dorado", 50)).thenReturn(List.of(hotelResponse));
+
+        mockMvc.perform(get(uri)
+                        .param("q", "dorado")
+                        .param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(hotelResponse.getId()));
+
+        mockMvc.perform(get(uri).param("q", "nothing"))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -0,0 +1,94 @@
+package com.alex.great_travel.api.controllers.status200;
+
+import com.alex.great_travel.api.controllers.ImportController;
+import com.alex.great_travel.api.models.response.ImportResponse;
+import com.alex.great_travel.config.security.SecurityConfig;
+import com.alex.great_travel.infrastructure.abstractService.CatalogImportService;
+import com.alex.great_travel.infrastructure.services.security.UserDetailsServiceImpl;
+import com.alex.great_travel.util.ImportFormat;
+import com.alex.great_travel.util.jwt.JwtUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ImportController.class)
+@Import(SecurityConfig.class)
+class ImportControllerStatus200Test {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsServiceImpl;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private CatalogImportService catalogImportService;
+
+    private static final String RESOURCE_PATH = "/import";
+    private static final String ADMIN = "ADMIN";
+    private static final String CUSTOMER = "CUSTOMER";
+
+    @Test
+    @WithMockUser(roles = ADMIN)
+    @DisplayName("should import the flights of a csv body")
+    void importFlights() throws Exception {
+        ImportResponse response = ImportResponse.builder()
+                .read(2L)
+                .imported(1L)
+                .rejected(1L)
+                .errors(List.of("line 3: Price have to be positive"))
+                .build();
+        when(catalogImportService.importFlights(any(InputStream.class), eq(ImportFormat.CSV))).thenReturn(response);
+
+        mockMvc.perform(post(RESOURCE_PATH + "/fly")
+                        .contentType("text/csv")
+                        .content("originLat,originLng\n1,2\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0]").value("line 3: Price have to be positive"));
+    }
+
+    @Test
+    @WithMockUser(roles = ADMIN)
+    @DisplayName("should import the hotels of a ndjson body")
+    void importHotels() throws Exception {
+        when(catalogImportService.importHotels(any(InputStream.class), eq(ImportFormat.NDJSON)))
+                .thenReturn(ImportResponse.builder().read(1L).imported(1L).rejected(0L).errors(List.of()).build());
+
+        mockMvc.perform(post(RESOURCE_PATH + "/hotel")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"Hotel\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = CUSTOMER)
+    @DisplayName("should forbid the import to a customer")
+    void importFlights_ShouldBeForbidden_GivenCustomer() throws Exception {
+        mockMvc.perform(post(RESOURCE_PATH + "/fly")
+                        .contentType("text/csv")
+                        .content("originLat\n1\n"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(catalogImportService);
+    }
+}
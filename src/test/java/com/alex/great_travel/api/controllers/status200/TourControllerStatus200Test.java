@@ -25,6 +25,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.Set;
 import java.util.UUID;
 
@@ -159,14 +160,16 @@ class TourControllerStatus200Test {
     void postReservation_ShouldReturnReservationId() throws Exception {
         Integer totalDays = 3;
         Long hotelId = 5L;
+        LocalDate checkIn = LocalDate.now().plusDays(7);
         UUID expectedReservationId = UUID.fromString("33333333-3333-3333-3333-333333333333");
         String uri = String.format("%s/%d/add_reservation/%d", RESOURCE_PATH, tourId, hotelId);
 
-        when(tourService.addReservation(eq(tourId), eq(hotelId), eq(totalDays)))
+        when(tourService.addReservation(eq(tourId), eq(hotelId), eq(totalDays), eq(checkIn)))
                 .thenReturn(expectedReservationId);
 
         mockMvc.perform(patch(uri)
                         .param("totalDays", totalDays.toString())
+                        .param("checkIn", checkIn.toString())
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.ReservationId").value(expectedReservationId.toString()));
@@ -0,0 +1,78 @@
+package com.alex.great_travel.api.controllers.status400;
+
+import com.alex.great_travel.api.controllers.FlyController;
+import com.alex.great_travel.config.security.SecurityConfig;
+import com.alex.great_travel.infrastructure.abstractService.FlyService;
+import com.alex.great_travel.infrastructure.helpers.CatalogResponseHelper;
+import com.alex.great_travel.infrastructure.helpers.CatalogVersionHelper;
+import com.alex.great_travel.infrastructure.helpers.CatalogWarmUpHelper;
+import com.alex.great_travel.infrastructure.services.security.UserDetailsServiceImpl;
+import com.alex.great_travel.util.jwt.JwtUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(FlyController.class)
+@Import({SecurityConfig.class, CatalogResponseHelper.class})
+class FlyControllerStatus400Test {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsServiceImpl;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private FlyService flyService;
+
+    @MockitoBean
+    private CatalogWarmUpHelper catalogWarmUpHelper;
+
+    @MockitoBean
+    private CatalogVersionHelper catalogVersionHelper;
+
+    private static final String RESOURCE_PATH = "/fly";
+
+    @Test
+    @DisplayName("Should return 400 when a coordinate is not a finite number")
+    void getNear_ShouldReturn400_WhenCoordinateIsNotFinite() throws Exception {
+        mockMvc.perform(get(RESOURCE_PATH + "/near")
+                        .param("lat", "19.4")
+                        .param("lng", "NaN"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400))
+                .andExpect(jsonPath("$.message").value("Param lng with value NaN is not valid"));
+
+        mockMvc.perform(get(RESOURCE_PATH + "/near")
+                        .param("lat", "Infinity")
+                        .param("lng", "-99.1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flyService);
+    }
+
+    @Test
+    @DisplayName("Should return 400 when the min price is over the max price")
+    void search_ShouldReturn400_WhenMinPriceOverMaxPrice() throws Exception {
+        mockMvc.perform(get(RESOURCE_PATH + "/search")
+                        .param("minPrice", "50.00")
+                        .param("maxPrice", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400))
+                .andExpect(jsonPath("$.message").value("Param minPrice with value 50.00 over maxPrice 10 is not valid"));
+
+        verifyNoInteractions(flyService, catalogWarmUpHelper);
+    }
+}
@@ -0,0 +1,70 @@
+package com.alex.great_travel.api.controllers.status400;
+
+import com.alex.great_travel.api.controllers.ReservationController;
+import com.alex.great_travel.api.models.request.ReservationRequest;
+import com.alex.great_travel.config.security.SecurityConfig;
+import com.alex.great_travel.infrastructure.abstractService.ReservationService;
+import com.alex.great_travel.infrastructure.services.security.UserDetailsServiceImpl;
+import com.alex.great_travel.util.jwt.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReservationController.class)
+@Import(SecurityConfig.class)
+class ReservationControllerStatus400Test {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsServiceImpl;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final String RESOURCE_PATH = "/reservation";
+    private static final String CUSTOMER = "CUSTOMER";
+
+    @MockitoBean
+    private ReservationService reservationService;
+
+    @Test
+    @WithMockUser(roles = CUSTOMER)
+    @DisplayName("Should return 400 when the check in is past the booking horizon")
+    void post_ShouldReturn400_WhenCheckInPastHorizon() throws Exception {
+        ReservationRequest request = ReservationRequest.builder()
+                .clientId("VIKI771012HMCRG093")
+                .hotelId(1L)
+                .totalDays(3)
+                .checkIn(LocalDate.now().plusDays(ReservationRequest.BOOKING_HORIZON_DAYS + 1))
+                .build();
+
+        mockMvc.perform(post(RESOURCE_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400))
+                .andExpect(jsonPath("$.errors").isArray());
+        verify(reservationService, never()).create(any());
+    }
+}
@@ -1,6 +1,8 @@
 package com.alex.great_travel.api.controllers.status400;
 
 import com.alex.great_travel.api.controllers.TourController;
+import com.alex.great_travel.api.models.request.TourFlyRequest;
+import com.alex.great_travel.api.models.request.TourHotelRequest;
 import com.alex.great_travel.api.models.request.TourRequest;
 import com.alex.great_travel.config.security.SecurityConfig;
 import com.alex.great_travel.infrastructure.abstractService.TourService;
@@ -19,6 +21,8 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.eq;
@@ -67,6 +71,24 @@ class TourControllerStatus400Test {
                 .andExpect(jsonPath("$.errors").isArray());
     }
 
+    @Test
+    @WithMockUser(roles = CUSTOMER)
+    @DisplayName("Should return 400 when a hotel of the tour checks in the past")
+    void post_ShouldReturn400_WhenCheckInIsPast() throws Exception {
+        TourRequest invalidRequest = TourRequest.builder()
+                .customerId("VIKI771012HMCRG093")
+                .flights(Set.of(TourFlyRequest.builder().id(1L).build()))
+                .hotels(Set.of(TourHotelRequest.builder().id(1L).totalDays(2).checkIn(LocalDate.now().minusDays(1)).build()))
+                .build();
+
+        mockMvc.perform(post(RESOURCE_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalidRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors").isArray());
+        verifyNoInteractions(tourService);
+    }
+
     @Test
     @DisplayName(" Shoud return 400 when tour ID does not exist")
     @WithMockUser(roles = CUSTOMER)
@@ -0,0 +1,82 @@
+package com.alex.great_travel.config.cache;
+
+import com.alex.great_travel.api.models.response.CacheStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.EvictionMode;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.map.event.EntryExpiredListener;
+import org.redisson.api.map.event.MapEntryListener;
+import org.redisson.client.codec.Codec;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CatalogCacheManagerTest {
+
+    RMapCache<Object, Object> map;
+    CatalogCacheManager manager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        map = mock(RMapCache.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getMapCache(eq("flights"), any(Codec.class))).thenReturn(map);
+        manager = new CatalogCacheManager(redissonClient,
+                Map.of("flights", new CatalogCacheConfig(60, 30, 100, EvictionMode.LFU)), new CatalogCodec());
+    }
+
+    @Test
+    @DisplayName("Should read every limit of a cache from its properties")
+    void of_ShouldReadProperties() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cache.flights.ttl-seconds", "120")
+                .withProperty("cache.flights.max-entries", "0")
+                .withProperty("cache.flights.eviction", "LFU");
+
+        CatalogCacheConfig config = CatalogCacheConfig.of(environment, "flights");
+        CatalogCacheConfig defaults = CatalogCacheConfig.of(new StandardEnvironment(), "hotels");
+
+        assertEquals(120_000, config.getTTL());
+        assertEquals(CatalogCacheConfig.DEFAULT_MAX_IDLE_SECONDS * 1000, config.getMaxIdleTime());
+        assertEquals(0, config.getMaxSize());
+        assertEquals(EvictionMode.LFU, config.getEvictionMode());
+        assertEquals(EvictionMode.LRU, defaults.getEvictionMode());
+    }
+
+    @Test
+    @DisplayName("Should bound the cache with its eviction mode once and count the expired entries")
+    void getCache_ShouldConfigureEvictionAndCount() {
+        manager.getCache("flights");
+        manager.getCache("flights");
+
+        verify(map, times(1)).setMaxSize(100, EvictionMode.LFU);
+        ArgumentCaptor<MapEntryListener> listener = ArgumentCaptor.forClass(MapEntryListener.class);
+        verify(map, times(2)).addListener(listener.capture());
+        listener.getAllValues().stream()
+                .filter(EntryExpiredListener.class::isInstance)
+                .forEach(expired -> ((EntryExpiredListener<?, ?>) expired).onExpired(null));
+
+        when(map.size()).thenReturn(7);
+        when(map.sizeInMemory()).thenReturn(2048L);
+        List<CacheStatsResponse> stats = manager.stats();
+
+        assertEquals(1, stats.size());
+        assertEquals(7L, stats.get(0).getEntries());
+        assertEquals(2048L, stats.get(0).getMemoryBytes());
+        assertEquals(1L, stats.get(0).getExpired());
+        assertEquals(0L, stats.get(0).getRemoved());
+        assertEquals("LFU", stats.get(0).getEviction());
+    }
+}
@@ -0,0 +1,99 @@
+package com.alex.great_travel.config.cache;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.util.AeroLine;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.codec.MarshallingCodec;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCodecTest {
+
+    CatalogCodec codec = new CatalogCodec();
+
+    @Test
+    @DisplayName("Should read back the same search response and key")
+    void roundTrip_ShouldKeepValues() throws IOException {
+        FlySearchResponse search = search(3);
+        search.getFlights().get(1).setOriginLat(null);
+        search.getFlights().get(2).setAeroLine(null);
+
+        assertEquals(search, roundTrip(search));
+        assertEquals("search:null:50:Mexico", roundTrip("search:null:50:Mexico"));
+        assertEquals(new FlySearchResponse(), roundTrip(new FlySearchResponse()));
+    }
+
+    @Test
+    @DisplayName("Should compress large responses and keep other values through the fallback")
+    void encode_ShouldCompressLargeAndFallBack() throws IOException {
+        FlySearchResponse large = search(100);
+        ByteBuf encoded = codec.getValueEncoder().encode(large);
+        try {
+            assertEquals(CatalogCodec.FLY_SEARCH, encoded.getByte(0));
+            assertEquals(large, codec.getValueDecoder().decode(encoded, null));
+        } finally {
+            encoded.release();
+        }
+
+        FlySearchResponse huge = search(1);
+        huge.getFlights().get(0).setPrice(new BigDecimal("1e40"));
+        assertEquals(huge, roundTrip(huge));
+        assertEquals(List.of(1L, 2L), roundTrip(new ArrayList<>(List.of(1L, 2L))));
+    }
+
+    @Test
+    @DisplayName("Should encode a search response in fewer bytes than the default codec")
+    void encode_ShouldBeSmallerThanDefaultCodec() throws IOException {
+        FlySearchResponse search = search(20);
+        assertTrue(size(new CatalogCodec(), search) * 2 < size(new MarshallingCodec(), search));
+    }
+
+    private Object roundTrip(Object value) throws IOException {
+        ByteBuf encoded = codec.getValueEncoder().encode(value);
+        try {
+            return codec.getValueDecoder().decode(encoded, null);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    private static int size(org.redisson.client.codec.Codec codec, Object value) throws IOException {
+        ByteBuf encoded = codec.getValueEncoder().encode(value);
+        try {
+            return encoded.readableBytes();
+        } finally {
+            encoded.release();
+        }
+    }
+
+    private static FlySearchResponse search(int size) {
+        String[] cities = {"Mexico", "Grecia", "Peru", "Colombia", "Canada"};
+        List<FlyResponse> flights = new ArrayList<>();
+        Map<AeroLine, Long> byAeroLine = new EnumMap<>(AeroLine.class);
+        Map<BigDecimal, Long> byPrice = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            AeroLine aeroLine = AeroLine.values()[i % AeroLine.values().length];
+            BigDecimal price = BigDecimal.valueOf(1000 + i * 137L, 2);
+            flights.add(FlyResponse.builder()
+                    .id((long) i + 1)
+                    .originLat(19.43 + i).originLng(-99.13 - i).destinyLat(37.98).destinyLng(23.72)
+                    .originName(cities[i % cities.length]).destinyName(cities[(i + 1) % cities.length])
+                    .price(price).aeroLine(aeroLine)
+                    .build());
+            byAeroLine.merge(aeroLine, 1L, Long::sum);
+            byPrice.merge(BigDecimal.valueOf(i / 4 * 50L), 1L, Long::sum);
+        }
+        return new FlySearchResponse(flights, (long) size, byAeroLine, byPrice);
+    }
+}
@@ -0,0 +1,78 @@
+package com.alex.great_travel.config.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EntityCacheStorageTest {
+
+    Cache<Object, Object> cache;
+    EntityCacheStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        cache = mock(Cache.class);
+        when(cache.getName()).thenReturn("entity-cache:fly");
+        storage = new EntityCacheStorage(cache, new CircuitBreaker(3, 1_000, 60_000));
+    }
+
+    @Test
+    @DisplayName("Should clear the region right after a missed write")
+    void putIntoCache_ShouldClearRegion_AfterMissedWrite() {
+        doThrow(new CacheException("down")).when(cache).put(1L, "fly 1 updated");
+
+        storage.putIntoCache(1L, "fly 1 updated", null);
+
+        verify(cache).clear();
+        assertNull(storage.getFromCache(1L, null));
+        verify(cache).get(1L);
+    }
+
+    @Test
+    @DisplayName("Should read as empty after a missed write until the region is cleared once redis is back")
+    void getFromCache_ShouldMiss_AfterMissedWrite() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(2, 1_000, 1_000, now::get);
+        storage = new EntityCacheStorage(cache, breaker);
+        Cache<Object, Object> other = mock(Cache.class);
+        EntityCacheStorage otherRegion = new EntityCacheStorage(other, breaker);
+        when(cache.get(1L)).thenReturn("fly 1");
+        doThrow(new CacheException("down")).when(cache).put(1L, "fly 1 updated");
+        doThrow(new CacheException("down")).doNothing().when(cache).clear();
+
+        storage.putIntoCache(1L, "fly 1 updated", null);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertNull(storage.getFromCache(1L, null));
+        verify(cache, never()).get(1L);
+
+        // the probe of another region closes the breaker, this region is cleared before it is read
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        otherRegion.getFromCache(2L, null);
+        verify(cache, times(2)).clear();
+        assertEquals("fly 1", storage.getFromCache(1L, null));
+        verify(cache, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Should skip the cache while the redis breaker is open")
+    void getFromCache_ShouldSkipCache_WhenBreakerOpen() {
+        when(cache.get(anyLong())).thenThrow(new CacheException("down"));
+
+        assertNull(storage.getFromCache(1L, null));
+        assertNull(storage.getFromCache(2L, null));
+        assertNull(storage.getFromCache(3L, null));
+        assertNull(storage.getFromCache(4L, null));
+        assertFalse(storage.contains(4L));
+
+        verify(cache, times(3)).get(anyLong());
+        verify(cache, never()).containsKey(any());
+    }
+}
@@ -0,0 +1,197 @@
+package com.alex.great_travel.config.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RTopic;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheManagerTest {
+
+    ConcurrentMapCacheManager shared;
+    RTopic topic;
+    TwoLevelCacheManager manager;
+
+    @BeforeEach
+    void setUp() {
+        shared = new ConcurrentMapCacheManager("flights");
+        topic = mock(RTopic.class);
+        manager = new TwoLevelCacheManager(shared, topic, 2, 60_000, new CircuitBreaker(3, 1_000, 10_000));
+    }
+
+    @Test
+    @DisplayName("Should serve a shared entry from the local level once read")
+    void get_ShouldKeepSharedEntryLocally() {
+        shared.getCache("flights").put("k", "v");
+        Cache cache = manager.getCache("flights");
+
+        assertEquals("v", cache.get("k", String.class));
+        shared.getCache("flights").evict("k");
+        assertEquals("v", cache.get("k", String.class));
+        assertNull(manager.getCache("unknown"));
+    }
+
+    @Test
+    @DisplayName("Should write both levels and announce the key to the other nodes")
+    void put_ShouldPublishInvalidation() {
+        Cache cache = manager.getCache("flights");
+        cache.put("k", "v");
+
+        assertEquals("v", shared.getCache("flights").get("k").get());
+        ArgumentCaptor<CacheInvalidation> message = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(topic).publish(message.capture());
+        assertEquals("flights", message.getValue().getCacheName());
+        assertEquals("k", message.getValue().getKey());
+
+        cache.clear();
+        verify(topic, times(2)).publish(any());
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    @DisplayName("Should drop the local entry on a message of another node only")
+    void onInvalidation_ShouldIgnoreOwnMessages() {
+        Cache cache = manager.getCache("flights");
+        cache.put("k", "v");
+        ArgumentCaptor<CacheInvalidation> own = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(topic).publish(own.capture());
+
+        shared.getCache("flights").put("k", "new");
+        manager.onInvalidation(own.getValue());
+        assertEquals("v", cache.get("k", String.class));
+
+        manager.onInvalidation(new CacheInvalidation("other node", "flights", "k"));
+        assertEquals("new", cache.get("k", String.class));
+    }
+
+    @Test
+    @DisplayName("A load invalidated meanwhile should be returned but kept out of both levels")
+    void get_ShouldNotKeepStaleLoad() {
+        Cache cache = manager.getCache("flights");
+
+        assertEquals("old", cache.get("k", () -> {
+            manager.onInvalidation(new CacheInvalidation("other node", "flights", "k"));
+            return "old";
+        }));
+        assertNull(shared.getCache("flights").get("k"));
+        assertEquals("new", cache.get("k", () -> "new"));
+        assertEquals("new", shared.getCache("flights").get("k").get());
+    }
+
+    @Test
+    @DisplayName("Concurrent misses of one key should run the loader once")
+    void get_ShouldShareOneLoad_GivenConcurrentMisses() throws Exception {
+        // the no op shared cache runs every loader it gets, only the local level can share the load
+        Cache cache = new TwoLevelCacheManager(new NoOpCacheManager(), topic, 2, 60_000, new CircuitBreaker(3, 1_000, 10_000))
+                .getCache("flights");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            release.await();
+            return "v";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("k", loader)));
+            started.await();
+            for (int i = 0; i < 7; i++) results.add(executor.submit(() -> cache.get("k", loader)));
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) assertEquals("v", result.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should serve the local level while redis fails and clear the missed writes once it is back")
+    @SuppressWarnings("unchecked")
+    void get_ShouldDegradeToLocal_GivenRedisDown() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(2, 500, 1_000, now::get);
+        Cache sharedCache = mock(Cache.class);
+        CacheManager sharedManager = mock(CacheManager.class);
+        when(sharedManager.getCache("flights")).thenReturn(sharedCache);
+        when(sharedCache.get(any(), any(Callable.class))).thenThrow(new IllegalStateException("redis down"));
+        Cache cache = new TwoLevelCacheManager(sharedManager, topic, 10, 60_000, breaker).getCache("flights");
+
+        assertEquals("A", cache.get("a", () -> "A"));
+        assertEquals("B", cache.get("b", () -> "B"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        cache.put("c", "C");
+        assertEquals("C", cache.get("c", () -> "other"));
+        verify(sharedCache, times(2)).get(any(), any(Callable.class));
+        verify(sharedCache, never()).put(any(), any());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        doAnswer(invocation -> invocation.getArgument(1, Callable.class).call()).when(sharedCache).get(any(), any(Callable.class));
+        assertEquals("D", cache.get("d", () -> "D"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        verify(sharedCache).clear();
+    }
+
+    @Test
+    @DisplayName("Slow calls should open the breaker and a failed probe should open it again")
+    void breaker_ShouldOpenOnSlowCalls() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(2, 500, 1_000, now::get);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.allows());
+            long start = breaker.start();
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+            breaker.success(start);
+        }
+        assertFalse(breaker.allows());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(breaker.allows());
+        assertFalse(breaker.allows());
+        breaker.failure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    @DisplayName("Local level should drop the least recent and the expired entries")
+    void localCache_ShouldBeBoundedBySizeAndTime() {
+        AtomicLong now = new AtomicLong();
+        LocalCache local = new LocalCache(2, 100, now::get);
+        local.put("a", new SimpleValueWrapper(1));
+        local.put("b", new SimpleValueWrapper(2));
+        local.get("a");
+        local.put("c", new SimpleValueWrapper(3));
+
+        assertNull(local.get("b"));
+        assertEquals(1, local.get("a").get());
+        assertEquals(2, local.size());
+
+        now.addAndGet(100);
+        assertNull(local.get("a"));
+        assertNull(local.get("c"));
+    }
+}
@@ -1,20 +1,40 @@
 package com.alex.great_travel.domain.repositories;
 
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.api.models.response.FlyResponse;
 import com.alex.great_travel.domain.entities.FlyEntity;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.SortType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@RecordApplicationEvents
 class FlyRepositoryTest extends RepositorySpec{
 
     @Autowired
     FlyRepository flyRepository;
 
+    @Autowired
+    ApplicationEvents events;
+
     @Test
     @DisplayName("Should return all flights given less price")
     void selectLessPrice_ShouldReturnSetflights_GivenLessPrice() {
@@ -43,4 +63,105 @@ class FlyRepositoryTest extends RepositorySpec{
         int expectedElements = 2;
         assertEquals(expectedElements, flights.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return a sorted page of flight responses")
+    void selectAllResponses_ShouldReturnSortedPage() {
+        Page<FlyResponse> page = this.flyRepository.selectAllResponses(PageRequest.of(0, 5, Sort.by("price").ascending()));
+        assertEquals(5, page.getContent().size());
+        assertEquals(this.flyRepository.count(), page.getTotalElements());
+        for (int i = 1; i < page.getContent().size(); i++) {
+            assertTrue(page.getContent().get(i - 1).getPrice().compareTo(page.getContent().get(i).getPrice()) <= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should walk every row once seeking from the last price and id")
+    void selectResponsesAfterPrice_ShouldWalkAllRowsInOrder() {
+        List<FlyResponse> walked = new ArrayList<>(this.flyRepository.selectFirstResponses(
+                Sort.by("price", "id").ascending(), Limit.of(3)));
+        List<FlyResponse> next = walked;
+        while (!next.isEmpty()) {
+            FlyResponse last = walked.get(walked.size() - 1);
+            next = this.flyRepository.selectResponsesAfterPrice(last.getPrice(), last.getId(), Limit.of(3));
+            walked.addAll(next);
+        }
+
+        List<Long> expected = this.flyRepository.selectAllResponses().stream()
+                .sorted(Comparator.comparing(FlyResponse::getPrice).thenComparing(FlyResponse::getId))
+                .map(FlyResponse::getId)
+                .toList();
+        assertEquals(expected, walked.stream().map(FlyResponse::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should return the rows after the id in id order")
+    void selectResponsesAfterId_ShouldReturnNextIds() {
+        List<Long> ids = this.flyRepository.selectResponsesAfterId(2L, Limit.of(3)).stream().map(FlyResponse::getId).toList();
+        assertEquals(List.of(3L, 4L, 5L), ids);
+    }
+
+    @Test
+    @DisplayName("Should return the next rows in descending price order given the last price and id")
+    void selectResponsesBeforePrice_ShouldReturnNextRowsDescending() {
+        List<FlyResponse> first = this.flyRepository.selectFirstResponses(Sort.by("price", "id").descending(), Limit.of(2));
+        FlyResponse last = first.get(1);
+        List<FlyResponse> next = this.flyRepository.selectResponsesBeforePrice(last.getPrice(), last.getId(), Limit.of(4));
+
+        assertEquals(4, next.size());
+        assertTrue(next.stream().noneMatch(row -> first.stream().anyMatch(seen -> seen.getId().equals(row.getId()))));
+        assertTrue(next.get(0).getPrice().compareTo(last.getPrice()) <= 0);
+    }
+
+    @Test
+    @DisplayName("Should return the flights matching every filter with sideways facet counts")
+    void search_ShouldApplyFiltersAndCountFacets() {
+        FlySearchRequest request = FlySearchRequest.builder()
+                .origin("Mexico")
+                .maxPrice(BigDecimal.valueOf(30))
+                .aeroLine(AeroLine.blue_sky)
+                .sortType(SortType.LOWER)
+                .build()
+                .normalized();
+
+        List<FlyResponse> flights = this.flyRepository.search(request);
+
+        assertEquals(List.of(new BigDecimal("14.65"), new BigDecimal("25.65")),
+                flights.stream().map(fly -> fly.getPrice().setScale(2)).toList());
+        assertEquals(Map.of(AeroLine.aero_gold, 1L, AeroLine.blue_sky, 2L), this.flyRepository.countByAeroLine(request));
+        assertEquals(Map.of(BigDecimal.ZERO, 3L), this.flyRepository.countByPriceBucket(request, BigDecimal.valueOf(50)));
+    }
+
+    @Test
+    @DisplayName("Should count every flight by price bucket when there are no filters")
+    void countByPriceBucket_ShouldCountAllFlights_GivenNoFilters() {
+        FlySearchRequest request = FlySearchRequest.builder().build().normalized();
+
+        assertEquals(Map.of(BigDecimal.ZERO, 14L, BigDecimal.valueOf(50), 1L),
+                this.flyRepository.countByPriceBucket(request, BigDecimal.valueOf(50)));
+        assertEquals(15, this.flyRepository.search(request.toBuilder().limit(100).build()).size());
+    }
+
+    @Test
+    @DisplayName("Should publish a change event when a flight is saved and removed")
+    void save_ShouldPublishFlyChangeEvents() {
+        FlyEntity fly = this.flyRepository.save(FlyEntity.builder()
+                .originLat(10.0)
+                .originLng(20.0)
+                .destinyLat(30.0)
+                .destinyLng(40.0)
+                .originName("Mexico")
+                .destinyName("Peru")
+                .aeroLine(AeroLine.blue_sky)
+                .price(new BigDecimal("99.90"))
+                .build());
+        this.flyRepository.delete(fly);
+        this.flyRepository.flush();
+
+        List<FlyChangeEvent> changes = this.events.stream(FlyChangeEvent.class).toList();
+        assertEquals(2, changes.size());
+        assertEquals(ChangeType.SAVED, changes.get(0).getType());
+        assertEquals(fly.getId(), changes.get(0).getFly().getId());
+        assertEquals(ChangeType.REMOVED, changes.get(1).getType());
+    }
+}
@@ -1,12 +1,19 @@
 package com.alex.great_travel.domain.repositories;
 
-import com.alex.great_travel.domain.entities.FlyEntity;
+import com.alex.great_travel.api.models.response.HotelResponse;
 import com.alex.great_travel.domain.entities.HotelEntity;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,4 +49,60 @@ class HotelRepositoryTest extends RepositorySpec{
         int expectedElements = 8;
         assertEquals(expectedElements, hotels.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return a sorted page of hotel responses")
+    void selectAllResponses_ShouldReturnSortedPage() {
+        Page<HotelResponse> page = this.hotelRepository.selectAllResponses(PageRequest.of(0, 5, Sort.by("price").descending()));
+        assertEquals(5, page.getContent().size());
+        assertEquals(this.hotelRepository.count(), page.getTotalElements());
+        for (int i = 1; i < page.getContent().size(); i++) {
+            assertTrue(page.getContent().get(i - 1).getPrice().compareTo(page.getContent().get(i).getPrice()) >= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should walk every row once seeking from the last price and id")
+    void selectResponsesAfterPrice_ShouldWalkAllRowsInOrder() {
+        List<HotelResponse> walked = new ArrayList<>(this.hotelRepository.selectFirstResponses(
+                Sort.by("price", "id").ascending(), Limit.of(3)));
+        List<HotelResponse> next = walked;
+        while (!next.isEmpty()) {
+            HotelResponse last = walked.get(walked.size() - 1);
+            next = this.hotelRepository.selectResponsesAfterPrice(last.getPrice(), last.getId(), Limit.of(3));
+            walked.addAll(next);
+        }
+
+        List<Long> expected = this.hotelRepository.selectAllResponses().stream()
+                .sorted(Comparator.comparing(HotelResponse::getPrice).thenComparing(HotelResponse::getId))
+                .map(HotelResponse::getId)
+                .toList();
+        assertEquals(expected, walked.stream().map(HotelResponse::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should return the rows after the id in id order")
+    void selectResponsesAfterId_ShouldReturnNextIds() {
+        List<Long> ids = this.hotelRepository.selectResponsesAfterId(2L, Limit.of(3)).stream().map(HotelResponse::getId).toList();
+        assertEquals(List.of(3L, 4L, 5L), ids);
+    }
+
+    @Test
+    @DisplayName("Should return the next rows in descending price order given the last price and id")
+    void selectResponsesBeforePrice_ShouldReturnNextRowsDescending() {
+        List<HotelResponse> first = this.hotelRepository.selectFirstResponses(Sort.by("price", "id").descending(), Limit.of(2));
+        HotelResponse last = first.get(1);
+        List<HotelResponse> next = this.hotelRepository.selectResponsesBeforePrice(last.getPrice(), last.getId(), Limit.of(4));
+
+        assertEquals(4, next.size());
+        assertTrue(next.stream().noneMatch(row -> first.stream().anyMatch(seen -> seen.getId().equals(row.getId()))));
+        assertTrue(next.get(0).getPrice().compareTo(last.getPrice()) <= 0);
+    }
+
+    @Test
+    @DisplayName("Should lock and return the hotel row given its id")
+    void lockById_ShouldReturnHotel() {
+        assertEquals(1L, this.hotelRepository.lockById(1L).orElseThrow().getId());
+        assertTrue(this.hotelRepository.lockById(404L).isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.CatalogChangeMessage;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.domain.events.HotelChangeEvent;
+import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.Tables;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CatalogChangeRelayHelperTest {
+
+    RTopic topic;
+    ApplicationEventPublisher publisher;
+    CatalogVersionHelper catalogVersionHelper;
+    CatalogChangeRelayHelper helper;
+
+    FlyResponse fly;
+
+    @BeforeEach
+    void setUp() {
+        topic = mock(RTopic.class);
+        publisher = mock(ApplicationEventPublisher.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(eq(RedisConfig.CacheConstants.CATALOG_CHANGE_TOPIC), any(Codec.class))).thenReturn(topic);
+        catalogVersionHelper = mock(CatalogVersionHelper.class);
+        when(catalogVersionHelper.fly()).thenReturn(new CatalogVersionHelper.Version(42, 0));
+        helper = new CatalogChangeRelayHelper(redissonClient, publisher, catalogVersionHelper);
+        fly = FlyResponse.builder().id(7L).originName("Mexico").destinyName("Peru")
+                .price(new BigDecimal("99.50")).aeroLine(AeroLine.blue_sky).build();
+    }
+
+    @Test
+    @DisplayName("Should send the local changes and publish the ones of other nodes as remote events")
+    void onChange_ShouldRelayBetweenNodes() {
+        helper.onChange(new FlyChangeEvent(ChangeType.SAVED, fly));
+        helper.onChange(new HotelChangeEvent(ChangeType.REMOVED, HotelResponse.builder().id(3L).build(), true));
+
+        ArgumentCaptor<CatalogChangeMessage> sent = ArgumentCaptor.forClass(CatalogChangeMessage.class);
+        verify(topic, times(1)).publish(sent.capture());
+        assertEquals(fly, sent.getValue().getFly());
+        assertEquals(42L, sent.getValue().getVersion());
+
+        helper.onMessage(sent.getValue());
+        verifyNoInteractions(publisher);
+
+        sent.getValue().setOrigin("other node");
+        helper.onMessage(sent.getValue());
+        ArgumentCaptor<FlyChangeEvent> received = ArgumentCaptor.forClass(FlyChangeEvent.class);
+        InOrder patchedFirst = inOrder(publisher, catalogVersionHelper);
+        patchedFirst.verify(publisher).publishEvent(received.capture());
+        patchedFirst.verify(catalogVersionHelper).onRemoteFly(42L);
+        assertTrue(received.getValue().isRemote());
+        assertEquals(ChangeType.SAVED, received.getValue().getType());
+        assertEquals(fly, received.getValue().getFly());
+    }
+
+    @Test
+    @DisplayName("Should send an import as one rebuild and rebuild the catalog on the other nodes")
+    void onRebuild_ShouldRebuildOnEveryNode() {
+        helper.onRebuild(new CatalogRebuildEvent(Tables.fly));
+        helper.onRebuild(new CatalogRebuildEvent(Tables.hotel, true));
+        helper.onRebuild(new CatalogRebuildEvent(Tables.hotel, false, true));
+
+        ArgumentCaptor<CatalogChangeMessage> sent = ArgumentCaptor.forClass(CatalogChangeMessage.class);
+        verify(topic, times(1)).publish(sent.capture());
+        assertEquals(Tables.fly, sent.getValue().getRebuilt());
+        assertNull(sent.getValue().getFly());
+        assertEquals(42L, sent.getValue().getVersion());
+
+        sent.getValue().setOrigin("other node");
+        helper.onMessage(sent.getValue());
+        verify(catalogVersionHelper).onRemoteFly(42L);
+        ArgumentCaptor<CatalogRebuildEvent> received = ArgumentCaptor.forClass(CatalogRebuildEvent.class);
+        verify(publisher).publishEvent(received.capture());
+        assertEquals(Tables.fly, received.getValue().getCatalog());
+        assertTrue(received.getValue().isRemote());
+    }
+
+    @Test
+    @DisplayName("A change message should keep every value through the topic codec")
+    void message_ShouldRoundTripThroughCodec() throws Exception {
+        TypedJsonJacksonCodec codec = new TypedJsonJacksonCodec(CatalogChangeMessage.class);
+        CatalogChangeMessage message = new CatalogChangeMessage("node", ChangeType.SAVED, fly, fly, null, 42L, null);
+
+        ByteBuf encoded = codec.getValueEncoder().encode(message);
+        try {
+            assertEquals(message, codec.getValueDecoder().decode(encoded, null));
+        } finally {
+            encoded.release();
+        }
+    }
+}
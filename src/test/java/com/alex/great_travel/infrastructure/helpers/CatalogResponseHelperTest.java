@@ -0,0 +1,153 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.util.Tables;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogResponseHelperTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    CatalogVersionHelper catalogVersionHelper;
+    CatalogResponseHelper helper;
+
+    List<FlyResponse> flights;
+    AtomicInteger queries = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        catalogVersionHelper = mock(CatalogVersionHelper.class);
+        when(catalogVersionHelper.fly()).thenReturn(new CatalogVersionHelper.Version(7, 1_700_000_000_000L));
+        when(catalogVersionHelper.hotel()).thenReturn(new CatalogVersionHelper.Version(3, 1_700_000_000_000L));
+        helper = new CatalogResponseHelper(objectMapper, catalogVersionHelper);
+        ReflectionTestUtils.setField(helper, "maxBytes", 1_000_000L);
+        flights = LongStream.rangeClosed(1, 40)
+                .mapToObj(id -> FlyResponse.builder().id(id).originName("Mexico").destinyName("Peru")
+                        .price(BigDecimal.valueOf(id * 10)).build())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should encode a read once and send it gzipped only to the clients accepting gzip")
+    void fly_ShouldReuseEncodedBody() throws Exception {
+        ResponseEntity<byte[]> plain = helper.fly("less_price:50", request(null), this::query);
+        ResponseEntity<byte[]> gzipped = helper.fly("less_price:50", request("br, gzip;q=0.8"), this::query);
+
+        assertEquals(1, queries.get());
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(objectMapper.writeValueAsBytes(flights), plain.getBody());
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(plain.getBody(), input.readAllBytes());
+        }
+        assertTrue(gzipped.getBody().length < plain.getBody().length);
+    }
+
+    @Test
+    @DisplayName("Should drop the bodies of a catalog when it changes and answer no content for empty reads")
+    void onChange_ShouldDropCatalogBodies() {
+        helper.fly("less_price:50", request(null), this::query);
+        helper.hotel("rating:4", request(null), () -> List.of(HotelResponse.builder().id(1L).build()));
+
+        helper.onChange(new FlyChangeEvent(ChangeType.SAVED, flights.get(0)));
+        helper.fly("less_price:50", request(null), this::query);
+        ResponseEntity<byte[]> hotels = helper.hotel("rating:4", request(null), List::of);
+        ResponseEntity<byte[]> empty = helper.hotel("rating:5", request(null), List::of);
+
+        assertEquals(2, queries.get());
+        assertEquals(HttpStatus.OK, hotels.getStatusCode());
+        assertEquals(HttpStatus.NO_CONTENT, empty.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should drop the bodies of an imported catalog only")
+    void onRebuild_ShouldDropImportedCatalogBodies() {
+        helper.fly("less_price:50", request(null), this::query);
+        helper.hotel("rating:4", request(null), () -> List.of(HotelResponse.builder().id(1L).build()));
+
+        helper.onRebuild(new CatalogRebuildEvent(Tables.fly));
+        helper.fly("less_price:50", request(null), this::query);
+        helper.hotel("rating:4", request(null), () -> {
+            throw new AssertionError("hotel body dropped");
+        });
+
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    @DisplayName("Should answer not modified without reading while the catalog keeps its version")
+    void fly_ShouldAnswerNotModified() {
+        ResponseEntity<byte[]> first = helper.fly("less_price:50", request(null), this::query);
+        String eTag = first.getHeaders().getETag();
+
+        MockHttpServletRequest again = new MockHttpServletRequest("GET", "/fly/less_price");
+        again.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        ResponseEntity<byte[]> notModified = helper.fly("less_price:50", new ServletWebRequest(again), this::fail);
+        ResponseEntity<byte[]> other = helper.fly("less_price:60", request(null), this::query);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(eTag, notModified.getHeaders().getETag());
+        assertNotEquals(eTag, other.getHeaders().getETag());
+        assertEquals(1_700_000_000_000L, first.getHeaders().getLastModified());
+
+        when(catalogVersionHelper.fly()).thenReturn(new CatalogVersionHelper.Version(8, 1_700_000_001_000L));
+        ResponseEntity<byte[]> changed = helper.fly("less_price:50", new ServletWebRequest(again), this::query);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    @DisplayName("Should refuse gzip when its quality is zero")
+    void acceptsGzip_ShouldFollowQuality() {
+        assertTrue(CatalogResponseHelper.acceptsGzip("gzip, deflate"));
+        assertFalse(CatalogResponseHelper.acceptsGzip("gzip;q=0"));
+        assertFalse(CatalogResponseHelper.acceptsGzip("identity"));
+        assertEquals("50", CatalogResponseHelper.plain(new BigDecimal("50.00")));
+    }
+
+    @Test
+    @DisplayName("Should keep reads with a separator in their parameters apart")
+    void key_ShouldEncodeParameters() {
+        assertNotEquals(CatalogResponseHelper.key("origin_destiny", "a:b", "c"),
+                CatalogResponseHelper.key("origin_destiny", "a", "b:c"));
+        assertEquals("between_price:50:", CatalogResponseHelper.key("between_price", new BigDecimal("50.00"), null));
+    }
+
+    private static ServletWebRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/fly/less_price");
+        if (acceptEncoding != null) request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return new ServletWebRequest(request);
+    }
+
+    private List<FlyResponse> fail() {
+        throw new AssertionError("read while not modified");
+    }
+
+    private List<FlyResponse> query() {
+        queries.incrementAndGet();
+        return flights;
+    }
+}
@@ -0,0 +1,81 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.util.Tables;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogVersionHelperTest {
+
+    RAtomicLong counter;
+    CatalogVersionHelper helper;
+
+    FlyResponse fly = FlyResponse.builder().id(1L).build();
+
+    @BeforeEach
+    void setUp() {
+        counter = mock(RAtomicLong.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getAtomicLong(anyString())).thenReturn(counter);
+        helper = new CatalogVersionHelper(redissonClient);
+    }
+
+    @Test
+    @DisplayName("Should take the shared counter and bump it on local changes only")
+    void onChange_ShouldBumpSharedCounter() {
+        when(counter.get()).thenReturn(10L);
+        when(counter.incrementAndGet()).thenReturn(11L);
+        helper.load();
+
+        helper.onChange(new FlyChangeEvent(ChangeType.SAVED, fly, null, true));
+        assertEquals(10L, helper.fly().number());
+
+        helper.onChange(new FlyChangeEvent(ChangeType.SAVED, fly));
+        assertEquals(11L, helper.fly().number());
+        assertEquals(10L, helper.hotel().number());
+
+        helper.onRemoteFly(20L);
+        assertEquals(20L, helper.fly().number());
+        helper.onRemoteFly(5L);
+        assertEquals(21L, helper.fly().number());
+    }
+
+    @Test
+    @DisplayName("Should bump the version of an imported or rebuilt catalog but not of a relayed one")
+    void onRebuild_ShouldBumpCatalog() {
+        when(counter.get()).thenReturn(10L);
+        when(counter.incrementAndGet()).thenReturn(11L, 12L);
+        helper.load();
+
+        helper.onRebuild(new CatalogRebuildEvent(Tables.hotel));
+        helper.onRebuild(new CatalogRebuildEvent(Tables.hotel, true));
+        assertEquals(11L, helper.hotel().number());
+        assertEquals(10L, helper.fly().number());
+
+        helper.onRebuild(new CatalogRebuildEvent(Tables.fly, false, true));
+        assertEquals(12L, helper.fly().number());
+    }
+
+    @Test
+    @DisplayName("Should bump past any shared number while redis is down")
+    void onChange_ShouldBumpLocallyWhenRedisFails() {
+        when(counter.get()).thenReturn(10L);
+        helper.load();
+        when(counter.incrementAndGet()).thenThrow(new RedisConnectionException("down"));
+
+        long before = System.currentTimeMillis() * 1000;
+        helper.onChange(new FlyChangeEvent(ChangeType.SAVED, fly));
+
+        assertTrue(helper.fly().number() >= before);
+    }
+}
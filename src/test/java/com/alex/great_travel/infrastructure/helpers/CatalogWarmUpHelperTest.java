@@ -0,0 +1,99 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.infrastructure.abstractService.FlyService;
+import com.alex.great_travel.infrastructure.indexes.FlyCatalogIndex;
+import com.alex.great_travel.infrastructure.indexes.HotelCatalogIndex;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
+import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.Tables;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CatalogWarmUpHelperTest {
+
+    RScoredSortedSet<FlySearchRequest> hits;
+    FlyService flyService;
+    FlyCatalogIndex flyCatalogIndex;
+    HotelCatalogIndex hotelCatalogIndex;
+    ApplicationEventPublisher publisher;
+    CatalogWarmUpHelper helper;
+
+    FlySearchRequest cheapMexico;
+    FlySearchRequest blueSkyPeru;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        hits = mock(RScoredSortedSet.class);
+        flyService = mock(FlyService.class);
+        flyCatalogIndex = mock(FlyCatalogIndex.class);
+        hotelCatalogIndex = mock(HotelCatalogIndex.class);
+        publisher = mock(ApplicationEventPublisher.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.<FlySearchRequest>getScoredSortedSet(eq(CatalogWarmUpHelper.SEARCH_HITS), any(Codec.class))).thenReturn(hits);
+        helper = new CatalogWarmUpHelper(flyService, flyCatalogIndex, hotelCatalogIndex, mock(RoomInventory.class), redissonClient,
+                mock(IdFilterHelper.class), publisher);
+        ReflectionTestUtils.setField(helper, "searches", 10);
+        ReflectionTestUtils.setField(helper, "threads", 2);
+
+        cheapMexico = FlySearchRequest.builder().origin("Mexico").maxPrice(BigDecimal.valueOf(50)).build().normalized();
+        blueSkyPeru = FlySearchRequest.builder().destiny("Peru").aeroLine(AeroLine.blue_sky).build().normalized();
+    }
+
+    @Test
+    @DisplayName("Should add the searches counted since the last flush to the shared hits")
+    void flush_ShouldAddCountedHits() {
+        helper.record(cheapMexico);
+        helper.record(cheapMexico);
+        helper.record(blueSkyPeru);
+
+        helper.flush();
+        helper.flush();
+
+        verify(hits).addScore(cheapMexico, 2L);
+        verify(hits).addScore(blueSkyPeru, 1L);
+        verifyNoMoreInteractions(flyService);
+    }
+
+    @Test
+    @DisplayName("Should build the indexes and search again the most requested searches")
+    void warmUp_ShouldSearchMostRequested() {
+        when(hits.valueRangeReversed(0, 9)).thenReturn(List.of(cheapMexico, blueSkyPeru));
+        when(flyService.search(blueSkyPeru)).thenThrow(new IllegalStateException("down"));
+
+        helper.warmUp();
+
+        verify(flyCatalogIndex).byPrice();
+        verify(hotelCatalogIndex).byPrice();
+        verify(flyService).search(cheapMexico);
+        verify(flyService).search(blueSkyPeru);
+    }
+
+    @Test
+    @DisplayName("Should rebuild both catalogs at midnight without relaying them")
+    void rebuild_ShouldPublishScheduledRebuilds() {
+        helper.rebuild();
+
+        ArgumentCaptor<CatalogRebuildEvent> rebuilt = ArgumentCaptor.forClass(CatalogRebuildEvent.class);
+        verify(publisher, times(2)).publishEvent(rebuilt.capture());
+        assertEquals(List.of(Tables.fly, Tables.hotel), rebuilt.getAllValues().stream().map(CatalogRebuildEvent::getCatalog).toList());
+        assertTrue(rebuilt.getAllValues().stream().allMatch(event -> event.isScheduled() && !event.isRemote()));
+    }
+}
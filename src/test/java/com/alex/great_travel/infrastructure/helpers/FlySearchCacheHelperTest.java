@@ -0,0 +1,90 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.util.AeroLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FlySearchCacheHelperTest {
+
+    RMapCache<String, FlySearchRequest> keys;
+    Cache cache;
+    FlySearchCacheHelper helper;
+
+    FlySearchRequest cheapMexico;
+    FlySearchRequest blueSkyPeru;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        keys = mock(RMapCache.class);
+        cache = mock(Cache.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(redissonClient.<String, FlySearchRequest>getMapCache(eq(FlySearchCacheHelper.SEARCH_KEYS), any(Codec.class))).thenReturn(keys);
+        when(cacheManager.getCache(RedisConfig.CacheConstants.FLY_CACHE_NAME)).thenReturn(cache);
+        helper = new FlySearchCacheHelper(redissonClient, cacheManager,
+                new MockEnvironment().withProperty("cache.flights.ttl-seconds", "600"));
+
+        cheapMexico = FlySearchRequest.builder().origin("Mexico").maxPrice(BigDecimal.valueOf(50)).build().normalized();
+        blueSkyPeru = FlySearchRequest.builder().destiny("Peru").aeroLine(AeroLine.blue_sky).build().normalized();
+        when(keys.readAllMap()).thenReturn(Map.of(cheapMexico.cacheKey(), cheapMexico, blueSkyPeru.cacheKey(), blueSkyPeru));
+    }
+
+    @Test
+    @DisplayName("Should evict only the searches the old or the new flight belongs to")
+    void onChange_ShouldEvictAffectedSearches() {
+        FlyResponse before = fly("Mexico", "Grecia", "40.00", AeroLine.aero_gold);
+        FlyResponse after = fly("Mexico", "Grecia", "80.00", AeroLine.aero_gold);
+
+        helper.onChange(new FlyChangeEvent(ChangeType.SAVED, after, before));
+
+        verify(cache).evict(cheapMexico.cacheKey());
+        verify(keys).fastRemove(cheapMexico.cacheKey());
+        verify(cache, never()).evict(blueSkyPeru.cacheKey());
+    }
+
+    @Test
+    @DisplayName("Should track a search as long as the flights cache can keep it")
+    void track_ShouldExpireWithCache() {
+        helper.track(cheapMexico);
+
+        verify(keys).fastPut(cheapMexico.cacheKey(), cheapMexico,
+                600_000 + FlySearchCacheHelper.TRACK_MARGIN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    @DisplayName("A flight should affect a search through any of its facets")
+    void affects_ShouldFollowFacets() {
+        assertTrue(FlySearchCacheHelper.affects(cheapMexico, fly("Mexico", "Peru", "50.00", AeroLine.blue_sky)));
+        assertTrue(FlySearchCacheHelper.affects(cheapMexico, fly("Mexico", "Peru", "500.00", AeroLine.blue_sky)));
+        assertFalse(FlySearchCacheHelper.affects(cheapMexico, fly("Grecia", "Peru", "10.00", AeroLine.blue_sky)));
+        assertTrue(FlySearchCacheHelper.affects(blueSkyPeru, fly("Grecia", "Peru", "900.00", AeroLine.aero_gold)));
+        assertFalse(FlySearchCacheHelper.affects(blueSkyPeru, null));
+    }
+
+    private static FlyResponse fly(String origin, String destiny, String price, AeroLine aeroLine) {
+        return FlyResponse.builder().id(1L).originName(origin).destinyName(destiny)
+                .price(new BigDecimal(price)).aeroLine(aeroLine).build();
+    }
+}
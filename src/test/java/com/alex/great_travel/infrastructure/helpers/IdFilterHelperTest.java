@@ -0,0 +1,100 @@
+package com.alex.great_travel.infrastructure.helpers;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.domain.events.ChangeType;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.domain.repositories.CustomerRepository;
+import com.alex.great_travel.domain.repositories.FlyRepository;
+import com.alex.great_travel.domain.repositories.HotelRepository;
+import com.alex.great_travel.util.exceptions.IdNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdFilterHelperTest {
+
+    FlyRepository flyRepository;
+    RBloomFilter<Object> shared;
+    IdFilterHelper helper;
+
+    @BeforeEach
+    void setUp() {
+        flyRepository = mock(FlyRepository.class);
+        shared = mock(RBloomFilter.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getBloomFilter(anyString(), any(Codec.class))).thenReturn(shared);
+        helper = new IdFilterHelper(flyRepository, mock(HotelRepository.class), mock(CustomerRepository.class), redissonClient);
+        ReflectionTestUtils.setField(helper, "expectedInsertions", 1_000L);
+        ReflectionTestUtils.setField(helper, "falseProbability", 0.01);
+    }
+
+    @Test
+    @DisplayName("Should let every id through until the filter is built")
+    void requireFly_ShouldPass_BeforeRebuild() {
+        assertDoesNotThrow(() -> helper.requireFly(404L));
+        verifyNoInteractions(shared);
+    }
+
+    @Test
+    @DisplayName("Should reject an id only when the local and the shared filters miss it")
+    void requireFly_ShouldRejectUnknownIds() {
+        when(flyRepository.selectIds()).thenReturn(List.of(1L, 2L, 3L));
+        helper.rebuildFlights();
+        verify(shared).tryInit(1_000L, 0.01);
+        verify(shared, times(3)).add(anyString());
+
+        assertDoesNotThrow(() -> helper.requireFly(2L));
+        assertThrows(IdNotFoundException.class, () -> helper.requireFly(404L));
+
+        when(shared.contains("405")).thenReturn(true);
+        assertDoesNotThrow(() -> helper.requireFly(405L));
+        assertDoesNotThrow(() -> helper.requireFly(405L));
+        verify(shared, times(1)).contains("405");
+
+        helper.onChange(new FlyChangeEvent(ChangeType.SAVED, FlyResponse.builder().id(406L).build()));
+        assertDoesNotThrow(() -> helper.requireFly(406L));
+        verify(shared).add("406");
+    }
+
+    @Test
+    @DisplayName("Should let the database decide and keep the saved ids pending while redis fails")
+    void requireFly_ShouldPass_WhenRedisFails() {
+        when(flyRepository.selectIds()).thenReturn(List.of(1L));
+        when(shared.contains(anyString())).thenThrow(new RedisConnectionException("down"));
+        when(shared.add(anyString())).thenThrow(new RedisConnectionException("down"));
+        helper.rebuildFlights();
+
+        assertDoesNotThrow(() -> helper.requireFly(404L));
+        helper.onChange(new FlyChangeEvent(ChangeType.SAVED, FlyResponse.builder().id(406L).build()));
+
+        reset(shared);
+        helper.flush();
+        verify(shared).add("1");
+        verify(shared).add("406");
+        helper.flush();
+        verify(shared, times(2)).add(anyString());
+    }
+
+    @Test
+    @DisplayName("Should write a saved customer to the shared filter at once")
+    void addCustomer_ShouldWriteShared() {
+        helper.addCustomer("VIKI771012HMCRG093");
+        verify(shared).add("VIKI771012HMCRG093");
+
+        reset(shared);
+        helper.flush();
+        verifyNoInteractions(shared);
+    }
+}
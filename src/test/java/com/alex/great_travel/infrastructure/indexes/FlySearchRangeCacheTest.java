@@ -0,0 +1,97 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.request.FlySearchRequest;
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.domain.events.FlyChangeEvent;
+import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.SortType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlySearchRangeCacheTest {
+
+    private static final BigDecimal WIDTH = BigDecimal.valueOf(50);
+
+    FlySearchRangeCache cache;
+    List<FlyResponse> flights;
+
+    @BeforeEach
+    void setUp() {
+        cache = new FlySearchRangeCache();
+        flights = List.of(
+                fly(1L, "40.00", AeroLine.aero_gold),
+                fly(2L, "75.50", AeroLine.blue_sky),
+                fly(3L, "120.00", AeroLine.aero_gold),
+                fly(4L, "99.00", AeroLine.aero_gold));
+    }
+
+    @Test
+    @DisplayName("Should answer a sub range from a complete kept range")
+    void find_ShouldFilterKeptRange() {
+        FlySearchRequest wide = request("0", "200", null, SortType.NONE);
+        cache.register(wide, response(flights, Map.of(BigDecimal.ZERO, 1L, new BigDecimal("50"), 2L, new BigDecimal("100"), 1L)), cache.generation());
+
+        FlySearchResponse result = cache.find(request("50", "100.00", null, SortType.LOWER), WIDTH).orElseThrow();
+
+        assertEquals(List.of(2L, 4L), result.getFlights().stream().map(FlyResponse::getId).toList());
+        assertEquals(2L, result.getTotal());
+        assertEquals(Map.of(AeroLine.blue_sky, 1L, AeroLine.aero_gold, 1L), result.getByAeroLine());
+        assertEquals(3, result.getByPrice().size());
+
+        assertTrue(cache.find(request("0", "250", null, SortType.NONE), WIDTH).isEmpty());
+        assertTrue(cache.find(request("50", "100", AeroLine.aero_gold, SortType.NONE), WIDTH).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should compute the price facet of an aeroline from an open kept range")
+    void find_ShouldComputePriceFacet_GivenOpenRange() {
+        cache.register(request(null, null, null, SortType.NONE), response(flights, Map.of()), cache.generation());
+
+        FlySearchResponse result = cache.find(request("50", null, AeroLine.aero_gold, SortType.UPPER), WIDTH).orElseThrow();
+
+        assertEquals(List.of(3L, 4L), result.getFlights().stream().map(FlyResponse::getId).toList());
+        assertEquals(2L, result.getTotal());
+        assertEquals(Map.of(AeroLine.blue_sky, 1L, AeroLine.aero_gold, 2L), result.getByAeroLine());
+        assertEquals(Map.of(BigDecimal.ZERO, 1L, new BigDecimal("50"), 1L, new BigDecimal("100"), 1L), result.getByPrice());
+    }
+
+    @Test
+    @DisplayName("Should not keep truncated or stale searches")
+    void register_ShouldSkipTruncatedAndStaleSearches() {
+        FlySearchRequest wide = request(null, null, null, SortType.NONE);
+        cache.register(wide, FlySearchResponse.builder().flights(flights.subList(0, 2)).total(4L).byPrice(Map.of()).build(), cache.generation());
+        assertTrue(cache.find(wide, WIDTH).isEmpty());
+
+        long generation = cache.generation();
+        cache.onChange(new FlyChangeEvent(null, null));
+        cache.register(wide, response(flights, Map.of()), generation);
+        assertTrue(cache.find(wide, WIDTH).isEmpty());
+    }
+
+    private static FlySearchRequest request(String min, String max, AeroLine aeroLine, SortType sortType) {
+        return FlySearchRequest.builder()
+                .minPrice(min == null ? null : new BigDecimal(min))
+                .maxPrice(max == null ? null : new BigDecimal(max))
+                .origin("Mexico")
+                .aeroLine(aeroLine)
+                .sortType(sortType)
+                .build()
+                .normalized();
+    }
+
+    private static FlySearchResponse response(List<FlyResponse> flights, Map<BigDecimal, Long> byPrice) {
+        return FlySearchResponse.builder().flights(flights).total((long) flights.size()).byPrice(byPrice).build();
+    }
+
+    private static FlyResponse fly(Long id, String price, AeroLine aeroLine) {
+        return FlyResponse.builder().id(id).price(new BigDecimal(price)).aeroLine(aeroLine).originName("Mexico").build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.util.AeroLine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoIndexTest {
+
+    @Test
+    @DisplayName("Should return flights departing within the radius nearest first")
+    void near_ShouldReturnFlightsByDistance() {
+        GeoIndex index = GeoIndex.of(List.of(
+                fly(1L, 19.4326, -99.1332),   // Mexico City
+                fly(2L, 20.6597, -103.3496),  // Guadalajara
+                fly(3L, 37.9838, 23.7275),    // Athens
+                fly(4L, 19.0414, -98.2063)    // Puebla
+        ));
+
+        List<FlyResponse> result = index.near(19.4326, -99.1332, 150);
+
+        assertEquals(List.of(1L, 4L), result.stream().map(FlyResponse::getId).toList());
+        assertEquals(3, index.near(19.4326, -99.1332, 600).size());
+        assertEquals(4, index.near(0, 0, 25_000).size());
+    }
+
+    @Test
+    @DisplayName("Should match a haversine scan on random points")
+    void near_ShouldMatchHaversineScan() {
+        Random random = new Random(7);
+        List<FlyResponse> flights = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            flights.add(fly(id, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        }
+        GeoIndex index = GeoIndex.of(flights);
+
+        for (int query = 0; query < 50; query++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lng = random.nextDouble() * 360 - 180;
+            double radius = random.nextDouble() * 3000;
+
+            List<Long> expected = flights.stream()
+                    .filter(fly -> haversine(lat, lng, fly) <= radius)
+                    .sorted(Comparator.comparingDouble(fly -> haversine(lat, lng, fly)))
+                    .map(FlyResponse::getId)
+                    .toList();
+
+            assertEquals(expected, index.near(lat, lng, radius).stream().map(FlyResponse::getId).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a haversine scan after patching more flights than the backlog keeps")
+    void with_ShouldMatchHaversineScan_AfterChanges() {
+        Random random = new Random(13);
+        List<FlyResponse> flights = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) flights.add(fly(id, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        GeoIndex index = GeoIndex.of(flights);
+
+        for (long id = 501; id <= 700; id++) {
+            if (random.nextBoolean()) {
+                FlyResponse removed = flights.remove(random.nextInt(flights.size()));
+                index = index.without(removed);
+            } else {
+                FlyResponse saved = fly(id, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+                flights.add(saved);
+                index = index.with(saved);
+            }
+
+            double lat = random.nextDouble() * 180 - 90;
+            double lng = random.nextDouble() * 360 - 180;
+            double radius = random.nextDouble() * 5000;
+            List<Long> expected = flights.stream()
+                    .filter(fly -> haversine(lat, lng, fly) <= radius)
+                    .sorted(Comparator.comparingDouble(fly -> haversine(lat, lng, fly)))
+                    .map(FlyResponse::getId)
+                    .toList();
+            assertEquals(expected, index.near(lat, lng, radius).stream().map(FlyResponse::getId).toList());
+        }
+    }
+
+    private static double haversine(double lat, double lng, FlyResponse fly) {
+        double dLat = Math.toRadians(fly.getOriginLat() - lat);
+        double dLng = Math.toRadians(fly.getOriginLng() - lng);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(fly.getOriginLat())) * Math.pow(Math.sin(dLng / 2), 2);
+        return 2 * GeoIndex.EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    private static FlyResponse fly(Long id, double lat, double lng) {
+        return FlyResponse.builder()
+                .id(id)
+                .originLat(lat)
+                .originLng(lng)
+                .destinyLat(0.0)
+                .destinyLng(0.0)
+                .originName("City" + id)
+                .destinyName("Destiny")
+                .aeroLine(AeroLine.blue_sky)
+                .price(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelBitmapIndexTest {
+
+    @Test
+    @DisplayName("Should combine the rating and the price range")
+    void filter_ShouldCombineRatingAndPrice() {
+        HotelBitmapIndex index = HotelBitmapIndex.of(PriceIndex.of(List.of(
+                hotel(1L, 5, "120.00"),
+                hotel(2L, 3, "50.00"),
+                hotel(3L, 4, "75.50"),
+                hotel(4L, 4, "50.00"),
+                hotel(5L, 2, "300.00")
+        ), HotelResponse::getId, HotelResponse::getPrice));
+
+        assertEquals(List.of(4L, 3L, 1L), ids(index.filter(4, null, null)));
+        assertEquals(List.of(4L, 3L), ids(index.filter(4, new BigDecimal("50"), new BigDecimal("100"))));
+        assertEquals(List.of(2L, 4L, 3L), ids(index.filter(null, null, new BigDecimal("75.50"))));
+        assertEquals(List.of(5L), ids(index.filter(1, new BigDecimal("120.01"), null)));
+        assertTrue(index.filter(6, null, null).isEmpty());
+        assertTrue(index.filter(1, new BigDecimal("100"), new BigDecimal("50")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match a scan over random hotels")
+    void filter_ShouldMatchScan() {
+        Random random = new Random(11);
+        List<HotelResponse> hotels = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            hotels.add(hotel(id, 1 + random.nextInt(5), BigDecimal.valueOf(random.nextInt(50_000), 2).toPlainString()));
+        }
+        HotelBitmapIndex index = HotelBitmapIndex.of(PriceIndex.of(hotels, HotelResponse::getId, HotelResponse::getPrice));
+
+        for (int query = 0; query < 100; query++) {
+            int rating = random.nextInt(6);
+            BigDecimal min = BigDecimal.valueOf(random.nextInt(50_000), 2);
+            BigDecimal max = min.add(BigDecimal.valueOf(random.nextInt(20_000), 2));
+
+            List<Long> expected = hotels.stream()
+                    .filter(hotel -> hotel.getRating() >= rating)
+                    .filter(hotel -> hotel.getPrice().compareTo(min) >= 0 && hotel.getPrice().compareTo(max) <= 0)
+                    .sorted(Comparator.comparing(HotelResponse::getPrice).thenComparing(HotelResponse::getId))
+                    .map(HotelResponse::getId)
+                    .toList();
+
+            assertEquals(expected, ids(index.filter(rating, min, max)));
+        }
+    }
+
+    private static List<Long> ids(List<HotelResponse> hotels) {
+        return hotels.stream().map(HotelResponse::getId).toList();
+    }
+
+    private static HotelResponse hotel(Long id, Integer rating, String price) {
+        return HotelResponse.builder()
+                .id(id)
+                .name("Hotel" + id)
+                .address("Street " + id)
+                .rating(rating)
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotelTextIndexTest {
+
+    private static final PriceIndex<HotelResponse> HOTELS = PriceIndex.of(List.of(
+            hotel(1L, "El dorado", "Grecia 21", "70.05"),
+            hotel(2L, "El mirador", "Grecia 98", "100.45"),
+            hotel(3L, "Hotel Ópera", "Avenida Reforma 5", "85.00"),
+            hotel(4L, "Dorado Palace", "Calle Sur 10", "150.00")
+    ), HotelResponse::getId, HotelResponse::getPrice);
+
+    @Test
+    @DisplayName("Should rank the closest name first and tolerate typos and accents")
+    void search_ShouldRankAndTolerateTypos() {
+        HotelTextIndex index = HotelTextIndex.of(HOTELS);
+
+        assertEquals(List.of(1L, 4L, 2L), ids(index.search("dorado", 10)));
+        assertEquals(1L, index.search("el dorrado", 10).get(0).getId());
+        assertEquals(List.of(3L), ids(index.search("opera", 10)));
+        assertEquals(List.of(2L), ids(index.search("El mira", 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("grecia", 10)));
+        assertEquals(List.of(1L), ids(index.search("dorado", 1)));
+        assertTrue(index.search("zzzz", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should patch the changed rows without losing the others")
+    void withAndWithout_ShouldPatchChangedRows() {
+        HotelTextIndex previous = HotelTextIndex.of(HOTELS);
+
+        HotelTextIndex index = previous
+                .with(hotel(5L, "Mirador del Sol", "Playa 1", "60.00"))
+                .without(2L)
+                .with(hotel(3L, "Hotel Dorado", "Avenida Reforma 5", "85.00"));
+
+        assertEquals(List.of(5L), ids(index.search("mirador", 10)));
+        assertEquals(List.of(1L, 4L, 3L, 5L), ids(index.search("dorado", 10)));
+        assertTrue(index.search("opera", 10).isEmpty());
+        assertEquals(List.of(1L, 4L, 2L), ids(previous.search("dorado", 10)));
+        assertSame(index, index.without(2L));
+    }
+
+    @Test
+    @DisplayName("Should drop the slots of removed hotels once they are half of them")
+    void without_ShouldCompactRemovedSlots() {
+        HotelTextIndex index = HotelTextIndex.of(HOTELS).without(1L).without(2L).without(4L);
+
+        assertEquals(List.of(3L), ids(index.search("opera", 10)));
+        assertTrue(index.search("dorado", 10).isEmpty());
+        assertEquals(List.of(6L), ids(index.with(hotel(6L, "Dorado Norte", "Grecia 3", "90.00")).search("dorado", 10)));
+    }
+
+    private static HotelResponse hotel(Long id, String name, String address, String price) {
+        return HotelResponse.builder().id(id).name(name).address(address).rating(3).price(new BigDecimal(price)).build();
+    }
+
+    private static List<Long> ids(List<HotelResponse> hotels) {
+        return hotels.stream().map(HotelResponse::getId).toList();
+    }
+}
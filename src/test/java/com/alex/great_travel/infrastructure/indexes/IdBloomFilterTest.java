@@ -0,0 +1,34 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdBloomFilterTest {
+
+    @Test
+    @DisplayName("Should find every added id and miss nearly every other one")
+    void mightContain_ShouldKeepFalseProbability() {
+        IdBloomFilter filter = new IdBloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) filter.add(String.valueOf(id));
+
+        for (long id = 1; id <= 10_000; id++) assertTrue(filter.mightContain(String.valueOf(id)));
+
+        int falsePositives = 0;
+        for (long id = 10_001; id <= 110_000; id++) {
+            if (filter.mightContain(String.valueOf(id))) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Should miss every id of an empty filter")
+    void mightContain_ShouldMiss_GivenEmptyFilter() {
+        IdBloomFilter filter = new IdBloomFilter(0, 0.01);
+
+        assertFalse(filter.mightContain("12345678A"));
+        filter.add("12345678A");
+        assertTrue(filter.mightContain("12345678A"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceIndexTest {
+
+    private PriceIndex<HotelResponse> index;
+
+    @BeforeEach
+    void setUp() {
+        index = PriceIndex.of(List.of(
+                hotel(1L, "100.00"),
+                hotel(2L, "49.99"),
+                hotel(3L, "50.00"),
+                hotel(4L, "75.50"),
+                hotel(5L, "50.00")
+        ), HotelResponse::getId, HotelResponse::getPrice);
+    }
+
+    @Test
+    @DisplayName("Should return rows strictly cheaper than the price")
+    void lessThan_ShouldExcludeEqualPrice() {
+        assertEquals(List.of(2L), ids(index.lessThan(new BigDecimal("50"))));
+        assertEquals(List.of(2L, 3L, 5L), ids(index.lessThan(new BigDecimal("50.001"))));
+        assertTrue(index.lessThan(BigDecimal.ZERO).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return rows between min and max inclusive")
+    void between_ShouldIncludeBounds() {
+        assertEquals(List.of(3L, 5L, 4L, 1L), ids(index.between(BigDecimal.valueOf(50), BigDecimal.valueOf(100))));
+        assertEquals(List.of(4L), ids(index.between(new BigDecimal("50.001"), new BigDecimal("99.999"))));
+        assertTrue(index.between(BigDecimal.valueOf(100), BigDecimal.valueOf(50)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should patch the index without touching the previous snapshot")
+    void withAndWithout_ShouldReturnNewSnapshot() {
+        PriceIndex<HotelResponse> patched = index
+                .with(4L, new BigDecimal("10.00"), hotel(4L, "10.00"))
+                .with(6L, new BigDecimal("60.00"), hotel(6L, "60.00"))
+                .without(1L);
+
+        assertEquals(List.of(4L, 2L, 3L, 5L, 6L), ids(patched.rows()));
+        assertEquals(List.of(2L, 3L, 5L, 4L, 1L), ids(index.rows()));
+        assertSame(patched, patched.without(99L));
+    }
+
+    @Test
+    @DisplayName("Should find every row by id after random patches, also between rows of the same price")
+    void find_ShouldMatchScan_AfterRandomPatches() {
+        Random random = new Random(7);
+        Map<Long, HotelResponse> expected = new HashMap<>();
+        PriceIndex<HotelResponse> patched = PriceIndex.empty();
+        for (int i = 0; i < 2_000; i++) {
+            long id = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                patched = patched.without(id);
+                expected.remove(id);
+            } else {
+                HotelResponse row = hotel(id, String.valueOf(random.nextInt(20)));
+                patched = patched.with(id, row.getPrice(), row);
+                expected.put(id, row);
+            }
+        }
+
+        for (long id = 0; id < 200; id++) assertSame(expected.get(id), patched.find(id));
+        assertEquals(expected.size(), patched.size());
+        assertEquals(expected.values().stream()
+                .sorted(Comparator.comparing(HotelResponse::getPrice).thenComparing(HotelResponse::getId))
+                .map(HotelResponse::getId).toList(), ids(patched.rows()));
+    }
+
+    private static List<Long> ids(List<HotelResponse> hotels) {
+        return hotels.stream().map(HotelResponse::getId).toList();
+    }
+
+    private static HotelResponse hotel(Long id, String price) {
+        return HotelResponse.builder()
+                .id(id)
+                .name("Hotel" + id)
+                .address("address " + id)
+                .rating(4)
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
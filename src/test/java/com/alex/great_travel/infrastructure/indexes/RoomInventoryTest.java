@@ -0,0 +1,109 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.HotelResponse;
+import com.alex.great_travel.domain.entities.HotelEntity;
+import com.alex.great_travel.domain.repositories.HotelRepository;
+import com.alex.great_travel.domain.repositories.ReservationRepository;
+import com.alex.great_travel.util.exceptions.NoRoomAvailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RoomInventoryTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+    HotelRepository hotelRepository;
+    ReservationRepository reservationRepository;
+    RoomInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        hotelRepository = mock(HotelRepository.class);
+        reservationRepository = mock(ReservationRepository.class);
+        when(hotelRepository.selectAllResponses()).thenReturn(List.of(hotel(1L, 2), hotel(2L, 1)));
+        when(hotelRepository.lockById(1L)).thenReturn(Optional.of(HotelEntity.builder().id(1L).rooms(2).build()));
+        when(reservationRepository.selectStaysEndingAfter(any(LocalDate.class))).thenReturn(List.of(stay(2L, DAY, DAY.plusDays(2))));
+        inventory = new RoomInventory(hotelRepository, reservationRepository);
+    }
+
+    @Test
+    @DisplayName("Should load the stays already booked")
+    void available_ShouldCountLoadedStays() {
+        assertEquals(1, inventory.booked(2L, DAY.plusDays(1)));
+        assertEquals(0, inventory.booked(2L, DAY.plusDays(2)));
+        assertEquals(List.of(1L), inventory.available(DAY, DAY.plusDays(1)));
+        assertEquals(List.of(1L, 2L), inventory.available(DAY.plusDays(2), DAY.plusDays(5)).stream().sorted().toList());
+        assertTrue(inventory.available(DAY, DAY).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should refuse a stay when any night is full in the database")
+    void reserve_ShouldThrow_WhenAnyNightIsFull() {
+        when(reservationRepository.selectStaysOverlapping(eq(1L), any(), any(), any()))
+                .thenReturn(List.of(stay(1L, DAY, DAY.plusDays(3)), stay(1L, DAY.plusDays(2), DAY.plusDays(4))));
+        assertEquals(0, inventory.booked(1L, DAY));
+
+        assertThrows(NoRoomAvailableException.class, () -> inventory.reserve(1L, DAY.minusDays(1), DAY.plusDays(3)));
+        assertEquals(0, inventory.booked(1L, DAY));
+
+        inventory.reserve(1L, DAY.minusDays(1), DAY.plusDays(2));
+        assertEquals(1, inventory.booked(1L, DAY));
+        verify(hotelRepository, times(2)).lockById(1L);
+    }
+
+    @Test
+    @DisplayName("Should not count the reservation being updated against itself")
+    void reserve_ShouldExcludeReplacedStay() {
+        UUID replaced = UUID.randomUUID();
+
+        inventory.reserve(1L, DAY, DAY.plusDays(2), replaced);
+
+        verify(reservationRepository).selectStaysOverlapping(1L, DAY, DAY.plusDays(2), replaced);
+    }
+
+    @Test
+    @DisplayName("Should refuse a check in in the past or past the booking horizon before reading the database")
+    void reserve_ShouldThrow_GivenCheckInPastHorizon() {
+        LocalDate far = LocalDate.now().plusYears(50);
+
+        assertThrows(NoRoomAvailableException.class, () -> inventory.reserve(1L, far, far.plusDays(1)));
+        assertThrows(NoRoomAvailableException.class, () -> inventory.reserve(1L, DAY, DAY.plusDays(400)));
+        assertThrows(NoRoomAvailableException.class, () -> inventory.reserve(1L, LocalDate.now().minusDays(1), DAY));
+        verify(hotelRepository, never()).lockById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should free the nights of a released stay and ignore stays without dates")
+    void release_ShouldFreeNights() {
+        assertEquals(1, inventory.booked(2L, DAY));
+
+        inventory.release(2L, DAY, DAY.plusDays(2));
+        inventory.release(2L, DAY, null);
+
+        assertEquals(0, inventory.booked(2L, DAY));
+        assertEquals(List.of(1L, 2L), inventory.available(DAY, DAY.plusDays(1)).stream().sorted().toList());
+    }
+
+    private static HotelResponse hotel(Long id, Integer rooms) {
+        return HotelResponse.builder().id(id).rooms(rooms).build();
+    }
+
+    private static ReservationRepository.Stay stay(Long hotelId, LocalDate start, LocalDate end) {
+        return new ReservationRepository.Stay() {
+            public Long getHotelId() { return hotelId; }
+            public LocalDate getDateStart() { return start; }
+            public LocalDate getDateEnd() { return end; }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.alex.great_travel.infrastructure.indexes.RouteIndexTest.fly;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteGraphTest {
+
+    @Test
+    @DisplayName("Should return the cheapest itineraries ordered by total price")
+    void cheapest_ShouldReturnItinerariesByPrice() {
+        List<FlyResponse> flights = List.of(
+                fly(1L, "Mexico", "Grecia", "500.00"),
+                fly(2L, "Mexico", "Canada", "100.00"),
+                fly(3L, "Canada", "Grecia", "150.00"),
+                fly(4L, "Mexico", "Iceland", "50.00"),
+                fly(5L, "Iceland", "Canada", "20.00"),
+                fly(6L, "Canada", "Mexico", "10.00"),
+                fly(7L, "Grecia", "Iceland", "5.00")
+        );
+        RouteGraph graph = graph(flights);
+
+        List<List<FlyResponse>> itineraries = graph.cheapest("Mexico", "Grecia", 3, 5);
+
+        assertEquals(List.of(List.of(4L, 5L, 3L), List.of(2L, 3L), List.of(1L)), ids(itineraries));
+    }
+
+    @Test
+    @DisplayName("Should respect the maximum legs and the limit")
+    void cheapest_ShouldRespectLegsAndLimit() {
+        RouteGraph graph = graph(List.of(
+                fly(1L, "Mexico", "Grecia", "500.00"),
+                fly(2L, "Mexico", "Canada", "100.00"),
+                fly(3L, "Canada", "Grecia", "150.00")
+        ));
+
+        assertEquals(List.of(List.of(1L)), ids(graph.cheapest("Mexico", "Grecia", 1, 5)));
+        assertEquals(List.of(List.of(2L, 3L)), ids(graph.cheapest("Mexico", "Grecia", 2, 1)));
+        assertTrue(graph.cheapest("Grecia", "Mexico", 3, 5).isEmpty());
+        assertTrue(graph.cheapest("Mexico", "Peru", 3, 5).isEmpty());
+        assertTrue(graph.cheapest("Mexico", "Mexico", 3, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match an exhaustive search on a random graph")
+    void cheapest_ShouldMatchExhaustiveSearch() {
+        Random random = new Random(42);
+        List<FlyResponse> flights = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            String origin = "City" + random.nextInt(15);
+            String destiny = "City" + random.nextInt(15);
+            if (origin.equals(destiny)) continue;
+            flights.add(fly(id, origin, destiny, BigDecimal.valueOf(1000 + random.nextInt(50000), 2).toPlainString()));
+        }
+        RouteGraph graph = graph(flights);
+
+        for (int legs = 1; legs <= 3; legs++) {
+            List<List<FlyResponse>> expected = exhaustive(flights, "City0", "City1", legs);
+            List<List<FlyResponse>> actual = graph.cheapest("City0", "City1", legs, 25);
+
+            assertEquals(Math.min(25, expected.size()), actual.size());
+            for (int i = 0; i < actual.size(); i++) {
+                assertEquals(0, total(expected.get(i)).compareTo(total(actual.get(i))));
+            }
+            assertEquals(actual.size(), new HashSet<>(ids(actual)).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should find the same itineraries after patching flights as a rebuilt graph")
+    void with_ShouldMatchRebuiltGraph() {
+        Random random = new Random(11);
+        List<FlyResponse> flights = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) flights.add(randomFly(random, id));
+        RouteIndex routes = RouteIndex.of(flights);
+        RouteGraph graph = RouteGraph.of(routes, flights);
+
+        for (long id = 201; id <= 300; id++) {
+            FlyResponse previous = flights.remove(random.nextInt(flights.size()));
+            routes = routes.without(previous);
+            graph = graph.without(routes, previous);
+            if (random.nextBoolean()) {
+                FlyResponse saved = random.nextBoolean() ? randomFly(random, id) : fly(previous.getId(),
+                        previous.getOriginName(), previous.getDestinyName(), BigDecimal.valueOf(1000 + random.nextInt(50000), 2).toPlainString());
+                flights.add(saved);
+                routes = routes.with(saved);
+                graph = graph.with(routes, saved);
+            }
+        }
+
+        RouteGraph rebuilt = graph(flights);
+        for (int legs = 1; legs <= 3; legs++) {
+            List<List<FlyResponse>> expected = rebuilt.cheapest("City0", "City1", legs, 25);
+            List<List<FlyResponse>> actual = graph.cheapest("City0", "City1", legs, 25);
+            assertEquals(expected.stream().map(RouteGraphTest::total).toList(), actual.stream().map(RouteGraphTest::total).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should order itineraries of the same price as a rebuilt graph after patching flights")
+    void with_ShouldKeepTiesOfRebuiltGraph() {
+        List<FlyResponse> flights = new ArrayList<>(List.of(
+                fly(5L, "Mexico", "Canada", "100.00"),
+                fly(2L, "Canada", "Grecia", "50.00"),
+                fly(3L, "Mexico", "Grecia", "150.00")
+        ));
+        RouteIndex routes = RouteIndex.of(flights);
+        RouteGraph graph = RouteGraph.of(routes, flights);
+        for (FlyResponse saved : List.of(fly(4L, "Mexico", "Canada", "100.00"), fly(1L, "Mexico", "Grecia", "150.00"))) {
+            flights.add(saved);
+            routes = routes.with(saved);
+            graph = graph.with(routes, saved);
+        }
+
+        List<List<Long>> rebuilt = ids(graph(flights).cheapest("Mexico", "Grecia", 2, 10));
+        assertEquals(4, rebuilt.size());
+        assertEquals(rebuilt, ids(graph.cheapest("Mexico", "Grecia", 2, 10)));
+    }
+
+    private static FlyResponse randomFly(Random random, long id) {
+        int origin = random.nextInt(18);
+        int destiny = (origin + 1 + random.nextInt(17)) % 18;
+        return fly(id, "City" + origin, "City" + destiny, BigDecimal.valueOf(1000 + random.nextInt(50000), 2).toPlainString());
+    }
+
+    private static List<List<FlyResponse>> exhaustive(List<FlyResponse> flights, String origin, String destiny, int maxLegs) {
+        List<List<FlyResponse>> found = new ArrayList<>();
+        walk(flights, origin, destiny, maxLegs, new ArrayList<>(), new HashSet<>(Set.of(origin)), found);
+        found.sort(Comparator.comparing(RouteGraphTest::total));
+        return found;
+    }
+
+    private static void walk(List<FlyResponse> flights, String city, String destiny, int maxLegs,
+                             List<FlyResponse> path, Set<String> visited, List<List<FlyResponse>> found) {
+        if (path.size() == maxLegs) return;
+        for (FlyResponse fly : flights) {
+            if (!fly.getOriginName().equals(city) || visited.contains(fly.getDestinyName())) continue;
+            path.add(fly);
+            if (fly.getDestinyName().equals(destiny)) {
+                found.add(List.copyOf(path));
+            } else {
+                visited.add(fly.getDestinyName());
+                walk(flights, fly.getDestinyName(), destiny, maxLegs, path, visited, found);
+                visited.remove(fly.getDestinyName());
+            }
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private static BigDecimal total(List<FlyResponse> flights) {
+        return flights.stream().map(FlyResponse::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static List<List<Long>> ids(List<List<FlyResponse>> itineraries) {
+        return itineraries.stream().map(flights -> flights.stream().map(FlyResponse::getId).toList()).toList();
+    }
+
+    private static RouteGraph graph(List<FlyResponse> flights) {
+        return RouteGraph.of(RouteIndex.of(flights), flights);
+    }
+}
@@ -0,0 +1,89 @@
+package com.alex.great_travel.infrastructure.indexes;
+
+import com.alex.great_travel.api.models.response.FlyResponse;
+import com.alex.great_travel.util.AeroLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteIndexTest {
+
+    private RouteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = RouteIndex.of(List.of(
+                fly(1L, "Mexico", "Grecia", "12.00"),
+                fly(2L, "Grecia", "Mexico", "15.00"),
+                fly(3L, "Mexico", "Grecia", "20.00"),
+                fly(4L, "Mexico", "Canada", "25.00"),
+                fly(5L, "Mexico", "Grecia", "30.00")
+        ));
+    }
+
+    @Test
+    @DisplayName("Should return every flight of the route keeping the input order")
+    void find_ShouldReturnFlightsOfRoute() {
+        assertEquals(List.of(1L, 3L, 5L), ids(index.find("Mexico", "Grecia")));
+        assertEquals(List.of(2L), ids(index.find("Grecia", "Mexico")));
+        assertEquals(List.of(4L), ids(index.find("Mexico", "Canada")));
+    }
+
+    @Test
+    @DisplayName("Should return an empty list for unknown routes or cities")
+    void find_ShouldReturnEmpty_GivenUnknownRoute() {
+        assertTrue(index.find("Canada", "Mexico").isEmpty());
+        assertTrue(index.find("Mexico", "Peru").isEmpty());
+        assertTrue(index.find(null, "Mexico").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should intern every city once")
+    void code_ShouldInternCities() {
+        assertEquals(3, index.cities());
+        int mexico = index.code("Mexico");
+        assertTrue(mexico >= 0);
+        assertEquals("Mexico", index.name(mexico));
+        assertEquals(-1, index.code("Peru"));
+    }
+
+    @Test
+    @DisplayName("Should patch a flight into and out of its route in price order")
+    void with_ShouldPatchRoutes() {
+        RouteIndex patched = index
+                .with(fly(6L, "Mexico", "Peru", "10.00"))
+                .with(fly(7L, "Mexico", "Grecia", "15.00"))
+                .without(fly(4L, "Mexico", "Canada", "25.00"))
+                .without(fly(1L, "Mexico", "Grecia", "12.00"));
+
+        assertEquals(List.of(7L, 3L, 5L), ids(patched.find("Mexico", "Grecia")));
+        assertEquals(List.of(6L), ids(patched.find("Mexico", "Peru")));
+        assertEquals(List.of(2L), ids(patched.find("Grecia", "Mexico")));
+        assertTrue(patched.find("Mexico", "Canada").isEmpty());
+        assertEquals(4, patched.cities());
+        assertEquals(List.of(1L, 3L, 5L), ids(index.find("Mexico", "Grecia")));
+    }
+
+    private static List<Long> ids(List<FlyResponse> flights) {
+        return flights.stream().map(FlyResponse::getId).toList();
+    }
+
+    static FlyResponse fly(Long id, String origin, String destiny, String price) {
+        return FlyResponse.builder()
+                .id(id)
+                .originName(origin)
+                .destinyName(destiny)
+                .originLat(0.0)
+                .originLng(0.0)
+                .destinyLat(0.0)
+                .destinyLng(0.0)
+                .aeroLine(AeroLine.aero_gold)
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.alex.great_travel.infrastructure.services;
+
+import com.alex.great_travel.api.models.request.FlyImportRequest;
+import com.alex.great_travel.api.models.request.HotelImportRequest;
+import com.alex.great_travel.api.models.response.ImportResponse;
+import com.alex.great_travel.config.RedisConfig;
+import com.alex.great_travel.domain.events.CatalogRebuildEvent;
+import com.alex.great_travel.infrastructure.helpers.CatalogImportHelper;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
+import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.ImportFormat;
+import com.alex.great_travel.util.Tables;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CatalogImportServiceImplTest extends ServiceSpec {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private CatalogImportHelper catalogImportHelper = new CatalogImportHelper(
+            new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private IdFilterHelper idFilterHelper;
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private CatalogImportServiceImpl catalogImportService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+    }
+
+    @Test
+    @DisplayName("Should insert the valid csv flights and report the invalid lines")
+    @SuppressWarnings("unchecked")
+    void importFlights_ShouldInsertValidRows_GivenCsv() {
+        String csv = """
+                originLat,originLng,destinyLat,destinyLng,originName,destinyName,aeroLine,price
+                19.43,-99.13,37.98,23.72,Mexico,Grecia,aero_gold,43.00
+
+                19.43,-99.13,64.14,-21.94,"Mexico",Iceland,blue_sky,-1
+                19.43,-99.13,45.42,-75.69,Mexico,Canada,unknown_line,20
+                19.43,-99.13,-12.04,-77.04,Mexico,Peru,blue_sky,25.65
+                """;
+        List<FlyImportRequest> inserted = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    inserted.addAll(invocation.getArgument(1));
+                    return new int[0][];
+                });
+
+        ImportResponse response = catalogImportService.importFlights(input(csv), ImportFormat.CSV);
+
+        assertEquals(4, response.getRead());
+        assertEquals(2, response.getImported());
+        assertEquals(2, response.getRejected());
+        assertEquals(List.of("line 4: Price have to be positive", "line 5: malformed row"), response.getErrors());
+        assertEquals(List.of("Grecia", "Peru"), inserted.stream().map(FlyImportRequest::getDestinyName).toList());
+        assertEquals(AeroLine.aero_gold, inserted.get(0).getAeroLine());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(List.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        ArgumentCaptor<CatalogRebuildEvent> rebuilt = ArgumentCaptor.forClass(CatalogRebuildEvent.class);
+        verify(applicationEventPublisher).publishEvent(rebuilt.capture());
+        assertEquals(Tables.fly, rebuilt.getValue().getCatalog());
+        assertFalse(rebuilt.getValue().isRemote());
+        verify(idFilterHelper).rebuildFlights();
+        verify(cacheManager).getCache(RedisConfig.CacheConstants.FLY_CACHE_NAME);
+        verify(cache).clear();
+    }
+
+    @Test
+    @DisplayName("Should insert ndjson hotels by chunks and rebuild the indexes once")
+    @SuppressWarnings("unchecked")
+    void importHotels_ShouldInsertByChunks_GivenNdjson() {
+        StringBuilder ndjson = new StringBuilder();
+        int rows = CatalogImportHelper.CHUNK_SIZE + 5;
+        for (int i = 0; i < rows; i++) {
+            ndjson.append("{\"name\":\"Hotel ").append(i).append("\",\"address\":\"Street, ").append(i)
+                    .append("\",\"rating\":4,\"price\":").append(50 + i).append(",\"rooms\":").append(i % 7 + 1).append("}\n");
+        }
+        ArgumentCaptor<List<HotelImportRequest>> chunks = ArgumentCaptor.forClass(List.class);
+        when(jdbcTemplate.batchUpdate(anyString(), chunks.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[0][]);
+
+        ImportResponse response = catalogImportService.importHotels(input(ndjson.toString()), ImportFormat.NDJSON);
+
+        assertEquals(rows, response.getImported());
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals(List.of(CatalogImportHelper.CHUNK_SIZE, 5), chunks.getAllValues().stream().map(List::size).toList());
+        assertEquals(new BigDecimal("1054"), chunks.getAllValues().get(1).get(4).getPrice());
+        assertEquals(4, chunks.getAllValues().get(1).get(4).getRooms());
+        ArgumentCaptor<CatalogRebuildEvent> rebuilt = ArgumentCaptor.forClass(CatalogRebuildEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(rebuilt.capture());
+        assertEquals(Tables.hotel, rebuilt.getValue().getCatalog());
+        verify(idFilterHelper, times(1)).rebuildHotels();
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    @DisplayName("Should not refresh the indexes when no row is valid")
+    void importHotels_ShouldNotRefresh_GivenNoValidRows() {
+        ImportResponse response = catalogImportService.importHotels(input("{\"name\":\"\"}\nnot json\n"
+                + "{\"name\":\"Hotel\",\"address\":\"Street\",\"rating\":4,\"price\":50,\"rooms\":0}\n"), ImportFormat.NDJSON);
+
+        assertEquals(3, response.getRejected());
+        verifyNoInteractions(jdbcTemplate, applicationEventPublisher, cache);
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
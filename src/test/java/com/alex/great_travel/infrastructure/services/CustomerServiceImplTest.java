@@ -8,6 +8,7 @@ import com.alex.great_travel.domain.entities.CustomerEntity;
 import com.alex.great_travel.domain.entities.RoleEntity;
 import com.alex.great_travel.domain.repositories.CustomerRepository;
 import com.alex.great_travel.domain.repositories.RoleRepository;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
 import com.alex.great_travel.util.Role;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +35,8 @@ class CustomerServiceImplTest extends ServiceSpec{
 
     @Mock
     private PasswordEncoder encoder;
+    @Mock
+    private IdFilterHelper idFilterHelper;
 
     @InjectMocks
     private CustomerServiceImpl customerService;
@@ -1,20 +1,38 @@
 package com.alex.great_travel.infrastructure.services;
 
 import com.alex.great_travel.DummyData;
+import com.alex.great_travel.api.models.request.FlySearchRequest;
 import com.alex.great_travel.api.models.response.FlyResponse;
-import com.alex.great_travel.domain.entities.FlyEntity;
+import com.alex.great_travel.api.models.response.FlySearchResponse;
+import com.alex.great_travel.api.models.response.SliceResponse;
+import com.alex.great_travel.api.models.response.ItineraryResponse;
 import com.alex.great_travel.domain.repositories.FlyRepository;
+import com.alex.great_travel.infrastructure.helpers.FlySearchCacheHelper;
+import com.alex.great_travel.infrastructure.helpers.NdjsonHelper;
+import com.alex.great_travel.infrastructure.indexes.FlyCatalogIndex;
+import com.alex.great_travel.infrastructure.indexes.FlySearchRangeCache;
+import com.alex.great_travel.infrastructure.indexes.GeoIndex;
+import com.alex.great_travel.infrastructure.indexes.PriceIndex;
+import com.alex.great_travel.infrastructure.indexes.RouteGraph;
+import com.alex.great_travel.infrastructure.indexes.RouteIndex;
 import com.alex.great_travel.util.AeroLine;
+import com.alex.great_travel.util.PageCursor;
 import com.alex.great_travel.util.SortType;
+import com.alex.great_travel.util.exceptions.InvalidCursorException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.data.domain.*;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,17 +45,29 @@ class FlyServiceImplTest extends ServiceSpec{
     @Mock
     private FlyRepository flyRepository;
 
+    @Mock
+    private FlyCatalogIndex flyCatalogIndex;
+
+    @Spy
+    private NdjsonHelper ndjsonHelper = new NdjsonHelper(new ObjectMapper());
+
+    @Spy
+    private FlySearchRangeCache flySearchRangeCache = new FlySearchRangeCache();
+
+    @Mock
+    private FlySearchCacheHelper flySearchCacheHelper;
+
     @InjectMocks
     private FlyServiceImpl flyService;
 
 
-    private FlyEntity flyEntity1;
-    private FlyEntity flyEntity2;
+    private FlyResponse flyResponse1;
+    private FlyResponse flyResponse2;
 
     @BeforeEach
     void setUp() {
 
-        flyEntity1 = DummyData.createFlyEntity(
+        flyResponse1 = DummyData.createFlyResponse(
                 99.9999,
                 88.8888,
                 11.1111,
@@ -48,7 +78,7 @@ class FlyServiceImplTest extends ServiceSpec{
                 new BigDecimal("43.00"
                 ));
 
-        flyEntity2 = DummyData.createFlyEntity(
+        flyResponse2 = DummyData.createFlyResponse(
                 99.9999,
                 88.8888,
                 11.1111,
@@ -58,16 +88,19 @@ class FlyServiceImplTest extends ServiceSpec{
                 AeroLine.aero_gold.name(),
                 new BigDecimal("45.00"
                 ));
+
+        flyResponse1.setId(1L);
+        flyResponse2.setId(2L);
     }
 
     @Test
     @DisplayName("Should return paged flights responses")
     void readAll_ShouldReturnPagedFlights() {
-        List<FlyEntity> flyList = List.of(flyEntity1);
+        List<FlyResponse> flyList = List.of(flyResponse1);
         Pageable pageable = PageRequest.of(0, 5, Sort.by("price").ascending());
-        Page<FlyEntity> page = new PageImpl<>(flyList, pageable, flyList.size());
+        Page<FlyResponse> page = new PageImpl<>(flyList, pageable, flyList.size());
 
-        when(flyRepository.findAll(any(PageRequest.class))).thenReturn(page);
+        when(flyRepository.selectAllResponses(any(PageRequest.class))).thenReturn(page);
 
         Page<FlyResponse> resultPage = flyService.readAll(0, 5, SortType.LOWER);
 
@@ -75,12 +108,59 @@ class FlyServiceImplTest extends ServiceSpec{
         assertEquals(1, resultPage.getTotalElements());
     }
 
+    @Test
+    @DisplayName("Should return a slice and the cursor of the next one")
+    void readSlice_ShouldReturnSliceWithNextCursor() {
+        when(flyRepository.selectFirstResponses(any(Sort.class), eq(Limit.of(2)))).thenReturn(List.of(flyResponse1, flyResponse2));
+
+        SliceResponse<FlyResponse> first = flyService.readSlice(1, null, SortType.UPPER);
+
+        assertEquals(List.of(flyResponse1), first.getContent());
+        assertTrue(first.getHasNext());
+        PageCursor next = PageCursor.decode(first.getNextCursor(), SortType.NONE);
+        assertEquals(SortType.UPPER, next.getSortType());
+        assertEquals(flyResponse1.getId(), next.getId());
+
+        when(flyRepository.selectResponsesBeforePrice(flyResponse1.getPrice(), flyResponse1.getId(), Limit.of(2))).thenReturn(List.of(flyResponse2));
+
+        SliceResponse<FlyResponse> last = flyService.readSlice(1, first.getNextCursor(), SortType.LOWER);
+
+        assertEquals(List.of(flyResponse2), last.getContent());
+        assertFalse(last.getHasNext());
+        assertNull(last.getNextCursor());
+        verify(flyRepository, never()).selectAllResponses(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that was not issued by the service")
+    void readSlice_ShouldThrow_GivenInvalidCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> flyService.readSlice(5, "not-a-cursor", SortType.NONE));
+        verifyNoInteractions(flyRepository);
+    }
+
+    @Test
+    @DisplayName("Should write one json line by row with less price")
+    void streamLessPrice_ShouldWriteOneLineByRow() throws Exception {
+        BigDecimal price = new BigDecimal("110.00");
+        when(flyCatalogIndex.byPrice()).thenReturn(priceIndex());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        flyService.streamLessPrice(price, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":" + flyResponse1.getId() + ","));
+        assertTrue(lines[1].startsWith("{\"id\":" + flyResponse2.getId() + ","));
+        verifyNoInteractions(flyRepository);
+    }
+
     @Test
     @DisplayName("Should return Set of flights with less price")
     void readLessPrice_ShouldReturnFlightsWithLessPrice() {
         BigDecimal price = new BigDecimal("50.00");
 
-        when(flyRepository.selectLessPrice(price)).thenReturn(Set.of(flyEntity1, flyEntity2));
+        when(flyCatalogIndex.byPrice()).thenReturn(priceIndex());
 
         Set<FlyResponse> result = flyService.readLessPrice(price);
 
@@ -91,7 +171,8 @@ class FlyServiceImplTest extends ServiceSpec{
                 result.stream().allMatch(fly -> fly.getPrice().compareTo(price) < 0)
         );
 
-        verify(flyRepository).selectLessPrice(eq(price));
+        verify(flyCatalogIndex).byPrice();
+        verifyNoInteractions(flyRepository);
     }
 
     @Test
@@ -100,8 +181,7 @@ class FlyServiceImplTest extends ServiceSpec{
         BigDecimal min = BigDecimal.valueOf(40);
         BigDecimal max = BigDecimal.valueOf(50);
 
-        when(flyRepository.selectBetweenPrice(min, max))
-                .thenReturn(Set.of(flyEntity1, flyEntity2));
+        when(flyCatalogIndex.byPrice()).thenReturn(priceIndex());
 
         Set<FlyResponse> result = flyService.readBetweenPrices(min, max);
 
@@ -117,7 +197,8 @@ class FlyServiceImplTest extends ServiceSpec{
 
         );
 
-        verify(flyRepository).selectBetweenPrice(min, max);
+        verify(flyCatalogIndex).byPrice();
+        verifyNoInteractions(flyRepository);
     }
 
     @Test
@@ -126,8 +207,7 @@ class FlyServiceImplTest extends ServiceSpec{
         String origin = "Mexico";
         String destiny = "Grecia";
 
-        when(flyRepository.selectOriginDestiny(origin, destiny))
-                .thenReturn(Set.of(flyEntity1, flyEntity2));
+        when(flyCatalogIndex.byRoute()).thenReturn(RouteIndex.of(List.of(flyResponse1, flyResponse2)));
 
         Set<FlyResponse> result = flyService.readByOriginDestiny(origin, destiny);
 
@@ -144,6 +224,90 @@ class FlyServiceImplTest extends ServiceSpec{
                 "destiny should be Grecia"
         );
 
-        verify(flyRepository).selectOriginDestiny(origin, destiny);
+        verify(flyCatalogIndex).byRoute();
+        verifyNoInteractions(flyRepository);
+    }
+
+    @Test
+    @DisplayName("Should return itineraries with their total price")
+    void readRoutes_ShouldReturnItineraries() {
+        FlyResponse connection = DummyData.createFlyResponse(
+                11.1111, 22.2222, 44.4444, 55.5555, "Grecia", "Canada", AeroLine.blue_sky.name(), new BigDecimal("10.00"));
+        connection.setId(3L);
+        List<FlyResponse> flights = List.of(flyResponse1, flyResponse2, connection);
+
+        when(flyCatalogIndex.routeGraph()).thenReturn(RouteGraph.of(RouteIndex.of(flights), flights));
+
+        List<ItineraryResponse> result = flyService.readRoutes("Mexico", "Canada", 3, 5);
+
+        assertEquals(2, result.size());
+        assertEquals(2, result.get(0).getLegs());
+        assertEquals(new BigDecimal("53.00"), result.get(0).getTotalPrice());
+        assertEquals(new BigDecimal("55.00"), result.get(1).getTotalPrice());
+        verifyNoInteractions(flyRepository);
+    }
+
+    @Test
+    @DisplayName("Should return flights departing within the radius")
+    void readNear_ShouldReturnNearFlights() {
+        when(flyCatalogIndex.byOrigin()).thenReturn(GeoIndex.of(List.of(flyResponse1, flyResponse2)));
+
+        List<FlyResponse> result = flyService.readNear(99.9999, 88.8888, 200.0);
+
+        assertEquals(2, result.size());
+        assertTrue(flyService.readNear(0.0, 0.0, 200.0).isEmpty());
+        verifyNoInteractions(flyRepository);
+    }
+
+    @Test
+    @DisplayName("Should return the matching flights with the total of the selected aeroline")
+    void search_ShouldReturnFlightsAndFacets() {
+        FlySearchRequest request = FlySearchRequest.builder().aeroLine(AeroLine.aero_gold).build().normalized();
+        when(flyRepository.countByAeroLine(request)).thenReturn(Map.of(AeroLine.aero_gold, 2L, AeroLine.blue_sky, 5L));
+        when(flyRepository.search(request)).thenReturn(List.of(flyResponse1, flyResponse2));
+        when(flyRepository.countByPriceBucket(request, FlyServiceImpl.PRICE_BUCKET_WIDTH)).thenReturn(Map.of(BigDecimal.ZERO, 2L));
+
+        FlySearchResponse result = flyService.search(request);
+
+        assertEquals(2L, result.getTotal());
+        assertEquals(2, result.getFlights().size());
+        assertEquals(5L, result.getByAeroLine().get(AeroLine.blue_sky));
+        assertEquals(2L, result.getByPrice().get(BigDecimal.ZERO));
+        verify(flySearchCacheHelper).track(request);
+    }
+
+    @Test
+    @DisplayName("Should not read the flights when no flight matches")
+    void search_ShouldSkipRows_GivenNoMatches() {
+        FlySearchRequest request = FlySearchRequest.builder().origin("Nowhere").build().normalized();
+        when(flyRepository.countByAeroLine(request)).thenReturn(Map.of());
+
+        FlySearchResponse result = flyService.search(request);
+
+        assertEquals(0L, result.getTotal());
+        assertTrue(result.getFlights().isEmpty());
+        verify(flyRepository, never()).search(any());
+    }
+
+    @Test
+    @DisplayName("Should answer a narrower price range from a complete search without the database")
+    void search_ShouldFilterKeptSearch_GivenNarrowerRange() {
+        FlySearchRequest wide = FlySearchRequest.builder().origin("Mexico").build().normalized();
+        when(flyRepository.countByAeroLine(wide)).thenReturn(Map.of(AeroLine.aero_gold, 2L));
+        when(flyRepository.search(wide)).thenReturn(List.of(flyResponse1, flyResponse2));
+        when(flyRepository.countByPriceBucket(wide, FlyServiceImpl.PRICE_BUCKET_WIDTH)).thenReturn(Map.of(BigDecimal.ZERO, 2L));
+        flyService.search(wide);
+
+        FlySearchRequest narrow = wide.toBuilder().minPrice(new BigDecimal("44.00")).build().normalized();
+        FlySearchResponse result = flyService.search(narrow);
+
+        assertEquals(List.of(flyResponse2), result.getFlights());
+        assertEquals(1L, result.getTotal());
+        verify(flyRepository, times(1)).countByAeroLine(any());
+        verify(flyRepository, times(1)).search(any());
+    }
+
+    private PriceIndex<FlyResponse> priceIndex() {
+        return PriceIndex.of(List.of(flyResponse1, flyResponse2), FlyResponse::getId, FlyResponse::getPrice);
     }
-}
\ No newline at end of file
+}
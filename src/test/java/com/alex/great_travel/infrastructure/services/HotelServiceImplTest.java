@@ -2,18 +2,30 @@ package com.alex.great_travel.infrastructure.services;
 
 import com.alex.great_travel.DummyData;
 import com.alex.great_travel.api.models.response.HotelResponse;
-import com.alex.great_travel.domain.entities.HotelEntity;
-import com.alex.great_travel.domain.entities.ReservationEntity;
+import com.alex.great_travel.api.models.response.SliceResponse;
 import com.alex.great_travel.domain.repositories.HotelRepository;
+import com.alex.great_travel.infrastructure.helpers.NdjsonHelper;
+import com.alex.great_travel.infrastructure.indexes.HotelBitmapIndex;
+import com.alex.great_travel.infrastructure.indexes.HotelCatalogIndex;
+import com.alex.great_travel.infrastructure.indexes.HotelTextIndex;
+import com.alex.great_travel.infrastructure.indexes.PriceIndex;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
+import com.alex.great_travel.util.PageCursor;
 import com.alex.great_travel.util.SortType;
+import com.alex.great_travel.util.exceptions.InvalidCursorException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.data.domain.*;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
 
@@ -27,35 +39,43 @@ class HotelServiceImplTest extends ServiceSpec{
     @Mock
     private HotelRepository hotelRepository;
 
+    @Mock
+    private HotelCatalogIndex hotelCatalogIndex;
+
+    @Mock
+    private RoomInventory roomInventory;
+
+    @Spy
+    private NdjsonHelper ndjsonHelper = new NdjsonHelper(new ObjectMapper());
+
     @InjectMocks
     HotelServiceImpl hotelService;
 
 
-    HotelEntity hotel1;
-    HotelEntity hotel2;
+    HotelResponse hotel1;
+    HotelResponse hotel2;
 
     @BeforeEach
     void setUp() {
-        hotel1 = DummyData.createHotelEntity();
+        hotel1 = DummyData.createHotelResponse();
 
-        hotel2 = HotelEntity.builder()
+        hotel2 = HotelResponse.builder()
                 .id(2L)
                 .price(BigDecimal.valueOf(50))
                 .name("Hotel2")
                 .rating(4)
                 .address("addres hotel 2")
-                .reservation(Set.of(new ReservationEntity()))
                 .build();
     }
 
     @Test
     @DisplayName("Should return paged hotels responses")
     void readAll_ShouldReturnPagedHotels() {
-        List<HotelEntity> hotelsList = List.of(hotel1);
+        List<HotelResponse> hotelsList = List.of(hotel1);
         Pageable pageable = PageRequest.of(0, 5, Sort.by("price").ascending());
-        Page<HotelEntity> page = new PageImpl<>(hotelsList, pageable, hotelsList.size());
+        Page<HotelResponse> page = new PageImpl<>(hotelsList, pageable, hotelsList.size());
 
-        when(hotelRepository.findAll(any(PageRequest.class))).thenReturn(page);
+        when(hotelRepository.selectAllResponses(any(PageRequest.class))).thenReturn(page);
 
         Page<HotelResponse> resultPage = hotelService.readAll(0, 5, SortType.LOWER);
 
@@ -63,12 +83,59 @@ class HotelServiceImplTest extends ServiceSpec{
         assertEquals(1, resultPage.getTotalElements());
     }
 
+    @Test
+    @DisplayName("Should return a slice and the cursor of the next one")
+    void readSlice_ShouldReturnSliceWithNextCursor() {
+        when(hotelRepository.selectFirstResponses(any(Sort.class), eq(Limit.of(2)))).thenReturn(List.of(hotel1, hotel2));
+
+        SliceResponse<HotelResponse> first = hotelService.readSlice(1, null, SortType.UPPER);
+
+        assertEquals(List.of(hotel1), first.getContent());
+        assertTrue(first.getHasNext());
+        PageCursor next = PageCursor.decode(first.getNextCursor(), SortType.NONE);
+        assertEquals(SortType.UPPER, next.getSortType());
+        assertEquals(hotel1.getId(), next.getId());
+
+        when(hotelRepository.selectResponsesBeforePrice(hotel1.getPrice(), hotel1.getId(), Limit.of(2))).thenReturn(List.of(hotel2));
+
+        SliceResponse<HotelResponse> last = hotelService.readSlice(1, first.getNextCursor(), SortType.LOWER);
+
+        assertEquals(List.of(hotel2), last.getContent());
+        assertFalse(last.getHasNext());
+        assertNull(last.getNextCursor());
+        verify(hotelRepository, never()).selectAllResponses(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that was not issued by the service")
+    void readSlice_ShouldThrow_GivenInvalidCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> hotelService.readSlice(5, "not-a-cursor", SortType.NONE));
+        verifyNoInteractions(hotelRepository);
+    }
+
+    @Test
+    @DisplayName("Should write one json line by row with less price")
+    void streamLessPrice_ShouldWriteOneLineByRow() throws Exception {
+        BigDecimal price = new BigDecimal("110.00");
+        when(hotelCatalogIndex.byPrice()).thenReturn(priceIndex());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        hotelService.streamLessPrice(price, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":" + hotel2.getId() + ","));
+        assertTrue(lines[1].startsWith("{\"id\":" + hotel1.getId() + ","));
+        verifyNoInteractions(hotelRepository);
+    }
+
     @Test
     @DisplayName("Should return Set of hotels with less price")
     void readLessPrice_ShouldReturnHotelsWithLessPrice() {
         BigDecimal price = new BigDecimal("110.00");
 
-        when(hotelRepository.findByPriceLessThan(price)).thenReturn(Set.of(hotel1, hotel2));
+        when(hotelCatalogIndex.byPrice()).thenReturn(priceIndex());
 
         Set<HotelResponse> result = hotelService.readLessPrice(price);
 
@@ -79,7 +146,8 @@ class HotelServiceImplTest extends ServiceSpec{
                 result.stream().allMatch(hotel -> hotel.getPrice().compareTo(price) < 0)
         );
 
-        verify(hotelRepository, times(1)).findByPriceLessThan(eq(price));
+        verify(hotelCatalogIndex, times(1)).byPrice();
+        verifyNoInteractions(hotelRepository);
     }
 
     @Test
@@ -88,8 +156,7 @@ class HotelServiceImplTest extends ServiceSpec{
         BigDecimal min = BigDecimal.valueOf(50);
         BigDecimal max = BigDecimal.valueOf(100);
 
-        when(hotelRepository.findByPriceBetween(min, max))
-                .thenReturn(Set.of(hotel1, hotel2));
+        when(hotelCatalogIndex.byPrice()).thenReturn(priceIndex());
 
         Set<HotelResponse> result = hotelService.readBetweenPrices(min, max);
 
@@ -105,7 +172,8 @@ class HotelServiceImplTest extends ServiceSpec{
 
         );
 
-        verify(hotelRepository).findByPriceBetween(min, max);
+        verify(hotelCatalogIndex).byPrice();
+        verifyNoInteractions(hotelRepository);
     }
 
     @Test
@@ -113,7 +181,7 @@ class HotelServiceImplTest extends ServiceSpec{
     void readByRatingGreaterThan_ShouldReturnHotelsWithRatingGreaterThan() {
        Integer rating = 4;
 
-        when(hotelRepository.findByRatingGreaterThan(rating)).thenReturn(Set.of(hotel1));
+        when(hotelCatalogIndex.byFilter()).thenReturn(HotelBitmapIndex.of(priceIndex()));
 
         Set<HotelResponse> result = hotelService.readByRatingGreaterThan(rating);
 
@@ -124,6 +192,44 @@ class HotelServiceImplTest extends ServiceSpec{
                 result.stream().allMatch(hotel -> hotel.getRating().compareTo(rating) > 0)
         );
 
-        verify(hotelRepository).findByRatingGreaterThan(eq(rating));
+        verifyNoInteractions(hotelRepository);
+    }
+
+    @Test
+    @DisplayName("Should return the hotels matching rating and prices in price order")
+    void readByFilter_ShouldReturnHotelsMatchingEveryFilter() {
+        when(hotelCatalogIndex.byFilter()).thenReturn(HotelBitmapIndex.of(priceIndex()));
+
+        assertEquals(List.of(hotel2, hotel1), hotelService.readByFilter(4, null, null));
+        assertEquals(List.of(hotel1), hotelService.readByFilter(5, BigDecimal.ZERO, BigDecimal.valueOf(200)));
+        assertEquals(List.of(hotel2), hotelService.readByFilter(null, null, BigDecimal.valueOf(99.99)));
+        verifyNoInteractions(hotelRepository);
+    }
+
+    @Test
+    @DisplayName("Should return the hotels with free rooms in price order")
+    void readAvailable_ShouldReturnFreeHotelsInPriceOrder() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        when(roomInventory.available(checkIn, checkIn.plusDays(2))).thenReturn(List.of(1L, 2L));
+        when(roomInventory.available(checkIn, checkIn.plusDays(5))).thenReturn(List.of());
+        when(hotelCatalogIndex.byPrice()).thenReturn(priceIndex());
+
+        assertEquals(List.of(hotel2, hotel1), hotelService.readAvailable(checkIn, checkIn.plusDays(2)));
+        assertTrue(hotelService.readAvailable(checkIn, checkIn.plusDays(5)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return the hotels matching the text from the text index")
+    void search_ShouldReturnHotelsMatchingText() {
+        when(hotelCatalogIndex.byText()).thenReturn(HotelTextIndex.of(priceIndex()));
+
+        assertEquals(List.of(hotel2, hotel1), hotelService.search("hotel 2", 10));
+        assertEquals(List.of(hotel2), hotelService.search("hotel 2", 1));
+        assertTrue(hotelService.search("qwerty", 10).isEmpty());
+        verifyNoInteractions(hotelRepository);
+    }
+
+    private PriceIndex<HotelResponse> priceIndex() {
+        return PriceIndex.of(List.of(hotel1, hotel2), HotelResponse::getId, HotelResponse::getPrice);
     }
-}
\ No newline at end of file
+}
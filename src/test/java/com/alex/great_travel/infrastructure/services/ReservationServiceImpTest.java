@@ -9,7 +9,10 @@ import com.alex.great_travel.domain.repositories.CustomerRepository;
 import com.alex.great_travel.domain.repositories.HotelRepository;
 import com.alex.great_travel.domain.repositories.ReservationRepository;
 import com.alex.great_travel.infrastructure.helpers.CustomerHelper;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
+import com.alex.great_travel.util.exceptions.NoRoomAvailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +21,7 @@ import org.mockito.Mock;
 import org.springframework.jmx.export.naming.IdentityNamingStrategy;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,6 +40,10 @@ class ReservationServiceImpTest extends ServiceSpec{
     private HotelRepository hotelRepository;
     @Mock
     private CustomerHelper customerHelper;
+    @Mock
+    private RoomInventory roomInventory;
+    @Mock
+    private IdFilterHelper idFilterHelper;
 
     @InjectMocks
     private ReservationServiceImp reservationService;
@@ -76,9 +84,24 @@ class ReservationServiceImpTest extends ServiceSpec{
         assertEquals(reservationRequest.getHotelId(), response.getHotel().getId());
         assertEquals(reservationRequest.getTotalDays(), response.getTotalDays());
         verify(reservationRepository, times(1)).save(any(ReservationEntity.class));
+        verify(roomInventory).reserve(hotelId, LocalDate.now(), LocalDate.now().plusDays(3));
 
     }
 
+    @Test
+    @DisplayName("Unhappy path Should not save a reservation when the hotel is full")
+    void create_ShouldThrowException_WhenNoRoomAvailable() {
+        LocalDate checkIn = LocalDate.now().plusDays(7);
+        reservationRequest.setCheckIn(checkIn);
+        when(hotelRepository.findById(hotelId)).thenReturn(Optional.of(hotel));
+        when(customerRepository.findById(customerDni)).thenReturn(Optional.of(customer));
+        doThrow(new NoRoomAvailableException(hotelId, checkIn, checkIn.plusDays(3)))
+                .when(roomInventory).reserve(hotelId, checkIn, checkIn.plusDays(3));
+
+        assertThrows(NoRoomAvailableException.class, () -> reservationService.create(reservationRequest));
+        verify(reservationRepository, never()).save(any(ReservationEntity.class));
+    }
+
     @Test
     @DisplayName("happy path should return reservation when it exists")
     void read_ShouldReturnReservation_WhenExists() {
@@ -144,6 +167,7 @@ class ReservationServiceImpTest extends ServiceSpec{
                 () -> assertEquals(2L, updateResponse.getHotel().getId()),
                 () -> assertEquals(request.getTotalDays(), updateResponse.getTotalDays())
         );
+        verify(roomInventory).reserve(2L, LocalDate.now(), LocalDate.now().plusDays(5), reservationId);
 
     }
 
@@ -173,5 +197,6 @@ class ReservationServiceImpTest extends ServiceSpec{
 
         reservationService.delete(reservationId);
         verify(reservationRepository, atLeastOnce()).delete(any(ReservationEntity.class));
+        verify(roomInventory).release(hotelId, reservation.getDateStart(), reservation.getDateEnd());
     }
 }
\ No newline at end of file
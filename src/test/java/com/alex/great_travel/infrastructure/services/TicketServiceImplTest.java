@@ -8,6 +8,7 @@ import com.alex.great_travel.api.models.response.TicketResponse;
 import com.alex.great_travel.domain.entities.*;
 import com.alex.great_travel.domain.repositories.*;
 import com.alex.great_travel.infrastructure.helpers.CustomerHelper;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
 import com.alex.great_travel.util.AeroLine;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +34,8 @@ class TicketServiceImplTest extends ServiceSpec {
     private TicketRepository ticketRepository;
     @Mock
     private CustomerHelper customerHelper;
+    @Mock
+    private IdFilterHelper idFilterHelper;
 
     @InjectMocks
     private TicketServiceImpl ticketService;
@@ -123,6 +126,15 @@ class TicketServiceImplTest extends ServiceSpec {
         assertEquals(priceExpected, response);
     }
 
+    @Test
+    @DisplayName("Unhappy path Should reject a fly ID the id filter does not know without reading it")
+    void findPrice_ShouldThrowException_WhenFlyIdFiltered() {
+        doThrow(new IdNotFoundException("fly")).when(idFilterHelper).requireFly(flyId);
+
+        assertThrows(IdNotFoundException.class, () -> ticketService.findPrice(flyId));
+        verify(flyRepository, never()).findById(any());
+    }
+
     @Test
     @DisplayName("Happy path Should update a ticket given a valid request and ticket ID")
     void update_ShouldReturnUpdateTicket() {
@@ -4,14 +4,19 @@ import com.alex.great_travel.DummyData;
 import com.alex.great_travel.api.models.request.TourFlyRequest;
 import com.alex.great_travel.api.models.request.TourHotelRequest;
 import com.alex.great_travel.api.models.request.TourRequest;
+import com.alex.great_travel.api.models.response.HotelResponse;
 import com.alex.great_travel.api.models.response.TourResponse;
 import com.alex.great_travel.domain.entities.*;
 import com.alex.great_travel.domain.repositories.CustomerRepository;
 import com.alex.great_travel.domain.repositories.FlyRepository;
 import com.alex.great_travel.domain.repositories.HotelRepository;
+import com.alex.great_travel.domain.repositories.ReservationRepository;
+import com.alex.great_travel.domain.repositories.TicketRepository;
 import com.alex.great_travel.domain.repositories.TourRepository;
 import com.alex.great_travel.infrastructure.helpers.CustomerHelper;
+import com.alex.great_travel.infrastructure.helpers.IdFilterHelper;
 import com.alex.great_travel.infrastructure.helpers.TourHelper;
+import com.alex.great_travel.infrastructure.indexes.RoomInventory;
 import com.alex.great_travel.util.exceptions.IdNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -44,6 +49,10 @@ class TourServiceImplTest extends ServiceSpec{
     private TourHelper tourHelper;
     @Mock
     private CustomerHelper customerHelper;
+    @Mock
+    private IdFilterHelper idFilterHelper;
+    @Mock
+    private RoomInventory roomInventory;
 
     @InjectMocks
     TourServiceImpl tourService;
@@ -137,7 +146,7 @@ class TourServiceImplTest extends ServiceSpec{
 
         when(tourHelper.createTickets(anySet(), eq(customer)))
                 .thenReturn(savedTour.getTickets());
-        when(tourHelper.createReservations((HashMap<HotelEntity, Integer>) any(), eq(customer)))
+        when(tourHelper.createReservations((HashMap<HotelEntity, TourHotelRequest>) any(), eq(customer)))
                 .thenReturn(savedTour.getReservations());
 
         when(tourRepository.save(any(TourEntity.class))).thenReturn(savedTour);
@@ -251,4 +260,30 @@ class TourServiceImplTest extends ServiceSpec{
         verify(tourRepository).save(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("removeReservation should free the nights of the removed stay")
+    void removeReservation_ShouldFreeRoom() {
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        hotel1.setRooms(1);
+        when(hotelRepository.selectAllResponses()).thenReturn(List.of(HotelResponse.builder().id(hotel1.getId()).rooms(1).build()));
+        when(hotelRepository.lockById(hotel1.getId())).thenReturn(Optional.of(hotel1));
+        when(hotelRepository.findById(hotel1.getId())).thenReturn(Optional.of(hotel1));
+        when(reservationRepository.save(any(ReservationEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(tourRepository.findById(tourId)).thenReturn(Optional.of(savedTour));
+        RoomInventory inventory = new RoomInventory(hotelRepository, reservationRepository);
+        TourServiceImpl service = new TourServiceImpl(tourRepository, hotelRepository, customerRepository, flyRepository,
+                new TourHelper(mock(TicketRepository.class), reservationRepository, inventory), customerHelper, idFilterHelper, inventory);
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        assertEquals(List.of(hotel1.getId()), inventory.available(checkIn, checkIn.plusDays(2)));
+
+        UUID booked = service.addReservation(tourId, hotel1.getId(), 2, checkIn);
+        assertTrue(inventory.available(checkIn, checkIn.plusDays(2)).isEmpty());
+        assertEquals(List.of(hotel1.getId()), inventory.available(LocalDate.now(), checkIn));
+
+        service.removeReservation(tourId, booked);
+
+        assertEquals(List.of(hotel1.getId()), inventory.available(checkIn, checkIn.plusDays(2)));
+        assertTrue(savedTour.getReservations().stream().noneMatch(reservation -> reservation.getId().equals(booked)));
+    }
+
+}
@@ -42,7 +42,8 @@ CREATE TABLE hotel (
     name VARCHAR(50) NOT NULL,
     address VARCHAR(50) NOT NULL,
     rating INT NOT NULL,
-    price DOUBLE PRECISION NOT NULL
+    price DOUBLE PRECISION NOT NULL,
+    rooms INT NOT NULL DEFAULT 10
 );
 
 CREATE TABLE tour (
@@ -79,3 +80,6 @@ CREATE TABLE ticket (
     CONSTRAINT fk_fly_t FOREIGN KEY (fly_id) REFERENCES fly(id),
     CONSTRAINT fk_tour_t FOREIGN KEY (tour_id) REFERENCES tour(id) ON DELETE CASCADE
 );
+
+CREATE INDEX idx_fly_price_id ON fly (price, id);
+CREATE INDEX idx_hotel_price_id ON hotel (price, id);